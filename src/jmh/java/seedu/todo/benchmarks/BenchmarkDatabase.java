@@ -0,0 +1,48 @@
+package seedu.todo.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+// @@author agent
+/**
+ * Creates synthetic databases for benchmarks, and points the app at them.
+ */
+public class BenchmarkDatabase {
+
+    /**
+     * Writes a DB with <code>size</code> items, about 70% of which are Tasks,
+     * into a new temporary directory, and points the app at it. The same size
+     * always gives the same DB.
+     *
+     * @param size  Number of items
+     * @return The temporary directory, to be removed with <code>delete</code>
+     */
+    public static File install(int size) throws IOException {
+        File directory = createDirectory();
+        int taskCount = size * 7 / 10;
+        new DatabaseGenerator().setTaskCount(taskCount).setEventCount(size - taskCount).install(directory);
+        return directory;
+    }
+
+    /**
+     * Creates a new temporary directory to install a DB into.
+     */
+    public static File createDirectory() throws IOException {
+        return Files.createTempDirectory("getshitdone-benchmark").toFile();
+    }
+
+    /**
+     * Recursively deletes a directory created by <code>install</code>.
+     */
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -0,0 +1,93 @@
+package seedu.todo.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.JsonStorage;
+
+// @@author agent
+/**
+ * Benchmarks for the formats the DB file can be written in: pretty-printed
+ * (the default), compact, and compressed. Saves include waiting for the write
+ * to reach the disk. The size of the DB file in each format is printed once
+ * the benchmark is done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DatabaseFormatBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    @Param({ "pretty", "compact", "compressed" })
+    public String format;
+
+    private File directory;
+    private File databaseFile;
+    private JsonStorage storage;
+    private TodoListDB db;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.install(size);
+        Config config = ConfigCenter.getInstance().getConfig();
+        config.setDatabaseCompact(format.equals("compact"));
+        config.setDatabaseCompressed(format.equals("compressed"));
+        databaseFile = new File(config.getDatabaseFilePath());
+
+        storage = new JsonStorage();
+        db = storage.load();
+        task = db.getAllTasks().get(0);
+
+        // Rewrites the DB file in the format being measured.
+        save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.flush();
+        System.out.println(String.format("Database: %d items, %s, %d KB", size, format,
+                databaseFile.length() / 1024));
+        BenchmarkDatabase.delete(directory);
+    }
+
+    @Benchmark
+    public void save() throws Exception {
+        if (task.isCompleted()) {
+            task.setIncomplete();
+        } else {
+            task.setCompleted();
+        }
+        storage.save(db);
+        storage.flush();
+    }
+
+    @Benchmark
+    public TodoListDB load() throws Exception {
+        return storage.load();
+    }
+
+}
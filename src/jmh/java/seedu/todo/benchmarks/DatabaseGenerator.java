@@ -0,0 +1,231 @@
+package seedu.todo.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.CalendarItem;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.JsonStorage;
+
+// @@author agent
+/**
+ * Generates synthetic databases of configurable size and shape, for
+ * benchmarks and load tests.
+ *
+ * <ul>
+ * <li>Tasks and Events are interleaved in creation order, as they would be
+ * after real use.</li>
+ * <li>Tags are drawn from a Zipf distribution, so that a few tags are on most
+ * items. A skew of 0 draws them uniformly instead.</li>
+ * <li>The same settings and seed always give the same DB, relative to the
+ * day it is generated on.</li>
+ * </ul>
+ */
+public class DatabaseGenerator {
+
+    public static final String DATABASE_FILE_NAME = "database.json";
+    public static final String CONFIG_FILE_NAME = "config.json";
+
+    private static final String[] DEFAULT_VOCABULARY = { "buy", "milk", "submit", "report", "call", "mum",
+        "meeting", "project", "review", "lecture", "tutorial", "gym", "dinner", "exam", "revise", "email",
+        "boss", "groceries", "laundry", "deadline" };
+    private static final String[] DEFAULT_TAGS = { "work", "school", "personal", "urgent", "family", "cs2103",
+        "errands", "health" };
+
+    private long seed = 2103;
+    private int taskCount = 700;
+    private int eventCount = 300;
+    private String[] vocabulary = DEFAULT_VOCABULARY;
+    private int wordsPerName = 3;
+    private String[] tags = DEFAULT_TAGS;
+    private int maxTagsPerItem = 2;
+    private double tagSkew = 1.0;
+    private int daysBefore = 182;
+    private int daysAfter = 182;
+    private double undatedTaskRatio = 0.25;
+    private double completedTaskRatio = 0.5;
+    private Map<String, String> aliases = new LinkedHashMap<String, String>();
+
+    public DatabaseGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public DatabaseGenerator setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+        return this;
+    }
+
+    public DatabaseGenerator setEventCount(int eventCount) {
+        this.eventCount = eventCount;
+        return this;
+    }
+
+    /**
+     * Sets the words which item names are made of, and how many words each
+     * name has. Names are also numbered, so that they are unique.
+     */
+    public DatabaseGenerator setVocabulary(String[] vocabulary, int wordsPerName) {
+        this.vocabulary = vocabulary;
+        this.wordsPerName = wordsPerName;
+        return this;
+    }
+
+    /**
+     * Sets the tags to draw from, and the maximum number of tags per item.
+     * Each item gets between 0 and <code>maxTagsPerItem</code> tags.
+     */
+    public DatabaseGenerator setTags(String[] tags, int maxTagsPerItem) {
+        this.tags = tags;
+        this.maxTagsPerItem = maxTagsPerItem;
+        return this;
+    }
+
+    /**
+     * Sets the Zipf exponent of the tag distribution, where the i-th tag is
+     * drawn with probability proportional to <code>1 / i^skew</code>.
+     */
+    public DatabaseGenerator setTagSkew(double tagSkew) {
+        this.tagSkew = tagSkew;
+        return this;
+    }
+
+    /**
+     * Sets the range of dates to spread items over, in days before and after
+     * today.
+     */
+    public DatabaseGenerator setDateSpread(int daysBefore, int daysAfter) {
+        this.daysBefore = daysBefore;
+        this.daysAfter = daysAfter;
+        return this;
+    }
+
+    public DatabaseGenerator setUndatedTaskRatio(double undatedTaskRatio) {
+        this.undatedTaskRatio = undatedTaskRatio;
+        return this;
+    }
+
+    public DatabaseGenerator setCompletedTaskRatio(double completedTaskRatio) {
+        this.completedTaskRatio = completedTaskRatio;
+        return this;
+    }
+
+    /**
+     * Sets the command aliases to install into the config, as with the
+     * <code>alias</code> command.
+     */
+    public DatabaseGenerator setAliases(Map<String, String> aliases) {
+        this.aliases = new LinkedHashMap<String, String>(aliases);
+        return this;
+    }
+
+    /**
+     * Generates a DB with the current settings, in memory.
+     *
+     * @return TodoListDB
+     */
+    public TodoListDB generate() throws IOException {
+        TodoListDB db = JsonUtil.fromJsonString("{}", TodoListDB.class);
+        Random random = new Random(seed);
+        double[] tagWeights = cumulativeZipfWeights(tags.length, tagSkew);
+        LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        int tasksLeft = taskCount;
+        int eventsLeft = eventCount;
+        for (int i = 0; tasksLeft + eventsLeft > 0; i++) {
+            LocalDateTime date = today.plusDays(random.nextInt(daysBefore + daysAfter + 1) - daysBefore)
+                    .plusHours(random.nextInt(24));
+            CalendarItem item;
+            if (random.nextInt(tasksLeft + eventsLeft) < tasksLeft) {
+                Task task = db.createTask();
+                if (random.nextDouble() >= undatedTaskRatio) {
+                    task.setDueDate(date);
+                }
+                if (random.nextDouble() < completedTaskRatio) {
+                    task.setCompleted();
+                }
+                item = task;
+                tasksLeft--;
+            } else {
+                Event event = db.createEvent();
+                event.setStartDate(date);
+                event.setEndDate(date.plusHours(1 + random.nextInt(3)));
+                item = event;
+                eventsLeft--;
+            }
+
+            item.setName(generateName(random, i));
+            for (int j = random.nextInt(maxTagsPerItem + 1); j > 0 && tags.length > 0; j--) {
+                String tag = tags[drawIndex(random, tagWeights)];
+                item.addTag(tag);
+                db.updateTagList(tag);
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Generates a DB and writes it through JsonStorage into
+     * <code>directory</code>, along with a config holding the aliases. Points
+     * the app at the written config and DB.
+     *
+     * @param directory     Directory to write into
+     * @return The written DB file
+     */
+    public File install(File directory) throws IOException {
+        File databaseFile = new File(directory, DATABASE_FILE_NAME);
+        ConfigCenter configCenter = ConfigCenter.getInstance();
+        configCenter.setConfigFilePath(new File(directory, CONFIG_FILE_NAME).getPath());
+        Config config = configCenter.getConfig();
+        config.setDatabaseFilePath(databaseFile.getPath());
+        config.getAliases().clear();
+        config.getAliases().putAll(aliases);
+        configCenter.saveConfig(config);
+
+        JsonStorage storage = new JsonStorage();
+        storage.save(generate());
+        storage.flush();
+        return databaseFile;
+    }
+
+    private String generateName(Random random, int number) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < wordsPerName; i++) {
+            name.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+        }
+        return name.append(number).toString();
+    }
+
+    private static double[] cumulativeZipfWeights(int count, double skew) {
+        double[] weights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            weights[i] = total;
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    private static int drawIndex(Random random, double[] cumulativeWeights) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+}
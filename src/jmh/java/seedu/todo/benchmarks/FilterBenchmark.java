@@ -0,0 +1,91 @@
+package seedu.todo.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import seedu.todo.controllers.concerns.CalendarItemFilter;
+import seedu.todo.controllers.concerns.Tokenizer;
+import seedu.todo.models.CalendarItemQuery;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * Benchmarks for querying the DB, as done by <code>list</code>,
+ * <code>find</code> and <code>clear</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private File directory;
+    private Map<String, String[]> taskQuery;
+    private Map<String, String[]> eventQuery;
+    private List<Predicate<Task>> taskPredicates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.install(size);
+        TodoListDB.getInstance().load();
+
+        taskQuery = Tokenizer.tokenize(CalendarItemFilter.getFilterTokenDefinitions(),
+                "list tasks incomplete tag work");
+        eventQuery = Tokenizer.tokenize(CalendarItemFilter.getFilterTokenDefinitions(),
+                "list events from today to next week");
+        taskPredicates = Arrays.asList(Task.predCompleted(false), Task.predTag("work"), Task.predByName("report"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.delete(directory);
+    }
+
+    @Benchmark
+    public List<Task> filterTasks() throws Exception {
+        return CalendarItemFilter.filterTasks(taskQuery);
+    }
+
+    @Benchmark
+    public List<Event> filterEvents() throws Exception {
+        return CalendarItemFilter.filterEvents(eventQuery);
+    }
+
+    @Benchmark
+    public List<Task> taskWhere() {
+        return Task.where(taskPredicates);
+    }
+
+    @Benchmark
+    public List<Task> taskWhereParallel() {
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>().parallel();
+        taskPredicates.forEach(query::where);
+        return Task.where(query);
+    }
+
+}
@@ -0,0 +1,91 @@
+package seedu.todo.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.JsonStorage;
+
+// @@author agent
+/**
+ * Benchmarks for JsonStorage. Each operation includes waiting for its writes
+ * to reach the disk, so that background writes are not left to pile up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonStorageBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private File directory;
+    private JsonStorage storage;
+    private TodoListDB db;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkDatabase.install(size);
+        storage = new JsonStorage();
+        db = storage.load();
+        task = db.getAllTasks().get(0);
+
+        // Gives undoRedo a commit to undo.
+        save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.flush();
+        BenchmarkDatabase.delete(directory);
+    }
+
+    @Benchmark
+    public void save() throws Exception {
+        if (task.isCompleted()) {
+            task.setIncomplete();
+        } else {
+            task.setCompleted();
+        }
+        storage.save(db);
+        storage.flush();
+    }
+
+    @Benchmark
+    public TodoListDB load() throws Exception {
+        TodoListDB loaded = storage.load();
+        
+        // Loading clears the history, so restore a commit for undoRedo.
+        storage.save(loaded);
+        storage.flush();
+        return loaded;
+    }
+
+    @Benchmark
+    public TodoListDB undoRedo() throws Exception {
+        storage.undo();
+        TodoListDB redone = storage.redo();
+        storage.flush();
+        return redone;
+    }
+
+}
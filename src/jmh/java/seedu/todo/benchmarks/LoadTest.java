@@ -0,0 +1,241 @@
+package seedu.todo.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.controllers.Controller;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.ui.InputHandler;
+import seedu.todo.ui.TextDisplay;
+
+// @@author agent
+/**
+ * Headless load test, which generates a large DB and replays a script of
+ * commands through <code>InputHandler</code> against it, as if they were
+ * typed into the console. Reports latency percentiles per controller and per
+ * stage of the command path, and the peak heap usage, on stdout.
+ *
+ * Run with <code>gradle loadTest -PloadTestArgs="--tasks 70000 --events 30000"</code>.
+ * Options (all optional):
+ * <ul>
+ * <li><code>--tasks</code>, <code>--events</code>: Number of items to generate.</li>
+ * <li><code>--tag-skew</code>: Zipf exponent of the tag distribution.</li>
+ * <li><code>--days</code>: Spread dates over this many days before and after today.</li>
+ * <li><code>--seed</code>: Random seed for the generated DB.</li>
+ * <li><code>--script</code>: File of commands, one per line. Defaults to <code>loadtest.txt</code>.</li>
+ * <li><code>--repeat</code>, <code>--warmup</code>: Number of measured and unmeasured runs of the script.</li>
+ * <li><code>--directory</code>: Keep the generated DB in this directory, instead of a temporary one.</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final String DEFAULT_SCRIPT = "loadtest.txt";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String COUNTER_PLACEHOLDER = "{n}";
+    private static final String UNRECOGNIZED = "(unrecognized)";
+    private static final String ALL = "All";
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+
+    private final Map<String, String> options = new HashMap<String, String>();
+    private final Map<String, List<Long>> latencies = new TreeMap<String, List<Long>>();
+    private int counter = 0;
+    private int failureCount = 0;
+
+    private LoadTest(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException(String.format("Unexpected argument \"%s\".", args[i]));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException(String.format("Missing value for \"%s\".", args[args.length - 1]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(args).run();
+    }
+
+    private void run() throws Exception {
+        // Renders as text, which is discarded so that only the controllers are timed.
+        Renderer.setDisplay(new TextDisplay(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // Discard
+            }
+        })));
+
+        int days = getInt("days", 182);
+        Map<String, String> aliases = new HashMap<String, String>();
+        aliases.put("ls", "list");
+        aliases.put("fin", "complete");
+        DatabaseGenerator generator = new DatabaseGenerator()
+                .setTaskCount(getInt("tasks", 7000))
+                .setEventCount(getInt("events", 3000))
+                .setTagSkew(Double.parseDouble(options.getOrDefault("tag-skew", "1.0")))
+                .setDateSpread(days, days)
+                .setSeed(Long.parseLong(options.getOrDefault("seed", "2103")))
+                .setAliases(aliases);
+
+        boolean isTemporary = !options.containsKey("directory");
+        File directory = isTemporary ? BenchmarkDatabase.createDirectory() : new File(options.get("directory"));
+        directory.mkdirs();
+        File databaseFile = generator.install(directory);
+        TodoListDB.getInstance().load();
+
+        List<String> script = readScript();
+        TodoListDB db = TodoListDB.getInstance();
+        System.out.println(String.format("Database: %d tasks, %d events, %d KB at %s", db.getAllTasks().size(),
+                db.getAllEvents().size(), databaseFile.length() / 1024, databaseFile.getPath()));
+
+        for (int i = getInt("warmup", 2); i > 0; i--) {
+            replay(script, false);
+        }
+        TodoListDB.getInstance().flush();
+        MetricsCenter.getInstance().reset();
+        System.gc();
+        resetPeakHeapUsage();
+
+        int repeat = getInt("repeat", 20);
+        for (int i = 0; i < repeat; i++) {
+            replay(script, true);
+        }
+        long flushStart = System.nanoTime();
+        TodoListDB.getInstance().flush();
+        long flushTime = System.nanoTime() - flushStart;
+
+        report(script.size() * repeat, repeat, flushTime);
+        if (isTemporary) {
+            BenchmarkDatabase.delete(directory);
+        }
+    }
+
+    private int getInt(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private List<String> readScript() throws IOException {
+        InputStream stream = options.containsKey("script")
+                ? new FileInputStream(options.get("script"))
+                : LoadTest.class.getResourceAsStream(DEFAULT_SCRIPT);
+        List<String> script = new ArrayList<String>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                    script.add(line);
+                }
+            }
+        }
+        return script;
+    }
+
+    /**
+     * Runs every command in <code>script</code> once, recording the time taken
+     * by each if <code>isMeasured</code>.
+     */
+    private void replay(List<String> script, boolean isMeasured) {
+        InputHandler inputHandler = InputHandler.getInstance();
+        for (String line : script) {
+            String command = line.replace(COUNTER_PLACEHOLDER, Integer.toString(counter++));
+            Controller controller = inputHandler.getMatchingController(command);
+
+            long start = System.nanoTime();
+            boolean isSuccess = inputHandler.processInput(command);
+            long time = System.nanoTime() - start;
+
+            if (isMeasured) {
+                String name = controller == null ? UNRECOGNIZED : controller.getClass().getSimpleName();
+                latencies.computeIfAbsent(name, key -> new ArrayList<Long>()).add(time);
+                latencies.computeIfAbsent(ALL, key -> new ArrayList<Long>()).add(time);
+                failureCount += isSuccess ? 0 : 1;
+            }
+        }
+    }
+
+    private void report(int commandCount, int repeat, long flushTime) {
+        System.out.println(String.format("Replayed %d commands (%d runs of the script), %d not processed",
+                commandCount, repeat, failureCount));
+        System.out.println(String.format("%-28s %8s %10s %10s %10s", "Controller", "Count", "p50 (ms)", "p99 (ms)",
+                "Max (ms)"));
+        for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+            if (!entry.getKey().equals(ALL)) {
+                printRow(entry.getKey(), entry.getValue());
+            }
+        }
+        printRow(ALL, latencies.getOrDefault(ALL, new ArrayList<Long>()));
+        System.out.println("By stage:");
+        for (String row : MetricsCenter.getInstance().getSummary()) {
+            System.out.println("  " + row);
+        }
+        System.out.println(String.format("Final flush: %.3f ms", flushTime / NANOS_PER_MILLI));
+        System.out.println(String.format("Peak heap: %.1f MB", getPeakHeapUsage() / BYTES_PER_MEGABYTE));
+    }
+
+    private static void printRow(String name, List<Long> times) {
+        long[] sorted = new long[times.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = times.get(i);
+        }
+        Arrays.sort(sorted);
+        System.out.println(String.format("%-28s %8d %10.3f %10.3f %10.3f", name, sorted.length,
+                percentile(sorted, 0.5) / NANOS_PER_MILLI, percentile(sorted, 0.99) / NANOS_PER_MILLI,
+                percentile(sorted, 1) / NANOS_PER_MILLI));
+    }
+
+    /**
+     * Returns the nearest-rank percentile <code>p</code> of <code>sorted</code>,
+     * or 0 if it is empty.
+     */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the peak usage of every heap pool since the last
+     * reset. The pools may peak at different times, so this is an upper bound.
+     */
+    private static long getPeakHeapUsage() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                bytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        return bytes;
+    }
+
+}
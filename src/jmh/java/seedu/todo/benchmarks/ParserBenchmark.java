@@ -0,0 +1,71 @@
+package seedu.todo.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import seedu.todo.commons.util.StringUtil;
+import seedu.todo.controllers.concerns.CalendarItemFilter;
+import seedu.todo.controllers.concerns.DateParser;
+import seedu.todo.controllers.concerns.Tokenizer;
+
+// @@author agent
+/**
+ * Benchmarks for parsing user input, which does not depend on the size of the
+ * DB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({ "tomorrow", "next friday 5pm", "25 dec 2pm" })
+    public String naturalDate;
+
+    private Map<String, String[]> tokenDefinitions;
+    private Map<String, String> aliases;
+
+    @Setup
+    public void setUp() {
+        tokenDefinitions = CalendarItemFilter.getFilterTokenDefinitions();
+        aliases = new HashMap<String, String>();
+        String[] keys = { "ls", "t", "e", "c", "d", "tm", "nw", "inc", "wk", "sch" };
+        String[] values = { "list", "tasks", "events", "complete", "destroy", "tomorrow", "next week",
+            "incomplete", "tag work", "tag school" };
+        for (int i = 0; i < keys.length; i++) {
+            aliases.put(keys[i], values[i]);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String[]> tokenize() throws Exception {
+        return Tokenizer.tokenize(tokenDefinitions, "list tasks incomplete from \"today\" to next week tag work");
+    }
+
+    @Benchmark
+    public LocalDateTime parseNatural() throws Exception {
+        return DateParser.parseNatural(naturalDate);
+    }
+
+    @Benchmark
+    public String replaceAliases() {
+        return StringUtil.replaceAliases("ls t inc from tm to nw wk", aliases);
+    }
+
+}
@@ -0,0 +1,170 @@
+package seedu.todo;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import com.google.common.eventbus.Subscribe;
+
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.EventsCenter;
+import seedu.todo.commons.core.LogsCenter;
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.events.ui.ExitAppRequestEvent;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.ui.InputHandler;
+import seedu.todo.ui.TextDisplay;
+
+// @@author agent
+/**
+ * Entry point which runs commands without the GUI, through the same
+ * InputHandler, controllers and DB as MainApp.
+ *
+ * Commands are read one per line from the given files, or from stdin if there
+ * are none, and their results are written to stdout as plain text. Blank lines
+ * and lines starting with <code>#</code> are skipped. A summary of the run is
+ * written to stderr.
+ *
+ * Usage: <code>HeadlessApp [--config config.json] [commands.txt ...]</code>
+ */
+public class HeadlessApp {
+    private static final Logger logger = LogsCenter.getLogger(HeadlessApp.class);
+
+    private static final String CONFIG_OPTION = "--config";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String COMMAND_ECHO = "> %s";
+    private static final String MESSAGE_INVALID_COMMAND = "Invalid command!";
+    private static final String MESSAGE_SUMMARY = "Processed %d commands (%d invalid) in %d ms, %.0f commands/s";
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final PrintStream out;
+    private boolean isExiting = false;
+    private int commandCount = 0;
+    private int invalidCount = 0;
+
+    public HeadlessApp(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Loads the config and DB, and has controllers render to <code>out</code>.
+     *
+     * @param configFilePath    Config file to use
+     */
+    public void init(String configFilePath) {
+        logger.info("Using config file : " + configFilePath);
+        ConfigCenter.getInstance().setConfigFilePath(configFilePath);
+        Config config = ConfigCenter.getInstance().getConfig();
+
+        LogsCenter.init(config);
+        MetricsCenter.getInstance().setLogInterval(config.getMetricsLogInterval());
+        EventsCenter.getInstance().registerHandler(this);
+        Renderer.setDisplay(new TextDisplay(out));
+
+        if (!TodoListDB.getInstance().load()) {
+            TodoListDB.getInstance().save();
+        }
+        TodoListDB.write(() -> TodoListDB.getInstance().archiveExpired());
+    }
+
+    /**
+     * Processes every command from <code>reader</code>, until it runs out or
+     * an <code>exit</code> command is processed.
+     *
+     * @param reader            Source of commands, one per line
+     * @param isInteractive     Whether to flush the output after every command
+     */
+    public void run(BufferedReader reader, boolean isInteractive) throws IOException {
+        InputHandler inputHandler = InputHandler.getInstance();
+        String line;
+        while (!isExiting && (line = reader.readLine()) != null) {
+            String command = line.trim();
+            if (command.isEmpty() || command.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+
+            out.println(String.format(COMMAND_ECHO, command));
+            if (!inputHandler.processInput(command)) {
+                out.println(MESSAGE_INVALID_COMMAND);
+                invalidCount++;
+            }
+            commandCount++;
+
+            if (isInteractive) {
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Waits for all writes to the DB to complete, and flushes the output.
+     */
+    public void stop() {
+        TodoListDB.getInstance().flush();
+        out.flush();
+    }
+
+    public boolean isExiting() {
+        return isExiting;
+    }
+
+    /** ================== SUBSCRIPTIONS ====================== **/
+
+    @Subscribe
+    public void handleExitAppRequestEvent(ExitAppRequestEvent event) {
+        logger.info(LogsCenter.getEventHandlingLogMessage(event));
+        isExiting = true;
+    }
+
+    /** ================== MAIN METHOD ====================== **/
+
+    public static void main(String[] args) throws IOException {
+        String configFilePath = Config.DEFAULT_CONFIG_FILE;
+        List<String> commandFiles = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(CONFIG_OPTION) && i + 1 < args.length) {
+                configFilePath = args[++i];
+            } else {
+                commandFiles.add(args[i]);
+            }
+        }
+
+        // Output is buffered for throughput, as there may be thousands of commands.
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out),
+                OUTPUT_BUFFER_SIZE), false, StandardCharsets.UTF_8.name());
+        HeadlessApp app = new HeadlessApp(out);
+        app.init(configFilePath);
+
+        long start = System.nanoTime();
+        if (commandFiles.isEmpty()) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            app.run(reader, System.console() != null);
+        }
+        for (String commandFile : commandFiles) {
+            if (app.isExiting()) {
+                break;
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(commandFile), StandardCharsets.UTF_8))) {
+                app.run(reader, false);
+            }
+        }
+        app.stop();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        System.err.println(String.format(MESSAGE_SUMMARY, app.commandCount, app.invalidCount, elapsedMillis,
+                app.commandCount * 1000.0 / Math.max(elapsedMillis, 1)));
+    }
+
+}
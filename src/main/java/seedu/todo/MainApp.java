@@ -5,15 +5,19 @@ import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
 import seedu.todo.commons.core.EventsCenter;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.ui.GuiDisplay;
 import seedu.todo.ui.UiManager;
-import seedu.todo.ui.views.IndexView;
 import seedu.todo.commons.core.Config;
 import seedu.todo.commons.core.ConfigCenter;
 import seedu.todo.commons.util.StringUtil;
 import seedu.todo.commons.core.LogsCenter;
+import seedu.todo.commons.core.MetricsCenter;
 import seedu.todo.commons.core.Version;
 import seedu.todo.commons.events.ui.ExitAppRequestEvent;
 import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.ArchiveScheduler;
+import seedu.todo.storage.DatabaseWatcher;
 
 import java.io.IOException;
 import java.util.Map;
@@ -29,12 +33,16 @@ public class MainApp extends Application {
     public static final Version VERSION = new Version(1, 0, 0, true);
     
     private static final String MESSAGE_WELCOME = "Welcome! What would like to get done today?";
+    private static final String MESSAGE_RELOADED = "Your database was changed outside of GetShitDone, and has been reloaded.";
+    private static final String MESSAGE_ARCHIVED = "%d old tasks and events were archived. List or find them to see them again.";
 
     private static final ConfigCenter configCenter = ConfigCenter.getInstance();
     private String configFilePath;
     protected Config config;
     
     protected UiManager ui;
+    protected DatabaseWatcher databaseWatcher;
+    protected ArchiveScheduler archiveScheduler;
 
     public MainApp() {}
 
@@ -54,32 +62,41 @@ public class MainApp extends Application {
         // Initialize events center
         initEventsCenter();
 
-        // Initialize UI config
+        // Initialize UI config, and have controllers render to it
         UiManager.initialize(configCenter.getConfig());
+        Renderer.setDisplay(new GuiDisplay());
         ui = UiManager.getInstance();
 
         // Load DB
         if (!TodoListDB.getInstance().load()) {
             TodoListDB.getInstance().save();
         }
+        TodoListDB.write(() -> TodoListDB.getInstance().archiveExpired());
     }
 
     @Override
     public void start(Stage primaryStage) {
         ui.start(primaryStage);
 
-        IndexView view = UiManager.loadView(IndexView.class);
-        view.tasks = TodoListDB.getInstance().getIncompleteTasksAndTaskFromTodayDate();
-        view.events = TodoListDB.getInstance().getAllCurrentEvents();
-        view.tags = TodoListDB.getInstance().getTagList();
-        UiManager.renderView(view);
-        
-        // Show welcome message
-        UiManager.updateConsoleMessage(MESSAGE_WELCOME);
+        // Show the index, with a welcome message
+        Renderer.renderIndex(TodoListDB.getInstance(), MESSAGE_WELCOME);
+
+        // Pick up changes made to the DB file by other apps
+        initDatabaseWatcher();
+
+        // Keep archiving old items while the app runs
+        initArchiveScheduler();
     }
 
     @Override
     public void stop() {
+        if (databaseWatcher != null) {
+            databaseWatcher.stop();
+        }
+        if (archiveScheduler != null) {
+            archiveScheduler.stop();
+        }
+        TodoListDB.getInstance().flush();
         ui.stop();
         Platform.exit();
         System.exit(0);
@@ -102,6 +119,7 @@ public class MainApp extends Application {
 
     private void initLogging(Config config) {
         LogsCenter.init(config);
+        MetricsCenter.getInstance().setLogInterval(config.getMetricsLogInterval());
     }
 
     protected Config initConfig() {
@@ -135,6 +153,49 @@ public class MainApp extends Application {
         return config;
     }
 
+    /**
+     * Watches the DB file, and merges changes made by other apps into the DB
+     * on the JavaFX thread, where commands are run. Only a message is shown,
+     * so that the view, and the page the user is reading, are left as they
+     * are. Displayed indices are looked up again by item ID, so they still
+     * resolve to the merged items.
+     */
+    private void initDatabaseWatcher() {
+        databaseWatcher = new DatabaseWatcher(() -> Platform.runLater(() -> {
+            TodoListDB.write(() -> {
+                if (TodoListDB.getInstance().sync()) {
+                    Renderer.renderMessage(MESSAGE_RELOADED);
+                }
+                return null;
+            });
+        }));
+        try {
+            databaseWatcher.start();
+        } catch (IOException e) {
+            logger.warning("Failed to watch the DB file : " + StringUtil.getDetails(e));
+        }
+    }
+
+    /**
+     * Archives old items every so often, if turned on in the config, on the
+     * JavaFX thread, where commands are run. Only a message is shown, so
+     * that the view, and the indices the user is reading, are left as they
+     * are.
+     */
+    private void initArchiveScheduler() {
+        archiveScheduler = new ArchiveScheduler(() -> Platform.runLater(() -> {
+            TodoListDB.write(() -> {
+                int archivedCount = TodoListDB.getInstance().archiveExpired();
+                if (archivedCount > 0) {
+                    logger.info(String.format("Archived %d old items", archivedCount));
+                    Renderer.renderMessage(String.format(MESSAGE_ARCHIVED, archivedCount));
+                }
+                return null;
+            });
+        }));
+        archiveScheduler.start();
+    }
+
     private void initEventsCenter() {
         EventsCenter.getInstance().registerHandler(this);
     }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import seedu.todo.models.CalendarItem;
+import seedu.todo.models.TodoListDB;
 
 // @@author A0093907W
 /**
@@ -12,6 +13,9 @@ import seedu.todo.models.CalendarItem;
  * 
  * All variables should be public. In-place modifications of variables are
  * encouraged.
+ * 
+ * Only the thread which runs commands should use it, as it is not guarded by
+ * the TodoListDB's lock.
  */
 public class EphemeralDB {
 
@@ -19,6 +23,8 @@ public class EphemeralDB {
 
     // Stores
     public List<CalendarItem> displayedCalendarItems = new ArrayList<>();
+    // Cursor over the last displayed list, from which further pages are fetched.
+    public IndexCursor displayedCursor = new IndexCursor(null, null);
 
     
     protected EphemeralDB() {
@@ -30,7 +36,7 @@ public class EphemeralDB {
      * 
      * @return EphemeralDB
      */
-    public static EphemeralDB getInstance() {
+    public static synchronized EphemeralDB getInstance() {
         if (instance == null) {
             instance = new EphemeralDB();
         }
@@ -45,14 +51,22 @@ public class EphemeralDB {
      * Note that displayedCalendarItems stores the indexes of the last displayed list of CalendarItems.
      * Their displayed ID is simply their index in the ArrayList + 1 (due to 0-indexing of ArrayLists).
      * 
+     * Items which have been added to the DB are looked up again by their item ID, so that the
+     * current instance is returned even if the DB has been reloaded since they were displayed.
+     * 
      * @param id   Display ID of task. Bounded between 1 and the size of the ArrayList.
-     * @return     Returns the Task at the specified display index.
+     * @return     Returns the Task at the specified display index, or null if it no longer exists.
      */
     public CalendarItem getCalendarItemsByDisplayedId(int id) {
         if (id <= 0 || id > displayedCalendarItems.size()) {
             return null;
+        }
+        
+        CalendarItem displayedItem = displayedCalendarItems.get(id - 1);
+        if (displayedItem.getId() <= 0) {
+            return displayedItem;
         } else {
-            return displayedCalendarItems.get(id - 1);
+            return TodoListDB.getInstance().getCalendarItemById(displayedItem.getId());
         }
     }
 
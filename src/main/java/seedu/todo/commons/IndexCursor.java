@@ -0,0 +1,237 @@
+package seedu.todo.commons;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import seedu.todo.commons.util.DateUtil;
+import seedu.todo.models.CalendarItem;
+import seedu.todo.models.CalendarItemIndex;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * A cursor over a list of Tasks and Events, in the order in which they are
+ * displayed: by date, with undated items first, and Events before Tasks under
+ * each date, each in the order in which they were created (by ID).<br>
+ *
+ * Items are fetched a page at a time, so that only the items on screen are
+ * rendered. Displays number the items of each page on from those of the
+ * previous page, so display indices stay the same however many pages have
+ * been shown.
+ */
+public class IndexCursor {
+
+    public static final int PAGE_SIZE = 50;
+
+    // Items under the same date are in ID order, as in the date buckets of the DB.
+    private static final Comparator<CalendarItem> ID_ORDER = Comparator.comparingLong(CalendarItem::getId);
+
+    private final List<DateGroup> groups = new ArrayList<DateGroup>();
+    private int size = 0;
+    private int position = 0;
+    // The group holding the next item, and how many of its items were fetched
+    private int groupIndex = 0;
+    private int groupOffset = 0;
+
+    /**
+     * Groups <code>tasks</code> and <code>events</code> by date.
+     *
+     * @param tasks     Tasks to display, or null for none
+     * @param events    Events to display, or null for none
+     */
+    public IndexCursor(List<Task> tasks, List<Event> events) {
+        groupItems(tasks, events);
+    }
+
+    /**
+     * Orders <code>tasks</code> and <code>events</code>, which must be in
+     * <code>db</code>, by walking the date buckets which the DB keeps in its
+     * indexes, so that they do not have to be grouped and sorted again.<br>
+     *
+     * Walking the buckets visits every item in the DB, so a short list is
+     * grouped by itself instead, as it is cheaper to sort. Both give the same
+     * order.
+     *
+     * @param db
+     * @param tasks     Tasks to display, or null for none
+     * @param events    Events to display, or null for none
+     */
+    public IndexCursor(TodoListDB db, List<Task> tasks, List<Event> events) {
+        CalendarItemIndex<Task> taskIndex = db.getTaskIndex();
+        CalendarItemIndex<Event> eventIndex = db.getEventIndex();
+        int shown = (tasks == null ? 0 : tasks.size()) + (events == null ? 0 : events.size());
+        int log2Shown = Integer.SIZE - Integer.numberOfLeadingZeros(shown);
+        if ((long) shown * log2Shown < taskIndex.size() + eventIndex.size()) {
+            groupItems(tasks, events);
+        } else {
+            walkBuckets(taskIndex, tasks, eventIndex, events);
+        }
+    }
+
+    /**
+     * Returns the total number of items, including those not fetched yet.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of items fetched so far.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns true if there are items which have not been fetched yet.
+     */
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    /**
+     * Fetches the next page of items, grouped by date. The first date of a
+     * page may be the same as the last date of the previous page.
+     *
+     * @return items by date, in display order
+     */
+    public List<DateGroup> nextPage() {
+        List<DateGroup> page = new ArrayList<DateGroup>();
+        int remaining = PAGE_SIZE;
+        while (remaining > 0 && groupIndex < groups.size()) {
+            DateGroup group = groups.get(groupIndex);
+            int numEvents = group.events.size();
+            int groupSize = numEvents + group.tasks.size();
+            int end = Math.min(groupSize, groupOffset + remaining);
+
+            DateGroup pageGroup = new DateGroup(group.dateTime);
+            for (int i = groupOffset; i < end; i++) {
+                if (i < numEvents) {
+                    pageGroup.events.add(group.events.get(i));
+                } else {
+                    pageGroup.tasks.add(group.tasks.get(i - numEvents));
+                }
+            }
+            page.add(pageGroup);
+
+            remaining -= end - groupOffset;
+            position += end - groupOffset;
+            if (end == groupSize) {
+                groupIndex++;
+                groupOffset = 0;
+            } else {
+                groupOffset = end;
+            }
+        }
+        return page;
+    }
+
+    private void groupItems(List<Task> tasks, List<Event> events) {
+        SortedMap<LocalDateTime, List<Task>> tasksByDate =
+                DateUtil.groupByDate(tasks == null ? Collections.<Task>emptyList() : tasks);
+        SortedMap<LocalDateTime, List<Event>> eventsByDate =
+                DateUtil.groupByDate(events == null ? Collections.<Event>emptyList() : events);
+        Set<LocalDateTime> dates = new TreeSet<LocalDateTime>(tasksByDate.keySet());
+        dates.addAll(eventsByDate.keySet());
+
+        for (LocalDateTime date : dates) {
+            DateGroup group = new DateGroup(date);
+            group.events.addAll(eventsByDate.getOrDefault(date, Collections.<Event>emptyList()));
+            group.tasks.addAll(tasksByDate.getOrDefault(date, Collections.<Task>emptyList()));
+            group.events.sort(ID_ORDER);
+            group.tasks.sort(ID_ORDER);
+            addGroup(group);
+        }
+    }
+
+    private void walkBuckets(CalendarItemIndex<Task> taskIndex, List<Task> tasks,
+            CalendarItemIndex<Event> eventIndex, List<Event> events) {
+        Predicate<Task> isShownTask = shownBy(tasks, taskIndex);
+        Predicate<Event> isShownEvent = shownBy(events, eventIndex);
+        addGroup(DateUtil.NO_DATETIME_VALUE, eventIndex.getUndated(), isShownEvent,
+                taskIndex.getUndated(), isShownTask);
+
+        NavigableMap<LocalDate, NavigableSet<Task>> tasksByDate = taskIndex.getDated(null, null);
+        NavigableMap<LocalDate, NavigableSet<Event>> eventsByDate = eventIndex.getDated(null, null);
+        Set<LocalDate> dates = new TreeSet<LocalDate>(tasksByDate.keySet());
+        dates.addAll(eventsByDate.keySet());
+        for (LocalDate date : dates) {
+            addGroup(date.atStartOfDay(),
+                    eventsByDate.getOrDefault(date, Collections.<Event>emptyNavigableSet()), isShownEvent,
+                    tasksByDate.getOrDefault(date, Collections.<Task>emptyNavigableSet()), isShownTask);
+        }
+    }
+
+    /**
+     * Returns a predicate for whether an item in <code>index</code> is one of
+     * <code>items</code>. Items are compared by identity, as Tasks and Events
+     * with the same fields are equal.
+     */
+    private static <T extends CalendarItem> Predicate<T> shownBy(List<T> items, CalendarItemIndex<T> index) {
+        if (items == null || items.isEmpty()) {
+            return item -> false;
+        }
+        // Every item in the DB is shown
+        if (items.size() == index.size()) {
+            return item -> true;
+        }
+        Set<T> shown = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+        shown.addAll(items);
+        return shown::contains;
+    }
+
+    private void addGroup(LocalDateTime dateTime, Collection<Event> events, Predicate<Event> isShownEvent,
+            Collection<Task> tasks, Predicate<Task> isShownTask) {
+        DateGroup group = new DateGroup(dateTime);
+        for (Event event : events) {
+            if (isShownEvent.test(event)) {
+                group.events.add(event);
+            }
+        }
+        for (Task task : tasks) {
+            if (isShownTask.test(task)) {
+                group.tasks.add(task);
+            }
+        }
+        addGroup(group);
+    }
+
+    private void addGroup(DateGroup group) {
+        int groupSize = group.events.size() + group.tasks.size();
+        if (groupSize > 0) {
+            groups.add(group);
+            size += groupSize;
+        }
+    }
+
+    /**
+     * The Events and Tasks on a page which fall on the same date.
+     */
+    public static class DateGroup {
+
+        // DateUtil.NO_DATETIME_VALUE for items without a date
+        public final LocalDateTime dateTime;
+        public final List<Event> events = new ArrayList<Event>();
+        public final List<Task> tasks = new ArrayList<Task>();
+
+        DateGroup(LocalDateTime dateTime) {
+            this.dateTime = dateTime;
+        }
+
+    }
+
+}
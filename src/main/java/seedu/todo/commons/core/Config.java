@@ -20,6 +20,14 @@ public class Config {
     private String appTitle = "GetShitDone";
     private Level logLevel = Level.INFO;
     private String databaseFilePath = "database.json";
+    private long undoMemoryBudget = 4 * 1024 * 1024;
+    private long undoHistoryBudget = 16 * 1024 * 1024;
+    private boolean isUndoHistoryCompressed = true;
+    private boolean isDatabaseCompact = false;
+    private boolean isDatabaseCompressed = false;
+    private int metricsLogInterval = 0;
+    private int queryParallelThreshold = 20000;
+    private int archiveAfterDays = 0;
     private Map<String, String> aliases = new HashMap<String, String>();
 
     public Config() {
@@ -49,6 +57,97 @@ public class Config {
         this.databaseFilePath = databaseFilePath;
     }
     
+    /**
+     * Returns the maximum number of bytes of memory used to keep undo/redo
+     * history in memory. Older history is still available from disk.
+     */
+    public long getUndoMemoryBudget() {
+        return undoMemoryBudget;
+    }
+
+    public void setUndoMemoryBudget(long undoMemoryBudget) {
+        this.undoMemoryBudget = undoMemoryBudget;
+    }
+
+    /**
+     * Returns the maximum number of bytes of undo history kept on disk.
+     */
+    public long getUndoHistoryBudget() {
+        return undoHistoryBudget;
+    }
+
+    public void setUndoHistoryBudget(long undoHistoryBudget) {
+        this.undoHistoryBudget = undoHistoryBudget;
+    }
+
+    public boolean isUndoHistoryCompressed() {
+        return isUndoHistoryCompressed;
+    }
+
+    public void setUndoHistoryCompressed(boolean isUndoHistoryCompressed) {
+        this.isUndoHistoryCompressed = isUndoHistoryCompressed;
+    }
+
+    /**
+     * Returns true if the DB file is written without indentation or line
+     * breaks, false if it is pretty-printed.
+     */
+    public boolean isDatabaseCompact() {
+        return isDatabaseCompact;
+    }
+
+    public void setDatabaseCompact(boolean isDatabaseCompact) {
+        this.isDatabaseCompact = isDatabaseCompact;
+    }
+
+    /**
+     * Returns true if the DB file, and the archive, are written compressed
+     * with gzip, which also makes them compact.
+     */
+    public boolean isDatabaseCompressed() {
+        return isDatabaseCompressed;
+    }
+
+    public void setDatabaseCompressed(boolean isDatabaseCompressed) {
+        this.isDatabaseCompressed = isDatabaseCompressed;
+    }
+
+    /**
+     * Returns the number of seconds between metrics log lines, or 0 if they are not logged.
+     */
+    public int getMetricsLogInterval() {
+        return metricsLogInterval;
+    }
+
+    public void setMetricsLogInterval(int metricsLogInterval) {
+        this.metricsLogInterval = metricsLogInterval;
+    }
+    
+    /**
+     * Returns the number of items a query must check before they are checked
+     * in parallel, or 0 if queries are never run in parallel.
+     */
+    public int getQueryParallelThreshold() {
+        return queryParallelThreshold;
+    }
+
+    public void setQueryParallelThreshold(int queryParallelThreshold) {
+        this.queryParallelThreshold = queryParallelThreshold;
+    }
+    
+    /**
+     * Returns the number of days after which completed Tasks and Events which
+     * are over are archived, or 0 if they are never archived. Archiving is
+     * off until the user turns it on.
+     */
+    public int getArchiveAfterDays() {
+        return archiveAfterDays;
+    }
+
+    public void setArchiveAfterDays(int archiveAfterDays) {
+        this.archiveAfterDays = archiveAfterDays;
+    }
+    
     public Map<String, String> getAliases() {
         return aliases;
     }
@@ -87,8 +186,27 @@ public class Config {
     public List<ConfigDefinition> getDefinitions() {
         ConfigDefinition configAppTitle = new ConfigDefinition("appTitle", "App Title", appTitle);
         ConfigDefinition configDatabaseFilePath = new ConfigDefinition("databaseFilePath", "Database File Path", databaseFilePath);
+        ConfigDefinition configUndoMemoryBudget = new ConfigDefinition("undoMemoryBudget",
+                "Undo Memory Budget (bytes)", String.valueOf(undoMemoryBudget));
+        ConfigDefinition configUndoHistoryBudget = new ConfigDefinition("undoHistoryBudget",
+                "Undo History Budget (bytes)", String.valueOf(undoHistoryBudget));
+        ConfigDefinition configUndoHistoryCompressed = new ConfigDefinition("undoHistoryCompressed",
+                "Compress Undo History", String.valueOf(isUndoHistoryCompressed));
+        ConfigDefinition configMetricsLogInterval = new ConfigDefinition("metricsLogInterval",
+                "Metrics Log Interval (seconds)", String.valueOf(metricsLogInterval));
+        ConfigDefinition configQueryParallelThreshold = new ConfigDefinition("queryParallelThreshold",
+                "Parallel Query Threshold (items)", String.valueOf(queryParallelThreshold));
+        ConfigDefinition configArchiveAfterDays = new ConfigDefinition("archiveAfterDays",
+                "Archive After (days)", String.valueOf(archiveAfterDays));
+        ConfigDefinition configDatabaseCompact = new ConfigDefinition("databaseCompact",
+                "Compact Database File", String.valueOf(isDatabaseCompact));
+        ConfigDefinition configDatabaseCompressed = new ConfigDefinition("databaseCompressed",
+                "Compress Database File", String.valueOf(isDatabaseCompressed));
                 
-        return Arrays.asList(configAppTitle, configDatabaseFilePath);
+        return Arrays.asList(configAppTitle, configDatabaseFilePath, configUndoMemoryBudget,
+                configUndoHistoryBudget, configUndoHistoryCompressed, configMetricsLogInterval,
+                configQueryParallelThreshold, configArchiveAfterDays, configDatabaseCompact,
+                configDatabaseCompressed);
     }
     
     public List<String> getDefinitionsNames() {
@@ -23,7 +23,7 @@ public class ConfigCenter {
     private Config config;
     private String configFilePath;
 
-    public static ConfigCenter getInstance() {
+    public static synchronized ConfigCenter getInstance() {
         if (instance == null) {
             instance = new ConfigCenter();
         }
@@ -35,7 +35,7 @@ public class ConfigCenter {
         configFilePath = path;
     }
     
-    public Config getConfig() {
+    public synchronized Config getConfig() {
         if (config == null) {
             Optional<Config> configOptional;
             
@@ -51,7 +51,7 @@ public class ConfigCenter {
         return config;
     }
     
-    public void saveConfig(Config config) throws IOException {
+    public synchronized void saveConfig(Config config) throws IOException {
         ConfigUtil.saveConfig(config, configFilePath);
         this.config = config;
     }
@@ -0,0 +1,116 @@
+package seedu.todo.commons.core;
+
+// @@author agent
+/**
+ * Fixed-size histogram of latencies, in the style of HdrHistogram.
+ *
+ * <ul>
+ * <li>Values are counted in log-linear buckets: values below
+ * <code>SUB_BUCKET_COUNT</code> are counted exactly, and larger values in
+ * buckets which are at most 1/64 of the value wide. Percentiles are hence
+ * accurate to within about 1.6%, at any magnitude.</li>
+ * <li>Recording is O(1) and never allocates, so it is cheap enough to leave on
+ * in the command path.</li>
+ * </ul>
+ *
+ * Thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    /**
+     * Records a single value. Negative values are recorded as 0.
+     *
+     * @param value     Value to record, e.g. a latency in nanoseconds
+     */
+    public synchronized void record(long value) {
+        value = Math.max(value, 0);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public synchronized long getCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the exact mean of all recorded values, or 0 if there are none.
+     */
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the value below or at which <code>percentile</code> percent of
+     * the recorded values fall, or 0 if there are none. The value is the
+     * highest value in its bucket, capped at the maximum recorded value.
+     *
+     * @param percentile    Percentile between 0 and 100
+     * @return Value at the percentile
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the bucket of <code>value</code>. Values below
+     * <code>SUB_BUCKET_COUNT</code> map to themselves, and each power of 2 above
+     * is split into <code>SUB_BUCKET_HALF_COUNT</code> buckets.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
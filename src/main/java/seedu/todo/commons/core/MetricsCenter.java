@@ -0,0 +1,168 @@
+package seedu.todo.commons.core;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// @@author agent
+/**
+ * Records how long each stage of the command path takes, so that slow stages
+ * can be found on large DBs.
+ *
+ * Stages time themselves with <code>start</code> and <code>record</code>,
+ * into a LatencyHistogram per stage. The histograms are shown by the
+ * <code>stats</code> command, and can also be logged periodically.
+ */
+public class MetricsCenter {
+
+    private static final Logger logger = LogsCenter.getLogger(MetricsCenter.class);
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String ROW_FORMAT = "%s: %d, p50 %.2f ms, p99 %.2f ms, max %.2f ms";
+    private static final String LOG_FORMAT = "%s %.2f/%.2f";
+
+    /**
+     * Stages of the command path. Stages may be nested (e.g. date parsing
+     * happens within tokenized commands), except for <code>COMMAND</code>,
+     * which covers each command as a whole.
+     */
+    public enum Stage {
+        ALIAS("Alias rewrite"),
+        DISPATCH("Keyword dispatch"),
+        TOKENIZE("Tokenizing"),
+        DATE_PARSE("Date parsing"),
+        QUERY("DB query"),
+        SAVE("Save"),
+        RENDER("Render"),
+        COMMAND("Whole command");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static MetricsCenter instance;
+
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<Stage, LatencyHistogram>(Stage.class);
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> logTask;
+
+    private MetricsCenter() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    public static synchronized MetricsCenter getInstance() {
+        if (instance == null) {
+            instance = new MetricsCenter();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the start time of a stage, to be passed to <code>record</code>
+     * once the stage is done.
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records that <code>stage</code> ran from <code>startTime</code> until now.
+     *
+     * @param stage         Stage which ran
+     * @param startTime     Start time as returned by <code>start</code>
+     */
+    public void record(Stage stage, long startTime) {
+        histograms.get(stage).record(System.nanoTime() - startTime);
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Clears the histograms of all stages.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns a line per stage which has run, with its count, p50, p99 and max.
+     */
+    public List<String> getSummary() {
+        List<String> rows = new ArrayList<String>();
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = histograms.get(stage);
+            if (histogram.getCount() > 0) {
+                rows.add(String.format(ROW_FORMAT, stage.getLabel(), histogram.getCount(),
+                        toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(99)),
+                        toMillis(histogram.getMax())));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns a single line with the p50/p99 of every stage which has run.
+     */
+    public String getLogLine() {
+        List<String> stages = new ArrayList<String>();
+        for (Stage stage : Stage.values()) {
+            LatencyHistogram histogram = histograms.get(stage);
+            if (histogram.getCount() > 0) {
+                stages.add(String.format(LOG_FORMAT, stage.name().toLowerCase(),
+                        toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(99))));
+            }
+        }
+        return String.format("Metrics (p50/p99 ms over %d commands): %s", histograms.get(Stage.COMMAND).getCount(),
+                String.join(", ", stages));
+    }
+
+    /**
+     * Logs <code>getLogLine</code> every <code>intervalSeconds</code> seconds,
+     * replacing any earlier schedule. An interval of 0 or less stops logging.
+     *
+     * @param intervalSeconds   Interval between log lines, in seconds
+     */
+    public synchronized void setLogInterval(int intervalSeconds) {
+        if (logTask != null) {
+            logTask.cancel(false);
+            logTask = null;
+        }
+        if (intervalSeconds <= 0) {
+            return;
+        }
+
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MetricsCenter logger");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        logTask = scheduler.scheduleAtFixedRate(() -> logger.info(getLogLine()), intervalSeconds, intervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+}
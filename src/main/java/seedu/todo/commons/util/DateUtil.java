@@ -8,8 +8,14 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import seedu.todo.models.CalendarItem;
 
 // @@author A0139812A
 /**
@@ -52,6 +58,31 @@ public class DateUtil {
         return dateTime.toLocalDate().atTime(0, 0);
     }
 
+    /**
+     * Groups CalendarItems by the date they are displayed under, in order of
+     * date. Items without a date are grouped under <code>NO_DATETIME_VALUE</code>,
+     * which comes first.
+     * 
+     * @param calendarItems   CalendarItems to group.
+     * @return                Mapping of floored date -> CalendarItems, in their original order.
+     */
+    public static <T extends CalendarItem> SortedMap<LocalDateTime, List<T>> groupByDate(List<T> calendarItems) {
+        SortedMap<LocalDateTime, List<T>> itemsByDate = new TreeMap<>();
+        
+        for (T item : calendarItems) {
+            LocalDateTime itemDate = floorDate(item.getCalendarDateTime());
+            
+            // Handle items without a date
+            if (itemDate == null) {
+                itemDate = NO_DATETIME_VALUE;
+            }
+            
+            itemsByDate.computeIfAbsent(itemDate, date -> new ArrayList<T>()).add(item);
+        }
+        
+        return itemsByDate;
+    }
+
     /**
      * Formats a LocalDateTime to a relative date. 
      * Prefers DayOfWeek format, for dates up to 6 days from today.
@@ -2,9 +2,11 @@ package seedu.todo.commons.util;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
@@ -12,6 +14,7 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.logging.Level;
 
 /**
@@ -76,4 +79,43 @@ public class JsonUtil {
         return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(instance);
     }
 
+    /**
+     * Converts a given instance of a class into its JSON data string
+     * representation, as <code>toJsonString</code> does, but without any
+     * whitespace between values.
+     * @param instance The T object to be converted into the JSON string
+     * @param <T> The generic type to create an instance of
+     * @return JSON data representation of the given class instance, in string
+     */
+    public static <T> String toCompactJsonString(T instance) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(instance);
+    }
+
+    /**
+     * Rewrites a given string representation of JSON data in the format of
+     * <code>toJsonString</code>, or of <code>toCompactJsonString</code>,
+     * keeping its values and their order.
+     * @param json JSON data to rewrite
+     * @param isCompact true to rewrite it without whitespace between values
+     * @return The JSON data in the given format
+     */
+    public static String reformatJsonString(String json, boolean isCompact) throws IOException {
+        JsonNode tree = objectMapper.readTree(json);
+        if (isCompact) {
+            return objectMapper.writeValueAsString(tree);
+        }
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(tree);
+    }
+
+    /**
+     * Creates a generator which writes JSON to <code>writer</code> as it goes,
+     * and serializes objects with <code>writeObject</code> in the same way as
+     * <code>toJsonString</code>.
+     * @param writer Writer to write to. It is closed along with the generator.
+     * @return JsonGenerator
+     */
+    public static JsonGenerator createGenerator(Writer writer) throws IOException {
+        return objectMapper.getFactory().createGenerator(writer).useDefaultPrettyPrinter();
+    }
+
 }
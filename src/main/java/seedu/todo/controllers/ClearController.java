@@ -30,6 +30,7 @@ public class ClearController extends Controller {
     
     private static final String MESSAGE_CLEAR_NO_ITEMS_FOUND = "No items matched your query!";
     private static final String MESSAGE_CLEAR_SUCCESS = "A total of %s %s and %s %s deleted!\n" + "To undo, type \"undo\".";
+    public static final String MESSAGE_COULD_NOT_SAVE = "Could not clear tasks/events: An error occured while saving the database file.";
     public static final String MESSAGE_UNKNOWN_TOKENS = "Could not parse your query as it contained unknown tokens: %s";
     public static final String MESSAGE_AMBIGUOUS_TYPE = "We could not tell if you wanted to clear events or tasks. \n"
             + "Note that only tasks can be \"complete\"/\"incomplete\", "
@@ -96,9 +97,17 @@ public class ClearController extends Controller {
             return;
         }
         
-        db.destroyTasks(clearTasks);
-        db.destroyEvents(clearEvents);
-        db.save();
+        final List<Task> tasksToClear = clearTasks;
+        final List<Event> eventsToClear = clearEvents;
+        boolean hadSaved = db.batch(tx -> {
+            tx.destroyTasks(tasksToClear);
+            tx.destroyEvents(eventsToClear);
+        });
+        
+        if (!hadSaved) {
+            Renderer.renderIndex(db, MESSAGE_COULD_NOT_SAVE);
+            return;
+        }
         
         String consoleMessage = String.format(MESSAGE_CLEAR_SUCCESS,
                 clearTasks.size(), StringUtil.pluralizer(clearTasks.size(), "task", "tasks"),
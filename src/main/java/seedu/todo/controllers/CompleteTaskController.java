@@ -1,7 +1,11 @@
 package seedu.todo.controllers;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import seedu.todo.commons.EphemeralDB;
 import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.controllers.concerns.IndexParser;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.models.CalendarItem;
 import seedu.todo.models.Task;
@@ -14,11 +18,12 @@ import seedu.todo.models.TodoListDB;
 public class CompleteTaskController extends Controller {
     
     private static final String NAME = "Complete Task";
-    private static final String DESCRIPTION = "Marks a task as completed, by listed index";
-    private static final String COMMAND_SYNTAX = "complete <index>";
+    private static final String DESCRIPTION = "Marks a task as completed, by listed index or range";
+    private static final String COMMAND_SYNTAX = "complete <index/range>";
     private static final String COMMAND_KEYWORD = "complete";
     
     public static final String MESSAGE_SUCCESS = "Task marked as complete!";
+    public static final String MESSAGE_MULTIPLE_SUCCESS = "%d tasks marked as complete!";
     public static final String MESSAGE_MISSING_INDEX = "Please specify the index of the item to delete.";
     public static final String MESSAGE_INDEX_NOT_NUMBER = "Index has to be a number!";
     public static final String MESSAGE_INVALID_ITEM = "Could not mark task as complete: Invalid index provided!";
@@ -46,49 +51,66 @@ public class CompleteTaskController extends Controller {
         
         assert param.length() > 0;
         
-        // Get index.
-        int index = 0;
+        EphemeralDB edb = EphemeralDB.getInstance();
+        TodoListDB db = TodoListDB.getInstance();
+        
+        // Get indices.
+        List<Integer> indices;
         try {
-            index = Integer.decode(param);
+            indices = IndexParser.parseIndices(param, edb.displayedCalendarItems.size());
         } catch (NumberFormatException e) {
             Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_INDEX_NOT_NUMBER);
             return;
-        }
-        
-        // Get record
-        EphemeralDB edb = EphemeralDB.getInstance();
-        CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
-        TodoListDB db = TodoListDB.getInstance();
-        
-        if (calendarItem == null) {
+        } catch (IndexOutOfBoundsException e) {
             Renderer.renderIndex(db, MESSAGE_INVALID_ITEM);
             return;
         }
         
-        if (!(calendarItem instanceof Task)) {
-            Renderer.renderIndex(db, MESSAGE_CANNOT_COMPLETE_EVENT);
-            return;
-        }
+        // Get records
+        List<Task> tasks = new ArrayList<Task>();
+        boolean hasTask = false;
         
-        Task task = (Task) calendarItem;
+        for (int index : indices) {
+            CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
+            
+            if (calendarItem == null) {
+                Renderer.renderIndex(db, MESSAGE_INVALID_ITEM);
+                return;
+            }
+            
+            // Events in a range are skipped, since they cannot be marked as complete.
+            if (!(calendarItem instanceof Task)) {
+                continue;
+            }
+            
+            Task task = (Task) calendarItem;
+            hasTask = true;
+            if (!task.isCompleted()) {
+                tasks.add(task);
+            }
+        }
         
-        if (task.isCompleted()) {
-            Renderer.renderIndex(db, MESSAGE_ALREADY_COMPLETED);
+        if (tasks.isEmpty()) {
+            String errorMessage = hasTask ? MESSAGE_ALREADY_COMPLETED : MESSAGE_CANNOT_COMPLETE_EVENT;
+            Renderer.renderIndex(db, errorMessage);
             return;
         }
         
-        // Set task as completed
-        task.setCompleted();
-        boolean hadSaved = db.save();
+        // Set tasks as completed, with a single save, or not at all.
+        boolean hadSaved = db.batch(tx -> {
+            for (Task task : tasks) {
+                task.setCompleted();
+            }
+        });
         
         if (!hadSaved) {
-            task.setIncomplete();
             Renderer.renderIndex(db, MESSAGE_COULD_NOT_SAVE);
             return;
         }
         
         // Show success
-        Renderer.renderIndex(db, MESSAGE_SUCCESS);
+        Renderer.renderIndex(db, (tasks.size() == 1) ? MESSAGE_SUCCESS
+                : String.format(MESSAGE_MULTIPLE_SUCCESS, tasks.size()));
     }
 
 }
@@ -5,10 +5,10 @@ import java.io.IOException;
 import seedu.todo.commons.core.CommandDefinition;
 import seedu.todo.commons.core.Config;
 import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.MetricsCenter;
 import seedu.todo.commons.exceptions.CannotConfigureException;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.models.TodoListDB;
-import seedu.todo.ui.UiManager;
 
 // @@author A0139812A
 /**
@@ -28,6 +28,11 @@ public class ConfigController extends Controller {
     public static final String MESSAGE_FAILURE = "Could not update settings: %s";
     private static final String MESSAGE_INVALID_INPUT = "Invalid config setting provided!";
     public static final String MESSAGE_WRONG_EXTENSION = "Could not change storage path: File must end with %s";
+    public static final String MESSAGE_INVALID_BYTES = "%s must be a non-negative number of bytes";
+    public static final String MESSAGE_INVALID_BOOLEAN = "%s must be true or false";
+    public static final String MESSAGE_INVALID_SECONDS = "%s must be a non-negative number of seconds";
+    public static final String MESSAGE_INVALID_ITEMS = "%s must be a non-negative number of items";
+    public static final String MESSAGE_INVALID_DAYS = "%s must be a non-negative number of days";
     public static final String TEMPLATE_SET_CONFIG = "config <setting> <value>";
     
     private static final String STRING_SPACE = " ";
@@ -98,7 +103,7 @@ public class ConfigController extends Controller {
         switch (configName) {
         case "appTitle" :
             // Updates MainWindow title
-            UiManager.getInstance().getMainWindow().setTitle(configValue);
+            Renderer.renderTitle(configValue);
 
             // Update config
             config.setAppTitle(configValue);
@@ -114,12 +119,116 @@ public class ConfigController extends Controller {
 
             break;
 
+        case "undoMemoryBudget" :
+            config.setUndoMemoryBudget(parseBytes(configName, configValue));
+            break;
+
+        case "undoHistoryBudget" :
+            config.setUndoHistoryBudget(parseBytes(configName, configValue));
+            break;
+
+        case "undoHistoryCompressed" :
+            config.setUndoHistoryCompressed(parseBoolean(configName, configValue));
+            break;
+
+        case "metricsLogInterval" :
+            config.setMetricsLogInterval(parseSeconds(configName, configValue));
+            MetricsCenter.getInstance().setLogInterval(config.getMetricsLogInterval());
+            break;
+
+        case "queryParallelThreshold" :
+            config.setQueryParallelThreshold(parseItems(configName, configValue));
+            break;
+
+        case "archiveAfterDays" :
+            config.setArchiveAfterDays(parseDays(configName, configValue));
+            break;
+
+        case "databaseCompact" :
+            config.setDatabaseCompact(parseBoolean(configName, configValue));
+            break;
+
+        case "databaseCompressed" :
+            config.setDatabaseCompressed(parseBoolean(configName, configValue));
+            break;
+
         default :
             break;
         }
 
         return config;
     }
+
+    /**
+     * Parses a size in bytes, which must not be negative.
+     */
+    private long parseBytes(String configName, String configValue) throws CannotConfigureException {
+        try {
+            long bytes = Long.parseLong(configValue.trim());
+            if (bytes >= 0) {
+                return bytes;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through.
+        }
+        throw new CannotConfigureException(String.format(MESSAGE_INVALID_BYTES, configName));
+    }
+
+    /**
+     * Parses a number of seconds, which must not be negative.
+     */
+    private int parseSeconds(String configName, String configValue) throws CannotConfigureException {
+        try {
+            int seconds = Integer.parseInt(configValue.trim());
+            if (seconds >= 0) {
+                return seconds;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through.
+        }
+        throw new CannotConfigureException(String.format(MESSAGE_INVALID_SECONDS, configName));
+    }
+
+    /**
+     * Parses a number of items, which must not be negative.
+     */
+    private int parseItems(String configName, String configValue) throws CannotConfigureException {
+        try {
+            int items = Integer.parseInt(configValue.trim());
+            if (items >= 0) {
+                return items;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through.
+        }
+        throw new CannotConfigureException(String.format(MESSAGE_INVALID_ITEMS, configName));
+    }
+
+    /**
+     * Parses a number of days, which must not be negative.
+     */
+    private int parseDays(String configName, String configValue) throws CannotConfigureException {
+        try {
+            int days = Integer.parseInt(configValue.trim());
+            if (days >= 0) {
+                return days;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through.
+        }
+        throw new CannotConfigureException(String.format(MESSAGE_INVALID_DAYS, configName));
+    }
+
+    /**
+     * Parses <code>true</code> or <code>false</code>, case-insensitively.
+     */
+    private boolean parseBoolean(String configName, String configValue) throws CannotConfigureException {
+        String value = configValue.trim();
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new CannotConfigureException(String.format(MESSAGE_INVALID_BOOLEAN, configName));
+        }
+        return Boolean.parseBoolean(value);
+    }
     
     /**
      * Moves the database file to the new location.
@@ -0,0 +1,155 @@
+package seedu.todo.controllers;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.exceptions.AmbiguousEventTypeException;
+import seedu.todo.commons.exceptions.InvalidNaturalDateException;
+import seedu.todo.commons.exceptions.ParseException;
+import seedu.todo.commons.util.StringUtil;
+import seedu.todo.controllers.concerns.CalendarItemFilter;
+import seedu.todo.controllers.concerns.Disambiguator;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.controllers.concerns.Tokenizer;
+import seedu.todo.models.CalendarItemQuery;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.exporter.CalendarItemExporter;
+import seedu.todo.storage.exporter.ItemWriter;
+
+// @@author agent
+/**
+ * Controller to export CalendarItems to a CSV, iCalendar or JSON file,
+ * filtered in the same way as <code>list</code>.
+ */
+public class ExportController extends Controller {
+
+    private static final String NAME = "Export";
+    private static final String DESCRIPTION = "Exports tasks / events to a CSV, iCalendar (.ics) or JSON file.\n"
+                                            + "Accepts the same filters as list.";
+    private static final String COMMAND_SYNTAX = "export [task/event] [complete/incomplete] [from date to date] "
+                                               + "[tag tag] to <file.csv/file.ics/file.json>";
+    private static final String COMMAND_KEYWORD = "export";
+
+    // The file is the last "to"/"into", so that it can follow a "to <date>" filter.
+    private static final Pattern FILE_PATTERN =
+            Pattern.compile("^(.*?)\\s+(?:to|into)\\s+(\"[^\"]+\"|\\S+)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final String TEMPLATE_EXPORT = "export [from \"%s\"] [to \"%s\"] [tag \"%s\"] to %s";
+    private static final String FILE_FIELD = "<file.csv/file.ics/file.json>";
+
+    private static final String MESSAGE_SUCCESS = "Exported %d %s and %d %s to %s.";
+    private static final String MESSAGE_NO_FILE = "Please end your command with \"to\" and a .csv, .ics or .json file.";
+    private static final String MESSAGE_UNKNOWN_TOKENS = "Could not parse your query as it contained unknown tokens: %s";
+    private static final String MESSAGE_AMBIGUOUS_TYPE = "We could not tell if you wanted to export events or tasks. \n"
+            + "Note that only tasks can be \"complete\"/\"incomplete\", "
+            + "while only events can be \"past\", \"over\" or \"future\".";
+    private static final String MESSAGE_INVALID_DATE = "We could not parse the date in your query, please try again.";
+    private static final String MESSAGE_WRITE_FAILED = "Could not write to %s.";
+
+    private static CommandDefinition commandDefinition =
+            new CommandDefinition(NAME, DESCRIPTION, COMMAND_SYNTAX, COMMAND_KEYWORD);
+
+    @Override
+    public CommandDefinition getCommandDefinition() {
+        return commandDefinition;
+    }
+
+    /**
+     * Get the token definitions for use with <code>tokenizer</code>, which
+     * are those of <code>list</code>, starting with <code>export</code>.
+     *
+     * @return tokenDefinitions
+     */
+    private static Map<String, String[]> getTokenDefinitions() {
+        Map<String, String[]> tokenDefinitions = CalendarItemFilter.getFilterTokenDefinitions();
+        tokenDefinitions.put("default", new String[] { COMMAND_KEYWORD });
+        return tokenDefinitions;
+    }
+
+    @Override
+    public void process(String input) throws ParseException {
+        // Split off the file first, as the filter may have its own "to".
+        Matcher matcher = FILE_PATTERN.matcher(input.trim());
+        String path = matcher.matches() ? matcher.group(2).replaceAll("^\"|\"$", "") : null;
+        if (path == null || !CalendarItemExporter.isSupported(new File(path))) {
+            Renderer.renderDisambiguation(String.format(TEMPLATE_EXPORT, Disambiguator.PLACEHOLDER_STARTTIME,
+                    Disambiguator.PLACEHOLDER_ENDTIME, Disambiguator.PLACEHOLDER_TAG, FILE_FIELD), MESSAGE_NO_FILE);
+            return;
+        }
+        File file = new File(path);
+
+        Map<String, String[]> parsedResult = Tokenizer.tokenize(getTokenDefinitions(), matcher.group(1));
+
+        // Check if there are any unknown tokens.
+        if (Disambiguator.getUnknownTokenString(parsedResult) != null) {
+            renderDisambiguation(parsedResult, path,
+                    String.format(MESSAGE_UNKNOWN_TOKENS, Disambiguator.getUnknownTokenString(parsedResult)));
+            return;
+        }
+
+        // Determine if command should export tasks/events/both.
+        boolean[] tasksOrEventsBools;
+        try {
+            tasksOrEventsBools = CalendarItemFilter.parseIsTaskEvent(parsedResult);
+        } catch (AmbiguousEventTypeException e) {
+            renderDisambiguation(parsedResult, path, MESSAGE_AMBIGUOUS_TYPE);
+            return;
+        }
+        boolean isTask = tasksOrEventsBools[0];
+        boolean isEvent = tasksOrEventsBools[1];
+
+        // Parse the filter before touching the file.
+        CalendarItemQuery<Task> taskQuery;
+        CalendarItemQuery<Event> eventQuery;
+        try {
+            taskQuery = CalendarItemFilter.getTaskQuery(parsedResult);
+            eventQuery = CalendarItemFilter.getEventQuery(parsedResult);
+        } catch (InvalidNaturalDateException e) {
+            renderDisambiguation(parsedResult, path, MESSAGE_INVALID_DATE);
+            return;
+        }
+
+        // Stream matching items straight to the file.
+        TodoListDB db = TodoListDB.getInstance();
+        CalendarItemExporter exporter;
+        try (ItemWriter writer = CalendarItemExporter.open(file)) {
+            exporter = new CalendarItemExporter(writer);
+            if (isTask) {
+                exporter.writeTasks(db.streamTasks(taskQuery));
+            }
+            if (isEvent) {
+                exporter.writeEvents(db.streamEvents(eventQuery));
+            }
+        } catch (IOException e) {
+            Renderer.renderMessage(String.format(MESSAGE_WRITE_FAILED, path));
+            return;
+        }
+
+        int taskCount = exporter.getTaskCount();
+        int eventCount = exporter.getEventCount();
+        Renderer.renderMessage(String.format(MESSAGE_SUCCESS,
+                taskCount, StringUtil.pluralizer(taskCount, "task", "tasks"),
+                eventCount, StringUtil.pluralizer(eventCount, "event", "events"), file.getName()));
+    }
+
+    /**
+     * Disambiguate an ambiguous input by auto-populating a templated command on
+     * a best-effort basis.
+     *
+     * @param parsedResult
+     * @param path
+     * @param errorMessage
+     */
+    private void renderDisambiguation(Map<String, String[]> parsedResult, String path, String errorMessage) {
+        Map<String, String> extractedTokens = Disambiguator.extractParsedTokens(parsedResult);
+        String consoleCommand = String.format(TEMPLATE_EXPORT, extractedTokens.get("startTime"),
+                extractedTokens.get("endTime"), extractedTokens.get("tag"), path);
+        Renderer.renderDisambiguation(consoleCommand, errorMessage);
+    }
+
+}
@@ -3,8 +3,7 @@ package seedu.todo.controllers;
 import java.util.Arrays;
 
 import seedu.todo.commons.core.CommandDefinition;
-import seedu.todo.ui.UiManager;
-import seedu.todo.ui.views.HelpView;
+import seedu.todo.controllers.concerns.Renderer;
 
 // @@author A0139812A
 /**
@@ -29,17 +28,14 @@ public class HelpController extends Controller {
 
     @Override
     public void process(String input) {
-        HelpView view = UiManager.loadView(HelpView.class);
-        view.commandDefinitions = Arrays.asList(getAllCommandDefinitions());
-        UiManager.renderView(view);
-        
-        UiManager.updateConsoleMessage(MESSAGE_HELP_SUCCESS);
+        Renderer.renderHelp(Arrays.asList(getAllCommandDefinitions()), MESSAGE_HELP_SUCCESS);
     }
     
     public CommandDefinition[] getAllCommandDefinitions() {
         return new CommandDefinition[] { new HelpController().getCommandDefinition(),
                                          new AddController().getCommandDefinition(),
                                          new ListController().getCommandDefinition(),
+                                         new NextController().getCommandDefinition(),
                                          new UpdateController().getCommandDefinition(),
                                          new CompleteTaskController().getCommandDefinition(),
                                          new UncompleteTaskController().getCommandDefinition(),
@@ -50,6 +46,9 @@ public class HelpController extends Controller {
                                          new FindController().getCommandDefinition(),
                                          new TagController().getCommandDefinition(),
                                          new UntagController().getCommandDefinition(),
+                                         new StatsController().getCommandDefinition(),
+                                         new ImportController().getCommandDefinition(),
+                                         new ExportController().getCommandDefinition(),
                                          new ExitController().getCommandDefinition() };
     }
 }
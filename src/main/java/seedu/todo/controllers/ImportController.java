@@ -0,0 +1,88 @@
+package seedu.todo.controllers;
+
+import java.io.File;
+import java.io.IOException;
+
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.exceptions.ParseException;
+import seedu.todo.commons.util.StringUtil;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.importer.CalendarItemImporter;
+import seedu.todo.storage.importer.ItemReader;
+
+// @@author agent
+/**
+ * Controller to import tasks and events from a CSV or iCalendar file.
+ */
+public class ImportController extends Controller {
+
+    private static final String NAME = "Import";
+    private static final String DESCRIPTION = "Imports tasks / events from a CSV or iCalendar (.ics) file.";
+    private static final String COMMAND_SYNTAX = "import <file.csv/file.ics>";
+    private static final String COMMAND_KEYWORD = "import";
+
+    private static final String MESSAGE_SUCCESS = "Imported %d %s from %s.";
+    private static final String MESSAGE_SKIPPED = "\n%d %s skipped, as they had no name or invalid dates.";
+    private static final String MESSAGE_NO_FILE = "Please specify the file to import.";
+    private static final String MESSAGE_FILE_NOT_FOUND = "Could not find %s.";
+    private static final String MESSAGE_UNSUPPORTED = "Only .csv and .ics files can be imported.";
+    private static final String MESSAGE_READ_FAILED = "Could not read %s.";
+    private static final String MESSAGE_PARSE_FAILED = "Could not import %s: %s";
+    private static final String MESSAGE_SAVE_FAILED = "Could not save the imported items.";
+
+    private static CommandDefinition commandDefinition =
+            new CommandDefinition(NAME, DESCRIPTION, COMMAND_SYNTAX, COMMAND_KEYWORD);
+
+    @Override
+    public CommandDefinition getCommandDefinition() {
+        return commandDefinition;
+    }
+
+    @Override
+    public void process(String input) {
+        String path = input.replaceFirst("(?i)" + COMMAND_KEYWORD, "").trim().replaceAll("^\"|\"$", "");
+        if (path.isEmpty()) {
+            Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_NO_FILE);
+            return;
+        }
+
+        File file = new File(path);
+        if (!file.isFile()) {
+            Renderer.renderDisambiguation(input, String.format(MESSAGE_FILE_NOT_FOUND, path));
+            return;
+        }
+        if (!CalendarItemImporter.isSupported(file)) {
+            Renderer.renderDisambiguation(input, MESSAGE_UNSUPPORTED);
+            return;
+        }
+
+        CalendarItemImporter importer = new CalendarItemImporter();
+        try (ItemReader reader = CalendarItemImporter.open(file)) {
+            importer.read(reader);
+        } catch (ParseException e) {
+            Renderer.renderDisambiguation(input, String.format(MESSAGE_PARSE_FAILED, file.getName(), e.getMessage()));
+            return;
+        } catch (IOException e) {
+            Renderer.renderDisambiguation(input, String.format(MESSAGE_READ_FAILED, path));
+            return;
+        }
+
+        TodoListDB db = TodoListDB.getInstance();
+        if (!importer.commit(db)) {
+            Renderer.renderMessage(MESSAGE_SAVE_FAILED);
+            return;
+        }
+
+        int importedCount = importer.getItems().size();
+        int skippedCount = importer.getSkippedCount();
+        String message = String.format(MESSAGE_SUCCESS, importedCount,
+                StringUtil.pluralizer(importedCount, "item", "items"), file.getName());
+        if (skippedCount > 0) {
+            message += String.format(MESSAGE_SKIPPED, skippedCount,
+                    StringUtil.pluralizer(skippedCount, "item was", "items were"));
+        }
+        Renderer.renderIndex(db, message);
+    }
+
+}
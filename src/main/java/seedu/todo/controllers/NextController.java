@@ -0,0 +1,34 @@
+package seedu.todo.controllers;
+
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.controllers.concerns.Renderer;
+
+// @@author agent
+/**
+ * Controller to show the next page of the last list of tasks and events.
+ */
+public class NextController extends Controller {
+
+    private static final String NAME = "Next";
+    private static final String DESCRIPTION = "Shows more of the last list of tasks and events.";
+    private static final String COMMAND_SYNTAX = "next";
+    private static final String COMMAND_KEYWORD = "next";
+
+    private static final String MESSAGE_NO_MORE = "There are no more tasks or events to show.";
+
+    private static CommandDefinition commandDefinition =
+            new CommandDefinition(NAME, DESCRIPTION, COMMAND_SYNTAX, COMMAND_KEYWORD);
+
+    @Override
+    public CommandDefinition getCommandDefinition() {
+        return commandDefinition;
+    }
+
+    @Override
+    public void process(String input) {
+        if (!Renderer.renderNextPage()) {
+            Renderer.renderMessage(MESSAGE_NO_MORE);
+        }
+    }
+
+}
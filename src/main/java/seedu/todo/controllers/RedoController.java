@@ -9,7 +9,6 @@ import seedu.todo.commons.util.StringUtil;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.controllers.concerns.Tokenizer;
 import seedu.todo.models.TodoListDB;
-import seedu.todo.ui.UiManager;
 
 // @@author A0093907W
 /**
@@ -28,6 +27,9 @@ public class RedoController extends Controller {
     private static final String MESSAGE_MULTIPLE_FAILURE = "We cannot redo %s %s! At most, you can redo %s %s.";
     private static final String MESSAGE_FAILURE = "There is no command to redo!";
     private static final String MESSAGE_INDEX_NOT_NUMBER = "Index has to be a number!";
+    private static final String MESSAGE_CHANGED = "Your database was changed outside of GetShitDone, and has been reloaded.\nThere is nothing left to redo.";
+    private static final String MESSAGE_COULD_NOT_REDO = "Could not redo: Your database could not be saved, "
+            + "or was changed outside of GetShitDone.";
     
     private static CommandDefinition commandDefinition =
             new CommandDefinition(NAME, DESCRIPTION, COMMAND_SYNTAX, COMMAND_KEYWORD); 
@@ -69,6 +71,12 @@ public class RedoController extends Controller {
         // We don't really have a nice way to support SQL transactions, so yeah >_<
         TodoListDB db = TodoListDB.getInstance();
         
+        // Changes made outside of the app are merged in first, as a commit of their own.
+        if (db.sync()) {
+            Renderer.renderIndex(db, MESSAGE_CHANGED);
+            return;
+        }
+        
         // Attempt to redo DB. If fail, exit method.
         if (!attemptRedo(numRedo, db)) {
             return;
@@ -92,18 +100,18 @@ public class RedoController extends Controller {
      */
     private boolean attemptRedo(int numRedo, TodoListDB db) {
         if (numRedo <= 0 || db.redoSize() <= 0) {
-            UiManager.updateConsoleMessage(MESSAGE_FAILURE);
+            Renderer.renderMessage(MESSAGE_FAILURE);
             return false;
         }
         if (db.redoSize() < numRedo) {
-            UiManager.updateConsoleMessage(String.format(MESSAGE_MULTIPLE_FAILURE,
+            Renderer.renderMessage(String.format(MESSAGE_MULTIPLE_FAILURE,
                     numRedo, StringUtil.pluralizer(numRedo, "command", "commands"),
                     db.redoSize(), StringUtil.pluralizer(db.redoSize(), "command", "commands")));
             return false;
         }
         for (int i = 0; i < numRedo; i++) {
             if (!db.redo()) {
-                UiManager.updateConsoleMessage(MESSAGE_FAILURE);
+                Renderer.renderIndex(TodoListDB.getInstance(), MESSAGE_COULD_NOT_REDO);
                 return false;
             }
         }
@@ -0,0 +1,67 @@
+package seedu.todo.controllers;
+
+import java.util.List;
+
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * Controller to show how long each stage of the command path has taken.
+ */
+public class StatsController extends Controller {
+
+    private static final String NAME = "Stats";
+    private static final String DESCRIPTION = "Shows how long commands have taken, or resets the timings.";
+    private static final String COMMAND_SYNTAX = "stats [reset]";
+    private static final String COMMAND_KEYWORD = "stats";
+    private static final String RESET_PARAM = "reset";
+
+    private static final String MESSAGE_STATS = "Command timings since %s:\n%s\nUndo memory: %d KB (%d undo, %d redo)";
+    private static final String MESSAGE_NO_STATS = "No commands have been timed yet.";
+    private static final String MESSAGE_RESET = "Command timings have been reset.";
+    private static final String MESSAGE_INVALID_PARAM = "Did you mean \"stats reset\"?";
+    private static final String SINCE_STARTUP = "startup";
+    private static final String SINCE_RESET = "the last reset";
+
+    private static boolean hasReset = false;
+
+    private static CommandDefinition commandDefinition =
+            new CommandDefinition(NAME, DESCRIPTION, COMMAND_SYNTAX, COMMAND_KEYWORD);
+
+    @Override
+    public CommandDefinition getCommandDefinition() {
+        return commandDefinition;
+    }
+
+    @Override
+    public void process(String input) {
+        String params = input.replaceFirst(COMMAND_KEYWORD, "").trim();
+        MetricsCenter metrics = MetricsCenter.getInstance();
+
+        if (params.equalsIgnoreCase(RESET_PARAM)) {
+            metrics.reset();
+            hasReset = true;
+            Renderer.renderMessage(MESSAGE_RESET);
+            return;
+        }
+
+        if (params.length() > 0) {
+            Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_INVALID_PARAM);
+            return;
+        }
+
+        List<String> summary = metrics.getSummary();
+        if (summary.isEmpty()) {
+            Renderer.renderMessage(MESSAGE_NO_STATS);
+            return;
+        }
+
+        TodoListDB db = TodoListDB.getInstance();
+        Renderer.renderMessage(String.format(MESSAGE_STATS, hasReset ? SINCE_RESET : SINCE_STARTUP,
+                String.join("\n", summary), db.undoMemoryUsage() / 1024, db.undoSize(), db.redoSize()));
+    }
+
+}
@@ -1,9 +1,16 @@
 package seedu.todo.controllers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import seedu.todo.commons.EphemeralDB;
 import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.controllers.concerns.IndexParser;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.models.CalendarItem;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
 import seedu.todo.models.TodoListDB;
 
 // @@author A0139922Y
@@ -13,17 +20,19 @@ import seedu.todo.models.TodoListDB;
 public class TagController extends Controller {
     
     private static final String NAME = "Tag";
-    private static final String DESCRIPTION = "Tag a task/event by listed index";
-    private static final String COMMAND_SYNTAX = "tag <index> <tag name>";
+    private static final String DESCRIPTION = "Tag a task/event by listed index or range";
+    private static final String COMMAND_SYNTAX = "tag <index/range> <tag name>";
     private static final String COMMAND_KEYWORD = "tag";
     
     public static final String MESSAGE_TAG_SUCCESS = "Item has been tagged successfully.";
+    public static final String MESSAGE_MULTIPLE_TAG_SUCCESS = "%d items have been tagged successfully.";
     public static final String MESSAGE_INDEX_OUT_OF_RANGE = "Could not tag task/event: Invalid index provided!";
     public static final String MESSAGE_MISSING_INDEX_AND_TAG_NAME = "Please specify the index of the item and the tag name to tag.";
     public static final String MESSAGE_INDEX_NOT_NUMBER = "Index has to be a number!";
     public static final String MESSAGE_TAG_NAME_NOT_FOUND = "Could not tag task/event: Tag name not provided!";
     public static final String MESSAGE_EXCEED_TAG_SIZE = "Could not tag task/event : Tag size exceed";
     public static final String MESSAGE_TAG_NAME_EXIST = "Could not tag task/event: Tag name already exist!";
+    public static final String MESSAGE_COULD_NOT_SAVE = "Could not tag task/event: An error occured while saving the database file.";
     
     private static final int ITEM_INDEX = 0;
     
@@ -48,25 +57,34 @@ public class TagController extends Controller {
         assert param.length() > 0;
         
         String[] parsedResult = parseParam(param);
-        // Get index.
-        int index = 0;
+        // Get indices.
+        EphemeralDB edb = EphemeralDB.getInstance();
+        TodoListDB db = TodoListDB.getInstance();
+        List<Integer> indices;
         String tagName = null;
         try {
-            index = Integer.decode(parsedResult[ITEM_INDEX]);
-            tagName = param.replaceFirst(parsedResult[ITEM_INDEX], "").trim();
+            indices = IndexParser.parseIndices(parsedResult[ITEM_INDEX], edb.displayedCalendarItems.size());
+            tagName = param.replaceFirst(Pattern.quote(parsedResult[ITEM_INDEX]), "").trim();
         } catch (NumberFormatException e) {
             Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_INDEX_NOT_NUMBER);
             return;
+        } catch (IndexOutOfBoundsException e) {
+            Renderer.renderDisambiguation(String.format("tag %s", parsedResult[ITEM_INDEX]), MESSAGE_INDEX_OUT_OF_RANGE);
+            return;
         }
         
-        // Get record
-        EphemeralDB edb = EphemeralDB.getInstance();
-        CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
-        TodoListDB db = TodoListDB.getInstance();
+        // Get records
+        List<CalendarItem> calendarItems = new ArrayList<CalendarItem>();
         
-        if (calendarItem == null) {
-            Renderer.renderDisambiguation(String.format("tag %d", index), MESSAGE_INDEX_OUT_OF_RANGE);
-            return;
+        for (int index : indices) {
+            CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
+            
+            if (calendarItem == null) {
+                Renderer.renderDisambiguation(String.format("tag %d", index), MESSAGE_INDEX_OUT_OF_RANGE);
+                return;
+            }
+            
+            calendarItems.add(calendarItem);
         }
         
         // Check if tag name is provided
@@ -75,25 +93,57 @@ public class TagController extends Controller {
             return;
         }
         
-        assert calendarItem != null;
+        assert !calendarItems.isEmpty();
         
-        boolean isTagNameDuplicate = calendarItem.getTagList().contains(tagName);
+        // Items which already have the tag are left alone.
+        List<CalendarItem> itemsToTag = new ArrayList<CalendarItem>();
+        for (CalendarItem calendarItem : calendarItems) {
+            if (!calendarItem.getTagList().contains(tagName)) {
+                itemsToTag.add(calendarItem);
+            }
+        }
         
-        if (isTagNameDuplicate) {
-            Renderer.renderDisambiguation(String.format("tag %d", index), MESSAGE_TAG_NAME_EXIST);
+        if (itemsToTag.isEmpty()) {
+            Renderer.renderDisambiguation(String.format("tag %s", parsedResult[ITEM_INDEX]), MESSAGE_TAG_NAME_EXIST);
             return;
         }
         
-        boolean resultOfTagging = calendarItem.addTag(tagName);
+        // Make sure every item has room for the tag, so that either all or none are tagged.
+        for (CalendarItem calendarItem : itemsToTag) {
+            if (isTagListFull(calendarItem)) {
+                Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_EXCEED_TAG_SIZE);
+                return;
+            }
+        }
         
-        // Re-render
-        if (resultOfTagging) {
-            db.updateTagList(tagName);
-            db.save();
-            Renderer.renderIndex(db, MESSAGE_TAG_SUCCESS);
-        } else {
-            Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_EXCEED_TAG_SIZE);
+        // Tag them all, with a single save, or none at all.
+        final String newTagName = tagName;
+        boolean hadSaved = db.batch(tx -> {
+            for (CalendarItem calendarItem : itemsToTag) {
+                calendarItem.addTag(newTagName);
+            }
+            tx.updateTagList(newTagName);
+        });
+        
+        if (!hadSaved) {
+            Renderer.renderIndex(db, MESSAGE_COULD_NOT_SAVE);
+            return;
         }
+        
+        // Re-render
+        Renderer.renderIndex(db, (itemsToTag.size() == 1) ? MESSAGE_TAG_SUCCESS
+                : String.format(MESSAGE_MULTIPLE_TAG_SUCCESS, itemsToTag.size()));
+    }
+    
+    /**
+     * Returns true if no more tags can be added to <code>calendarItem</code>.
+     * 
+     * @param calendarItem
+     * @return true if the tag list is full, false otherwise
+     */
+    private boolean isTagListFull(CalendarItem calendarItem) {
+        int maxTagListSize = (calendarItem instanceof Task) ? Task.MAX_TAG_LIST_SIZE : Event.MAX_TAG_LIST_SIZE;
+        return calendarItem.getTagList().size() >= maxTagListSize;
     }
 
     private String[] parseParam(String param) {
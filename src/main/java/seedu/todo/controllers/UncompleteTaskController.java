@@ -1,7 +1,11 @@
 package seedu.todo.controllers;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import seedu.todo.commons.EphemeralDB;
 import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.controllers.concerns.IndexParser;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.models.CalendarItem;
 import seedu.todo.models.Task;
@@ -14,11 +18,12 @@ import seedu.todo.models.TodoListDB;
 public class UncompleteTaskController extends Controller {
     
     private static final String NAME = "Uncomplete Task";
-    private static final String DESCRIPTION = "Marks a task as incomplete, by listed index";
-    private static final String COMMAND_SYNTAX = "uncomplete <index>";
+    private static final String DESCRIPTION = "Marks a task as incomplete, by listed index or range";
+    private static final String COMMAND_SYNTAX = "uncomplete <index/range>";
     private static final String COMMAND_KEYWORD = "uncomplete";
 
     public static final String MESSAGE_SUCCESS = "Task marked as incomplete!";
+    public static final String MESSAGE_MULTIPLE_SUCCESS = "%d tasks marked as incomplete!";
     public static final String MESSAGE_MISSING_INDEX = "Please specify the index of the item to delete.";
     public static final String MESSAGE_INDEX_NOT_NUMBER = "Index has to be a number!";
     public static final String MESSAGE_INVALID_ITEM = "Could not mark task as incomplete: Invalid index provided!";
@@ -47,49 +52,66 @@ public class UncompleteTaskController extends Controller {
         
         assert param.length() > 0;
         
-        // Get index.
-        int index = 0;
+        EphemeralDB edb = EphemeralDB.getInstance();
+        TodoListDB db = TodoListDB.getInstance();
+        
+        // Get indices.
+        List<Integer> indices;
         try {
-            index = Integer.decode(param);
+            indices = IndexParser.parseIndices(param, edb.displayedCalendarItems.size());
         } catch (NumberFormatException e) {
             Renderer.renderDisambiguation(COMMAND_SYNTAX, MESSAGE_INDEX_NOT_NUMBER);
             return;
-        }
-        
-        // Get record
-        EphemeralDB edb = EphemeralDB.getInstance();
-        CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
-        TodoListDB db = TodoListDB.getInstance();
-        
-        if (calendarItem == null) {
+        } catch (IndexOutOfBoundsException e) {
             Renderer.renderIndex(db, MESSAGE_INVALID_ITEM);
             return;
         }
         
-        if (!(calendarItem instanceof Task)) {
-            Renderer.renderIndex(db, MESSAGE_CANNOT_UNCOMPLETE_EVENT);
-            return;
-        }
+        // Get records
+        List<Task> tasks = new ArrayList<Task>();
+        boolean hasTask = false;
         
-        Task task = (Task) calendarItem;
+        for (int index : indices) {
+            CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
+            
+            if (calendarItem == null) {
+                Renderer.renderIndex(db, MESSAGE_INVALID_ITEM);
+                return;
+            }
+            
+            // Events in a range are skipped, since they cannot be marked as incomplete.
+            if (!(calendarItem instanceof Task)) {
+                continue;
+            }
+            
+            Task task = (Task) calendarItem;
+            hasTask = true;
+            if (task.isCompleted()) {
+                tasks.add(task);
+            }
+        }
         
-        if (!task.isCompleted()) {
-            Renderer.renderIndex(db, MESSAGE_ALREADY_INCOMPLETE);
+        if (tasks.isEmpty()) {
+            String errorMessage = hasTask ? MESSAGE_ALREADY_INCOMPLETE : MESSAGE_CANNOT_UNCOMPLETE_EVENT;
+            Renderer.renderIndex(db, errorMessage);
             return;
         }
         
-        // Set task as completed
-        task.setIncomplete();
-        boolean hadSaved = db.save();
+        // Set tasks as incomplete, with a single save, or not at all.
+        boolean hadSaved = db.batch(tx -> {
+            for (Task task : tasks) {
+                task.setIncomplete();
+            }
+        });
         
         if (!hadSaved) {
-            task.setCompleted();
             Renderer.renderIndex(db, MESSAGE_COULD_NOT_SAVE);
             return;
         }
         
-        // Show success message
-        Renderer.renderIndex(db, MESSAGE_SUCCESS);
+        // Show success
+        Renderer.renderIndex(db, (tasks.size() == 1) ? MESSAGE_SUCCESS
+                : String.format(MESSAGE_MULTIPLE_SUCCESS, tasks.size()));
     }
 
 }
@@ -1,7 +1,9 @@
 package seedu.todo.controllers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import seedu.todo.commons.EphemeralDB;
@@ -10,6 +12,7 @@ import seedu.todo.commons.exceptions.InvalidNaturalDateException;
 import seedu.todo.commons.exceptions.ParseException;
 import seedu.todo.commons.util.StringUtil;
 import seedu.todo.controllers.concerns.DateParser;
+import seedu.todo.controllers.concerns.IndexParser;
 import seedu.todo.controllers.concerns.Renderer;
 import seedu.todo.controllers.concerns.Tokenizer;
 import seedu.todo.models.CalendarItem;
@@ -24,13 +27,15 @@ import seedu.todo.models.TodoListDB;
 public class UpdateController extends Controller {
 
     private static final String NAME = "Update";
-    private static final String DESCRIPTION = "Updates a task by listed index.";
-    private static final String COMMAND_SYNTAX = "update <index> <task> by <deadline>";
+    private static final String DESCRIPTION = "Updates a task by listed index or range.";
+    private static final String COMMAND_SYNTAX = "update <index/range> <task> by <deadline>";
     private static final String COMMAND_KEYWORD = "update";
 
     public static final String MESSAGE_UPDATE_SUCCESS = "Item successfully updated!";
+    public static final String MESSAGE_MULTIPLE_UPDATE_SUCCESS = "%d items successfully updated!";
     public static final String MESSAGE_INVALID_ITEM_OR_PARAM = "Please specify a valid index and parameter to update!";
     public static final String MESSAGE_CANNOT_PARSE_DATE = "We could not parse the date in your previous command, please correct it.";
+    public static final String MESSAGE_COULD_NOT_SAVE = "Could not update item: An error occured while saving the database file.";
     
     public static final String STRING_NULL = "null";
     public static final String UPDATE_EVENT_TEMPLATE = "update %s [name \"%s\"] [from \"%s\" to \"%s\"]";
@@ -78,21 +83,17 @@ public class UpdateController extends Controller {
         String naturalFrom = naturalDates[0];
         String naturalTo = naturalDates[1];
 
-        // Record index
-        Integer recordIndex = parseIndex(parsedResult);
+        // Record indices
+        String recordIndex = parseIndex(parsedResult);
 
-        // Retrieve record and check if task or event
-        EphemeralDB edb = EphemeralDB.getInstance();
-        CalendarItem calendarItem = null;
-        boolean isTask;
-        try {
-            calendarItem = edb.getCalendarItemsByDisplayedId(recordIndex);
-            isTask = calendarItem.getClass() == Task.class;
-        } catch (NullPointerException e) {
+        // Retrieve records and check if task or event
+        List<CalendarItem> calendarItems = getCalendarItems(recordIndex);
+        if (calendarItems == null) {
             // Assume task for disambiguation purposes since we can't tell
             renderDisambiguation(true, recordIndex, name, naturalFrom, naturalTo, MESSAGE_INVALID_ITEM_OR_PARAM);
             return;
         }
+        boolean isTask = calendarItems.get(0).getClass() == Task.class;
 
         // Parse natural date using Natty.
         LocalDateTime dateFrom = null;
@@ -107,37 +108,77 @@ public class UpdateController extends Controller {
             return;
         }
 
-        // Validate isTask, name and times.
-        if (!validateParams(isTask, calendarItem, name, dateFrom, dateTo, naturalFrom)) {
-            renderDisambiguation(isTask, (int) recordIndex, name, naturalFrom, naturalTo, null);
-            return;
+        // Validate isTask, name and times for every record.
+        for (CalendarItem calendarItem : calendarItems) {
+            boolean isRecordTask = calendarItem.getClass() == Task.class;
+            if (!validateParams(isRecordTask, calendarItem, name, dateFrom, dateTo, naturalFrom)) {
+                renderDisambiguation(isRecordTask, recordIndex, name, naturalFrom, naturalTo, null);
+                return;
+            }
         }
 
-        // Update and persist task / event.
+        // Update and persist tasks / events, with a single save, or not at all.
         TodoListDB db = TodoListDB.getInstance();
-        updateCalendarItem(db, calendarItem, isTask, name, dateFrom, dateTo, naturalFrom);
+        final LocalDateTime newDateFrom = dateFrom;
+        final LocalDateTime newDateTo = dateTo;
+        boolean hadSaved = db.batch(tx -> {
+            for (CalendarItem calendarItem : calendarItems) {
+                boolean isRecordTask = calendarItem.getClass() == Task.class;
+                updateCalendarItem(calendarItem, isRecordTask, name, newDateFrom, newDateTo, naturalFrom);
+            }
+        });
+
+        if (!hadSaved) {
+            Renderer.renderIndex(db, MESSAGE_COULD_NOT_SAVE);
+            return;
+        }
 
         // Re-render
-        Renderer.renderIndex(db, MESSAGE_UPDATE_SUCCESS);
+        Renderer.renderIndex(db, (calendarItems.size() == 1) ? MESSAGE_UPDATE_SUCCESS
+                : String.format(MESSAGE_MULTIPLE_UPDATE_SUCCESS, calendarItems.size()));
     }
 
     /**
-     * Extracts the record index from parsedResult.
+     * Extracts the record index, or range of record indices, from parsedResult.
      * 
      * @param parsedResult
-     * @return Integer index if parse was successful, null otherwise.
+     * @return String index if found, null otherwise.
+     */
+    private String parseIndex(Map<String, String[]> parsedResult) {
+        if (parsedResult.get("default") != null && parsedResult.get("default")[1] != null) {
+            return parsedResult.get("default")[1].trim();
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the displayed records referred to by recordIndex.
+     * 
+     * @param recordIndex
+     * @return List of records if all of them were found, null otherwise.
      */
-    private Integer parseIndex(Map<String, String[]> parsedResult) {
-        String indexStr = null;
+    private List<CalendarItem> getCalendarItems(String recordIndex) {
+        if (recordIndex == null) {
+            return null;
+        }
+
+        EphemeralDB edb = EphemeralDB.getInstance();
+        List<Integer> indices;
         try {
-            if (parsedResult.get("default") != null && parsedResult.get("default")[1] != null) {
-                indexStr = parsedResult.get("default")[1].trim();
-                return Integer.decode(indexStr);
+            indices = IndexParser.parseIndices(recordIndex, edb.displayedCalendarItems.size());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+
+        List<CalendarItem> calendarItems = new ArrayList<CalendarItem>();
+        for (int index : indices) {
+            CalendarItem calendarItem = edb.getCalendarItemsByDisplayedId(index);
+            if (calendarItem == null) {
+                return null;
             }
-        } catch (NumberFormatException e) {
-            // Everything is fine, just return null if cannot.
+            calendarItems.add(calendarItem);
         }
-        return null;
+        return calendarItems;
     }
 
     /**
@@ -154,10 +195,10 @@ public class UpdateController extends Controller {
     }
 
     /**
-     * Updates and persists a CalendarItem to the DB.
+     * Updates a CalendarItem in the DB.<br>
+     * <i>The record is not persisted until <code>save</code> is explicitly
+     * called.</i>
      * 
-     * @param db
-     *            TodoListDB instance
      * @param record
      *            Record to update
      * @param isTask
@@ -169,7 +210,7 @@ public class UpdateController extends Controller {
      * @param dateTo
      *            End date for Event
      */
-    private void updateCalendarItem(TodoListDB db, CalendarItem record, boolean isTask, String name,
+    private void updateCalendarItem(CalendarItem record, boolean isTask, String name,
             LocalDateTime dateFrom, LocalDateTime dateTo, String naturalFrom) {
         // Update name if not null
         if (name != null) {
@@ -193,9 +234,6 @@ public class UpdateController extends Controller {
                 event.setEndDate(dateTo);
             }
         }
-
-        // Persist
-        db.save();
     }
 
     /**
@@ -286,12 +324,12 @@ public class UpdateController extends Controller {
      * @param naturalTo
      * @param errorMessage
      */
-    private void renderDisambiguation(boolean isTask, Integer recordIndex, String name, String naturalFrom,
+    private void renderDisambiguation(boolean isTask, String recordIndex, String name, String naturalFrom,
             String naturalTo, String errorMessage) {
         name = StringUtil.replaceEmpty(name, NAME_FIELD);
 
         String disambiguationString;
-        String indexStr = (recordIndex == null) ? INDEX_FIELD : recordIndex.toString();
+        String indexStr = StringUtil.replaceEmpty(recordIndex, INDEX_FIELD);
 
         if (isTask) {
             naturalFrom = StringUtil.replaceEmpty(naturalFrom, DEADLINE_FIELD);
@@ -1,14 +1,13 @@
 package seedu.todo.controllers.concerns;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
 
 import seedu.todo.commons.exceptions.AmbiguousEventTypeException;
 import seedu.todo.commons.exceptions.InvalidNaturalDateException;
+import seedu.todo.models.CalendarItemQuery;
 import seedu.todo.models.Event;
 import seedu.todo.models.Task;
 
@@ -94,21 +93,33 @@ public class CalendarItemFilter {
     
     
     public static List<Task> filterTasks(Map<String, String[]> parsedResult) throws InvalidNaturalDateException {
-        List<Predicate<Task>> taskPredicates = new ArrayList<Predicate<Task>>();
+        return Task.where(getTaskQuery(parsedResult));
+    }
+    
+    public static List<Event> filterEvents(Map<String, String[]> parsedResult) throws InvalidNaturalDateException {
+        return Event.where(getEventQuery(parsedResult));
+    }
+    
+    /**
+     * Builds the query which Tasks must match for the filter in <code>parsedResult</code>.
+     * 
+     * @param parsedResult
+     * @return taskQuery
+     */
+    public static CalendarItemQuery<Task> getTaskQuery(Map<String, String[]> parsedResult)
+            throws InvalidNaturalDateException {
+        CalendarItemQuery<Task> taskQuery = new CalendarItemQuery<Task>();
         
         // Filter by name
         if (parsedResult.get("name") != null) {
-            taskPredicates.add(Task.predByName(parsedResult.get("name")[1]));
+            taskQuery.where(Task.predByName(parsedResult.get("name")[1]));
         }
         
         // Filter by taskStatus
         if (parsedResult.get("taskStatus") != null) {
             String taskStatus = parsedResult.get("taskStatus")[0];
-            if ("complete".equals(taskStatus) || "completed".equals(taskStatus)) {
-                taskPredicates.add(Task.predCompleted(true));
-            } else {
-                taskPredicates.add(Task.predCompleted(false));
-            }
+            boolean isCompleted = "complete".equals(taskStatus) || "completed".equals(taskStatus);
+            taskQuery.whereCompleted(isCompleted, Task.predCompleted(isCompleted));
         }
         
         // Filter by dueDate
@@ -117,27 +128,39 @@ public class CalendarItemFilter {
         String timeEndNatural = datePair[1];
         if (timeStartNatural != null) {
             LocalDateTime timeStart = DateParser.parseNatural(timeStartNatural);
-            taskPredicates.add(Task.predAfterDueDate(timeStart));
+            taskQuery.whereDateFrom(timeStart, Task.predAfterDueDate(timeStart));
         }
         if (timeEndNatural != null) {
             LocalDateTime timeEnd = DateParser.parseNatural(timeEndNatural);
-            taskPredicates.add(Task.predBeforeDueDate(timeEnd));
+            taskQuery.whereDateTo(timeEnd, Task.predBeforeDueDate(timeEnd));
         }
         
         // Filter by tag
         if (parsedResult.get("tag") != null && parsedResult.get("tag")[1] != null) {
-            taskPredicates.add(Task.predTag(parsedResult.get("tag")[1]));
+            String tag = parsedResult.get("tag")[1];
+            taskQuery.whereTag(tag, Task.predTag(tag));
         }
         
-        return Task.where(taskPredicates);
+        return taskQuery;
     }
     
-    public static List<Event> filterEvents(Map<String, String[]> parsedResult) throws InvalidNaturalDateException {
-        List<Predicate<Event>> eventPredicates = new ArrayList<Predicate<Event>>();
+    /**
+     * Builds the query which Events must match for the filter in <code>parsedResult</code>.<br>
+     * 
+     * Events are indexed by their start date, so only lower bounds on the
+     * start date are used as hints. An upper bound on the end date says
+     * nothing about the start date of an Event saved with its dates swapped.
+     * 
+     * @param parsedResult
+     * @return eventQuery
+     */
+    public static CalendarItemQuery<Event> getEventQuery(Map<String, String[]> parsedResult)
+            throws InvalidNaturalDateException {
+        CalendarItemQuery<Event> eventQuery = new CalendarItemQuery<Event>();
         
         // Filter by name
         if (parsedResult.get("name") != null) {
-            eventPredicates.add(Event.predByName(parsedResult.get("name")[1]));
+            eventQuery.where(Event.predByName(parsedResult.get("name")[1]));
         }
         
         // Filter by eventStatus
@@ -145,9 +168,9 @@ public class CalendarItemFilter {
             String eventStatus = parsedResult.get("eventStatus")[0];
             LocalDateTime now = LocalDateTime.now();
             if ("over".equals(eventStatus) || "past".equals(eventStatus)) {
-                eventPredicates.add(Event.predEndBefore(now));
+                eventQuery.where(Event.predEndBefore(now));
             } else if ("future".equals(eventStatus)) {
-                eventPredicates.add(Event.predStartAfter(now));
+                eventQuery.whereDateFrom(now, Event.predStartAfter(now));
             }
         }
         
@@ -157,19 +180,20 @@ public class CalendarItemFilter {
         String timeEndNatural = datePair[1];
         if (timeStartNatural != null) {
             LocalDateTime timeStart = DateParser.parseNatural(timeStartNatural);
-            eventPredicates.add(Event.predStartAfter(timeStart));
+            eventQuery.whereDateFrom(timeStart, Event.predStartAfter(timeStart));
         }
         if (timeEndNatural != null) {
             LocalDateTime timeEnd = DateParser.parseNatural(timeEndNatural);
-            eventPredicates.add(Event.predEndBefore(timeEnd));
+            eventQuery.where(Event.predEndBefore(timeEnd));
         }
         
         // Filter by tag
         if (parsedResult.get("tag") != null && parsedResult.get("tag")[1] != null) {
-            eventPredicates.add(Event.predTag(parsedResult.get("tag")[1]));
+            String tag = parsedResult.get("tag")[1];
+            eventQuery.whereTag(tag, Event.predTag(tag));
         }
         
-        return Event.where(eventPredicates);
+        return eventQuery;
     }
 
 }
@@ -9,6 +9,8 @@ import java.util.Map;
 import com.joestelmach.natty.DateGroup;
 import com.joestelmach.natty.Parser;
 
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
 import seedu.todo.commons.exceptions.InvalidNaturalDateException;
 
 // @@author A0093907W
@@ -49,8 +51,10 @@ public class DateParser {
      * @throws InvalidNaturalDateException 
      */
     public static LocalDateTime parseNatural(String natural) throws InvalidNaturalDateException {
+        long start = MetricsCenter.start();
         Parser parser = new Parser();
         List<DateGroup> groups = parser.parse(natural);
+        MetricsCenter.getInstance().record(Stage.DATE_PARSE, start);
         Date date = null;
         try {
             date = groups.get(0).getDates().get(0);
@@ -0,0 +1,60 @@
+package seedu.todo.controllers.concerns;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// @@author agent
+/**
+ * Class to store display index parsing methods to be shared across controllers.
+ */
+public class IndexParser {
+
+    private static final String RANGE_SEPARATOR = ",";
+    private static final String RANGE_DELIMITER = "-";
+
+    /**
+     * Parses a list of display indices, e.g. <code>3</code>, <code>1-50</code>
+     * or <code>3,7,9-20</code>.
+     *
+     * <ul>
+     * <li>Ranges are inclusive on both ends.</li>
+     * <li>Duplicate indices are only returned once, in the order they first appear.</li>
+     * <li>Every index must lie between 1 and <code>maxIndex</code>. Ranges are
+     * checked before they are expanded.</li>
+     * </ul>
+     *
+     * @param indexString   User input to parse
+     * @param maxIndex      Largest valid display index, i.e. the number of items displayed
+     * @return              List of display indices
+     * @throws NumberFormatException      If any index or range could not be parsed
+     * @throws IndexOutOfBoundsException  If any index lies outside <code>1</code> to <code>maxIndex</code>
+     */
+    public static List<Integer> parseIndices(String indexString, int maxIndex)
+            throws NumberFormatException, IndexOutOfBoundsException {
+        if (indexString == null || indexString.trim().isEmpty()) {
+            throw new NumberFormatException("No index provided.");
+        }
+
+        Set<Integer> indices = new LinkedHashSet<Integer>();
+        for (String part : indexString.split(RANGE_SEPARATOR)) {
+            String[] range = part.trim().split(RANGE_DELIMITER, 2);
+            int start = Integer.parseInt(range[0].trim());
+            int end = (range.length > 1) ? Integer.parseInt(range[1].trim()) : start;
+
+            if (end < start) {
+                throw new NumberFormatException(String.format("Invalid range \"%s\".", part.trim()));
+            }
+            if (start < 1 || end > maxIndex) {
+                throw new IndexOutOfBoundsException(String.format("Index out of range \"%s\".", part.trim()));
+            }
+
+            for (int i = start; i <= end; i++) {
+                indices.add(i);
+            }
+        }
+        return new ArrayList<Integer>(indices);
+    }
+
+}
@@ -2,105 +2,209 @@ package seedu.todo.controllers.concerns;
 
 import java.util.List;
 
+import seedu.todo.commons.EphemeralDB;
+import seedu.todo.commons.IndexCursor;
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
 import seedu.todo.models.Event;
 import seedu.todo.models.Task;
 import seedu.todo.models.TodoListDB;
-import seedu.todo.ui.UiManager;
-import seedu.todo.ui.views.AliasView;
-import seedu.todo.ui.views.ConfigView;
-import seedu.todo.ui.views.IndexView;
+import seedu.todo.ui.Display;
+import seedu.todo.ui.TextDisplay;
 
 /**
  * @@author A0093907W
- * 
+ *
  * Class to store rendering methods to be shared across controllers.
  *
+ * Controllers only ever render through this class, which passes everything
+ * on to a <code>Display</code>: the JavaFX GUI when started from MainApp, or
+ * plain text when running headless. Controllers hence do not depend on JavaFX.
+ *
  */
 public class Renderer {
 
     public static final String MESSAGE_DISAMBIGUATE = "Your last command wasn't clear, please fix your command and try again.";
-    
+    private static final String MESSAGE_MORE = "Showing the first %d of %d items.";
+    private static final String MESSAGE_PAGE = "Showing items %d to %d of %d.";
+    private static final String MESSAGE_NEXT_PAGE = " Type \"next\" to see more.";
+
+    private static Display display = new TextDisplay(System.out);
+
+    /**
+     * Sets the Display which all controllers render to.
+     */
+    public static void setDisplay(Display displayToSet) {
+        display = displayToSet;
+    }
+
+    public static Display getDisplay() {
+        return display;
+    }
+
     /**
      * Renders an error message in both the console and the input field, leave null or empty string if not needed.
      * @param replacedCommand    Value to display in the input field
      * @param detailedError       Message to be rendered in the console
      */
     public static void renderDisambiguation(String replacedCommand, String detailedError) {
-        // Update console input field
-        if (replacedCommand != null && replacedCommand.length() > 0) {
-            UiManager.updateConsoleInputValue(replacedCommand);
-        }
-        
-        // Update console message
-        if (detailedError != null && detailedError.length() > 0) {
-            UiManager.updateConsoleMessage(String.format("%s\n\n%s", MESSAGE_DISAMBIGUATE, detailedError));
-        } else {
-            UiManager.updateConsoleMessage(String.format("%s", MESSAGE_DISAMBIGUATE));
+        long start = MetricsCenter.start();
+        try {
+            // Update console input field
+            if (replacedCommand != null && replacedCommand.length() > 0) {
+                display.showInputValue(replacedCommand);
+            }
+
+            // Update console message
+            if (detailedError != null && detailedError.length() > 0) {
+                display.showMessage(String.format("%s\n\n%s", MESSAGE_DISAMBIGUATE, detailedError));
+            } else {
+                display.showMessage(String.format("%s", MESSAGE_DISAMBIGUATE));
+            }
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
         }
     }
-    
+
     /**
      * Renders the indexView.
-     * 
+     *
      * @param db
      * @param consoleMessage to be rendered in console, leave null if not needed
      */
     public static void renderSelected(TodoListDB db, String consoleMessage, List<Task> tasks, List<Event> events) {
-        IndexView view = UiManager.loadView(IndexView.class);
-        
-        if (tasks != null) {
-            view.tasks = tasks;
-        }
-        
-        if (events != null) {
-            view.events = events;
-        }
-        view.tags = db.getTagList();
-        UiManager.renderView(view);
-        
-        if (consoleMessage != null) {
-            UiManager.updateConsoleMessage(consoleMessage);
+        long start = MetricsCenter.start();
+        try {
+            showIndex(db, consoleMessage, tasks, events);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
         }
     }
-    
+
     /**
      * Renders the indexView.
-     * 
+     *
      * @param db
      * @param consoleMessage to be rendered in console, leave null if not needed
      */
     public static void renderIndex(TodoListDB db, String consoleMessage) {
-        IndexView view = UiManager.loadView(IndexView.class);
-        view.tasks = db.getIncompleteTasksAndTaskFromTodayDate();
-        view.events = db.getAllCurrentEvents();
-        view.tags = db.getTagList();
-        UiManager.renderView(view);
-        
-        if (consoleMessage != null) {
-            UiManager.updateConsoleMessage(consoleMessage);
+        List<Task> tasks = db.getIncompleteTasksAndTaskFromTodayDate();
+        List<Event> events = db.getAllCurrentEvents();
+        long start = MetricsCenter.start();
+        try {
+            showIndex(db, consoleMessage, tasks, events);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
+        }
+    }
+
+    /**
+     * Renders the next page of the last list shown in the indexView, after
+     * the pages already shown.
+     *
+     * @return true if a page was rendered, false if there was nothing more to show
+     */
+    public static boolean renderNextPage() {
+        long start = MetricsCenter.start();
+        try {
+            IndexCursor cursor = EphemeralDB.getInstance().displayedCursor;
+            int from = cursor.getPosition();
+            if (!cursor.hasNext()) {
+                return false;
+            }
+            display.showNextPage(cursor);
+            if (cursor.getPosition() == from) {
+                return false;
+            }
+            renderConsoleMessage(String.format(MESSAGE_PAGE, from + 1, cursor.getPosition(), cursor.size())
+                    + (cursor.hasNext() ? MESSAGE_NEXT_PAGE : ""));
+            return true;
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
         }
     }
-    
+
     /**
      * Renders the ConfigView.
-     * 
+     *
      * @param consoleMessage to be rendered in console, leave null if not needed
      */
     public static void renderConfig(String consoleMessage) {
-        ConfigView view = UiManager.loadView(ConfigView.class);
-        UiManager.renderView(view);
-        
-        if (consoleMessage != null) {
-            UiManager.updateConsoleMessage(consoleMessage);
+        long start = MetricsCenter.start();
+        try {
+            display.showConfig();
+            renderConsoleMessage(consoleMessage);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
         }
     }
-    
+
     public static void renderAlias(String consoleMessage) {
-        AliasView view = UiManager.loadView(AliasView.class);
-        UiManager.renderView(view);
-        
+        long start = MetricsCenter.start();
+        try {
+            display.showAliases();
+            renderConsoleMessage(consoleMessage);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
+        }
+    }
+
+    /**
+     * Renders the HelpView.
+     *
+     * @param commandDefinitions to be listed
+     * @param consoleMessage to be rendered in console, leave null if not needed
+     */
+    public static void renderHelp(List<CommandDefinition> commandDefinitions, String consoleMessage) {
+        long start = MetricsCenter.start();
+        try {
+            display.showHelp(commandDefinitions);
+            renderConsoleMessage(consoleMessage);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
+        }
+    }
+
+    /**
+     * Renders a message in the console, leaving the current view as it is.
+     *
+     * @param consoleMessage to be rendered in console
+     */
+    public static void renderMessage(String consoleMessage) {
+        long start = MetricsCenter.start();
+        try {
+            display.showMessage(consoleMessage);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.RENDER, start);
+        }
+    }
+
+    /**
+     * Updates the app title.
+     */
+    public static void renderTitle(String title) {
+        display.setTitle(title);
+    }
+
+    /**
+     * Shows the first page of <code>tasks</code> and <code>events</code>, and
+     * keeps the cursor over them so that later pages can be shown.
+     */
+    private static void showIndex(TodoListDB db, String consoleMessage, List<Task> tasks, List<Event> events) {
+        IndexCursor cursor = new IndexCursor(db, tasks, events);
+        EphemeralDB.getInstance().displayedCursor = cursor;
+        display.showIndex(cursor, db.getTagList());
+        if (cursor.hasNext()) {
+            String moreMessage = String.format(MESSAGE_MORE, cursor.getPosition(), cursor.size()) + MESSAGE_NEXT_PAGE;
+            consoleMessage = consoleMessage == null ? moreMessage : consoleMessage + "\n" + moreMessage;
+        }
+        renderConsoleMessage(consoleMessage);
+    }
+
+    private static void renderConsoleMessage(String consoleMessage) {
         if (consoleMessage != null) {
-            UiManager.updateConsoleMessage(consoleMessage);
+            display.showMessage(consoleMessage);
         }
     }
 
@@ -9,6 +9,8 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
 import seedu.todo.commons.exceptions.UnmatchedQuotesException;
 
 // @@author A0093907W
@@ -54,6 +56,16 @@ public class Tokenizer {
      */
     public static Map<String, String[]> tokenize(Map<String, String[]> tokenDefinitions, String inputCommand)
             throws UnmatchedQuotesException {
+        long start = MetricsCenter.start();
+        try {
+            return tokenizeCommand(tokenDefinitions, inputCommand);
+        } finally {
+            MetricsCenter.getInstance().record(Stage.TOKENIZE, start);
+        }
+    }
+
+    private static Map<String, String[]> tokenizeCommand(Map<String, String[]> tokenDefinitions,
+            String inputCommand) throws UnmatchedQuotesException {
         
         if (inputCommand.length() == 0) {
             return null;
@@ -0,0 +1,41 @@
+package seedu.todo.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// @@author agent
+/**
+ * The Tasks and Events archived for one month, which are persisted apart from
+ * the DB, and only loaded back into it when a query reaches that month.
+ */
+public class ArchiveShard {
+
+    private List<Task> tasks = new ArrayList<Task>();
+    private List<Event> events = new ArrayList<Event>();
+
+    public ArchiveShard() {
+    }
+
+    /**
+     * Get the Tasks in this shard, in ID order.
+     *
+     * @return tasks
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Get the Events in this shard, in ID order.
+     *
+     * @return events
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public boolean isEmpty() {
+        return tasks.isEmpty() && events.isEmpty();
+    }
+
+}
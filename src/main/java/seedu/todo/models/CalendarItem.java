@@ -9,6 +9,17 @@ import java.util.ArrayList;
  */
 public interface CalendarItem {
     
+    /**
+     * Get the ID of the calendar item. IDs are assigned by the TodoListDB when
+     * the item is created, and are persisted along with the item, so they
+     * survive reloads, undos and redos.<br>
+     * 
+     * An ID of 0 means that the item has not been added to the DB.
+     * 
+     * @return id
+     */
+    public long getId();
+    
     /**
      * Get the display name of the calendar item.
      * @return name
@@ -0,0 +1,266 @@
+package seedu.todo.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+// @@author agent
+/**
+ * Secondary indexes over the Tasks or Events in the TodoListDB, so that
+ * queries do not have to scan every item in the DB.
+ * <ul>
+ * <li>Items are indexed by each of their tags (case-insensitively, by their
+ * TagDictionary ID), by the date of their calendar datetime and, for Tasks,
+ * by whether they are completed.</li>
+ * <li>Every set of items in the index is kept in ID order.</li>
+ * <li>Items notify the index whenever an indexed field changes, so it never
+ * has to be rebuilt while the app is running. It is not persisted, and is
+ * rebuilt by the TodoListDB whenever the DB is reloaded.</li>
+ * <li>The index has a version, which changes whenever an item is added,
+ * removed or changed, so that lists built from it can be reused until
+ * then.</li>
+ * </ul>
+ */
+public class CalendarItemIndex<T extends CalendarItem> {
+
+    static final Comparator<CalendarItem> ID_ORDER = Comparator.comparingLong(CalendarItem::getId);
+
+    private final Predicate<T> isCompleted;
+    private final Map<Integer, NavigableSet<T>> byTag = new HashMap<Integer, NavigableSet<T>>();
+    private final NavigableMap<LocalDate, NavigableSet<T>> byDate = new TreeMap<LocalDate, NavigableSet<T>>();
+    private final NavigableSet<T> undated = new TreeSet<T>(ID_ORDER);
+    private final NavigableSet<T> completed = new TreeSet<T>(ID_ORDER);
+    private final NavigableSet<T> incomplete = new TreeSet<T>(ID_ORDER);
+    private int size = 0;
+    private int version = 0;
+
+    /**
+     * @param isCompleted   Returns true if an item is completed, or null if
+     *                      items of this type cannot be completed.
+     */
+    CalendarItemIndex(Predicate<T> isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    /**
+     * Returns the number of items in the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if items are indexed by whether they are completed.
+     */
+    public boolean hasCompletion() {
+        return isCompleted != null;
+    }
+
+    /**
+     * Get the items with <code>tag</code>, ignoring case.
+     *
+     * @param tag
+     * @return items
+     */
+    public NavigableSet<T> getTagged(String tag) {
+        NavigableSet<T> items = byTag.get(TagDictionary.getInstance().findId(tag));
+        return items == null ? Collections.emptyNavigableSet() : Collections.unmodifiableNavigableSet(items);
+    }
+
+    /**
+     * Get the items whose calendar datetime falls on a date between
+     * <code>from</code> and <code>to</code> inclusive, grouped by that date.
+     *
+     * @param from  Earliest date, or null for no lower bound
+     * @param to    Latest date, or null for no upper bound
+     * @return items by date
+     */
+    public NavigableMap<LocalDate, NavigableSet<T>> getDated(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, NavigableSet<T>> dated = byDate;
+        if (from != null && to != null && from.isAfter(to)) {
+            return Collections.emptyNavigableMap();
+        }
+        if (from != null) {
+            dated = dated.tailMap(from, true);
+        }
+        if (to != null) {
+            dated = dated.headMap(to, true);
+        }
+        return Collections.unmodifiableNavigableMap(dated);
+    }
+
+    /**
+     * Count the items returned by <code>getDated(from, to)</code>.
+     *
+     * @param from
+     * @param to
+     * @return count
+     */
+    public int countDated(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (NavigableSet<T> items : getDated(from, to).values()) {
+            count += items.size();
+        }
+        return count;
+    }
+
+    /**
+     * Get the items without a calendar datetime.
+     *
+     * @return items
+     */
+    public NavigableSet<T> getUndated() {
+        return Collections.unmodifiableNavigableSet(undated);
+    }
+
+    /**
+     * Get the items which are completed, or incomplete.
+     *
+     * @param isCompleted
+     * @return items
+     * @throws UnsupportedOperationException if items cannot be completed
+     */
+    public NavigableSet<T> getByCompletion(boolean isCompleted) {
+        if (!hasCompletion()) {
+            throw new UnsupportedOperationException("Items of this type cannot be completed.");
+        }
+        return Collections.unmodifiableNavigableSet(isCompleted ? completed : incomplete);
+    }
+
+    /**
+     * Returns the version of the index, which changes whenever an item is
+     * added, removed, or changes in a way that items notify the index of.
+     */
+    int getVersion() {
+        return version;
+    }
+
+    void add(T item) {
+        version++;
+        size++;
+        addDated(item, item.getCalendarDateTime());
+        for (String tag : item.getTagList()) {
+            tagAdded(item, tag);
+        }
+        completionChanged(item);
+    }
+
+    void remove(T item) {
+        version++;
+        if (removeDated(item, item.getCalendarDateTime())) {
+            size--;
+        }
+        for (String tag : item.getTagList()) {
+            removeTagged(item, tag);
+        }
+        completed.remove(item);
+        incomplete.remove(item);
+    }
+
+    void clear() {
+        version++;
+        size = 0;
+        byTag.clear();
+        byDate.clear();
+        undated.clear();
+        completed.clear();
+        incomplete.clear();
+    }
+
+    /**
+     * Moves <code>item</code> to the date of its new calendar datetime.
+     *
+     * @param item
+     * @param oldDateTime   Calendar datetime before the change
+     */
+    void dateChanged(T item, LocalDateTime oldDateTime) {
+        version++;
+        removeDated(item, oldDateTime);
+        addDated(item, item.getCalendarDateTime());
+    }
+
+    void tagAdded(T item, String tag) {
+        version++;
+        byTag.computeIfAbsent(TagDictionary.getInstance().getId(tag), key -> new TreeSet<T>(ID_ORDER)).add(item);
+    }
+
+    /**
+     * Removes <code>item</code> from the items with <code>tag</code>, unless
+     * it still has another copy of the tag.
+     *
+     * @param item
+     * @param tag   Tag which was removed from the item
+     */
+    void tagRemoved(T item, String tag) {
+        version++;
+        int tagId = TagDictionary.getInstance().findId(tag);
+        for (String currTag : item.getTagList()) {
+            if (TagDictionary.getInstance().findId(currTag) == tagId) {
+                return;
+            }
+        }
+        removeTagged(item, tag);
+    }
+
+    void completionChanged(T item) {
+        version++;
+        if (!hasCompletion()) {
+            return;
+        }
+        if (isCompleted.test(item)) {
+            incomplete.remove(item);
+            completed.add(item);
+        } else {
+            completed.remove(item);
+            incomplete.add(item);
+        }
+    }
+
+    /**
+     * Notes that a field of an item which is not indexed has changed, so that
+     * lists which depend on it are rebuilt.
+     */
+    void fieldChanged() {
+        version++;
+    }
+
+    private void addDated(T item, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            undated.add(item);
+        } else {
+            byDate.computeIfAbsent(dateTime.toLocalDate(), key -> new TreeSet<T>(ID_ORDER)).add(item);
+        }
+    }
+
+    private boolean removeDated(T item, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return undated.remove(item);
+        }
+        LocalDate date = dateTime.toLocalDate();
+        NavigableSet<T> items = byDate.get(date);
+        if (items == null || !items.remove(item)) {
+            return false;
+        }
+        if (items.isEmpty()) {
+            byDate.remove(date);
+        }
+        return true;
+    }
+
+    private void removeTagged(T item, String tag) {
+        Integer key = TagDictionary.getInstance().findId(tag);
+        NavigableSet<T> items = byTag.get(key);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            byTag.remove(key);
+        }
+    }
+
+}
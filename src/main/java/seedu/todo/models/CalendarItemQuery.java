@@ -0,0 +1,336 @@
+package seedu.todo.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// @@author agent
+/**
+ * A query for Tasks or Events, made up of predicates which every result must
+ * match.<br>
+ *
+ * Predicates may come with a hint of which index they can be answered from,
+ * e.g. <code>whereTag</code>. When the query is run, the planner picks the
+ * hint which leaves the fewest items to check, scans only those items, and
+ * tests every predicate on each of them in a single pass. Without any usable
+ * hint, the whole DB is scanned.<br>
+ *
+ * Results can be streamed lazily, so that items are only checked as they
+ * are consumed, or collected all at once, in which case large scans are
+ * split across the cores of the machine.
+ */
+public class CalendarItemQuery<T extends CalendarItem> {
+
+    /**
+     * The items which a query scans.
+     */
+    public enum Scan {
+        ALL, TAG, DATE, COMPLETION
+    }
+
+    // Chunks checked in parallel are never smaller than this, so that the
+    // cost of forking stays small next to the cost of checking them.
+    private static final int MIN_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final List<Predicate<T>> predicates = new ArrayList<Predicate<T>>();
+    private String tag;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+    private Boolean isCompleted;
+    private boolean isParallel = false;
+
+    /**
+     * Adds a predicate which results must match.
+     *
+     * @param predicate
+     * @return this query
+     */
+    public CalendarItemQuery<T> where(Predicate<T> predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * Adds a predicate which only matches items with <code>tag</code>.
+     *
+     * @param tag
+     * @param predicate
+     * @return this query
+     */
+    public CalendarItemQuery<T> whereTag(String tag, Predicate<T> predicate) {
+        this.tag = tag;
+        return where(predicate);
+    }
+
+    /**
+     * Adds a predicate which only matches items with a calendar datetime on or
+     * after the date of <code>dateTime</code>.
+     *
+     * @param dateTime
+     * @param predicate
+     * @return this query
+     */
+    public CalendarItemQuery<T> whereDateFrom(LocalDateTime dateTime, Predicate<T> predicate) {
+        LocalDate date = dateTime.toLocalDate();
+        if (dateFrom == null || date.isAfter(dateFrom)) {
+            dateFrom = date;
+        }
+        return where(predicate);
+    }
+
+    /**
+     * Adds a predicate which only matches items with a calendar datetime on or
+     * before the date of <code>dateTime</code>.
+     *
+     * @param dateTime
+     * @param predicate
+     * @return this query
+     */
+    public CalendarItemQuery<T> whereDateTo(LocalDateTime dateTime, Predicate<T> predicate) {
+        LocalDate date = dateTime.toLocalDate();
+        if (dateTo == null || date.isBefore(dateTo)) {
+            dateTo = date;
+        }
+        return where(predicate);
+    }
+
+    /**
+     * Adds a predicate which only matches items which are completed, or
+     * incomplete, according to <code>isCompleted</code>.
+     *
+     * @param isCompleted
+     * @param predicate
+     * @return this query
+     */
+    public CalendarItemQuery<T> whereCompleted(boolean isCompleted, Predicate<T> predicate) {
+        this.isCompleted = isCompleted;
+        return where(predicate);
+    }
+
+    /**
+     * Checks items in parallel when the query is run. Results are still in
+     * the same order as they would be otherwise.
+     *
+     * @return this query
+     */
+    public CalendarItemQuery<T> parallel() {
+        isParallel = true;
+        return this;
+    }
+
+    /**
+     * Returns true if <code>item</code> matches every predicate in the query.
+     *
+     * @param item
+     * @return true if the item is a result of the query, false otherwise
+     */
+    public boolean matches(T item) {
+        for (Predicate<T> predicate : predicates) {
+            if (!predicate.test(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the query as a single predicate.
+     *
+     * @return predicate
+     */
+    public Predicate<T> toPredicate() {
+        return this::matches;
+    }
+
+    /**
+     * Returns true if the query may match items archived for
+     * <code>month</code>, going by its hints. Archived items are all dated,
+     * and completed or over, so only queries which explicitly ask for
+     * completed items or for a range of dates reach the archive; those
+     * without any such hint are answered from the DB alone.
+     *
+     * @param month
+     * @return false if the query should not match any of them, true otherwise
+     */
+    boolean mayMatchArchive(YearMonth month) {
+        boolean asksForArchive = Boolean.TRUE.equals(isCompleted) || dateFrom != null || dateTo != null;
+        return asksForArchive && !Boolean.FALSE.equals(isCompleted)
+                && (dateFrom == null || !month.isBefore(YearMonth.from(dateFrom)))
+                && (dateTo == null || !month.isAfter(YearMonth.from(dateTo)));
+    }
+
+    /**
+     * Picks the scan which leaves the fewest items to check.
+     *
+     * @param size  Number of items in the DB
+     * @param index Index over the items in the DB
+     * @return scan
+     */
+    public Scan plan(int size, CalendarItemIndex<T> index) {
+        Scan scan = Scan.ALL;
+        int cost = size;
+        if (tag != null && index.getTagged(tag).size() < cost) {
+            scan = Scan.TAG;
+            cost = index.getTagged(tag).size();
+        }
+        if (dateFrom != null || dateTo != null) {
+            int dateCost = index.countDated(dateFrom, dateTo);
+            if (dateCost < cost) {
+                scan = Scan.DATE;
+                cost = dateCost;
+            }
+        }
+        if (isCompleted != null && index.hasCompletion() && index.getByCompletion(isCompleted).size() < cost) {
+            scan = Scan.COMPLETION;
+        }
+        return scan;
+    }
+
+    /**
+     * Runs the query, and returns a lazy stream of its results. Items are only
+     * checked as the stream is consumed, so <code>items</code> and
+     * <code>index</code> must not be modified until then.<br>
+     *
+     * Results from a full scan are in the order of <code>items</code>, and
+     * results from an index are in ID order, which is the order in which they
+     * were created.
+     *
+     * @param items All items in the DB
+     * @param index Index over <code>items</code>
+     * @return results
+     */
+    Stream<T> stream(Collection<T> items, CalendarItemIndex<T> index) {
+        Scan scan = plan(items.size(), index);
+        Stream<T> candidates = getCandidates(scan, items, index).stream();
+        if (isParallel) {
+            candidates = candidates.parallel();
+        }
+
+        Stream<T> results = candidates.filter(this::matches);
+        // Items are in ID order within each date, but not across dates.
+        return scan == Scan.DATE ? results.sorted(CalendarItemIndex.ID_ORDER) : results;
+    }
+
+    /**
+     * Runs the query, and returns all of its results, in the same order as
+     * <code>stream</code>.<br>
+     *
+     * If there are at least <code>parallelThreshold</code> items to check, or
+     * the query is <code>parallel</code>, they are split into chunks which are
+     * checked on the common ForkJoinPool.
+     *
+     * @param items             All items in the DB
+     * @param index             Index over <code>items</code>
+     * @param parallelThreshold Number of items to check before doing so in
+     *                          parallel, or 0 to never do so
+     * @return results
+     */
+    List<T> collect(Collection<T> items, CalendarItemIndex<T> index, int parallelThreshold) {
+        Scan scan = plan(items.size(), index);
+        Collection<T> candidates = getCandidates(scan, items, index);
+
+        List<T> results;
+        if (isParallel || (parallelThreshold > 0 && candidates.size() >= parallelThreshold)) {
+            results = collectInParallel(candidates);
+        } else {
+            results = new ArrayList<T>();
+            for (T item : candidates) {
+                if (matches(item)) {
+                    results.add(item);
+                }
+            }
+        }
+
+        if (scan == Scan.DATE) {
+            results.sort(CalendarItemIndex.ID_ORDER);
+        }
+        return results;
+    }
+
+    private Collection<T> getCandidates(Scan scan, Collection<T> items, CalendarItemIndex<T> index) {
+        switch (scan) {
+        case TAG :
+            return index.getTagged(tag);
+        case DATE :
+            List<T> dated = new ArrayList<T>();
+            for (NavigableSet<T> itemsOnDate : index.getDated(dateFrom, dateTo).values()) {
+                dated.addAll(itemsOnDate);
+            }
+            return dated;
+        case COMPLETION :
+            return index.getByCompletion(isCompleted);
+        default :
+            return items;
+        }
+    }
+
+    /**
+     * Checks <code>candidates</code> on the common ForkJoinPool. Each chunk
+     * marks its matches in a shared array, which is then read back in order,
+     * so the results are in the same order as <code>candidates</code>.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> collectInParallel(Collection<T> candidates) {
+        Object[] array = candidates.toArray();
+        boolean[] isMatch = new boolean[array.length];
+        int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                array.length / (ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD));
+        ForkJoinPool.commonPool().invoke(new MatchChunk(array, isMatch, 0, array.length, chunkSize));
+
+        List<T> results = new ArrayList<T>();
+        for (int i = 0; i < array.length; i++) {
+            if (isMatch[i]) {
+                results.add((T) array[i]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Checks the items in <code>[from, to)</code>, splitting the range in
+     * half until it is no larger than <code>chunkSize</code>.
+     */
+    private class MatchChunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] items;
+        private final boolean[] isMatch;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        MatchChunk(Object[] items, boolean[] isMatch, int from, int to, int chunkSize) {
+            this.items = items;
+            this.isMatch = isMatch;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    isMatch[i] = matches((T) items[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MatchChunk(items, isMatch, from, mid, chunkSize),
+                    new MatchChunk(items, isMatch, mid, to, chunkSize));
+        }
+
+    }
+
+}
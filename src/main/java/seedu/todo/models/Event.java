@@ -3,19 +3,37 @@ package seedu.todo.models;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
+
 // @@author A0093907W
 /**
  * Event model
  */
+@JsonPropertyOrder({ "id", "name", "startDate", "endDate", "tagList" })
 public class Event implements CalendarItem {
     
+    private long id;
     private String name;
-    private LocalDateTime startDate;
-    private LocalDateTime endDate;
+    // Start and end dates, packed by PackedDateTime. Persisted as "startDate"
+    // and "endDate" through their getters and setters.
+    private transient long startSeconds = PackedDateTime.NONE;
+    private transient int startNanos;
+    private transient long endSeconds = PackedDateTime.NONE;
+    private transient int endNanos;
     private ArrayList<String> tagList = new ArrayList<String>();
+    // TagDictionary IDs of the tags in tagList, in the same order. Not persisted.
+    private transient int[] tagIds;
+    
+    // Index of the TodoListDB which holds this Event, to be notified of changes. Not persisted.
+    private transient CalendarItemIndex<Event> index;
     
     public static final int MAX_TAG_LIST_SIZE = 20;
     
@@ -23,32 +41,67 @@ public class Event implements CalendarItem {
      * Get the start date of an Event.
      * @return startDate
      */
+    @JsonProperty("startDate")
     public LocalDateTime getStartDate() {
-        return startDate;
+        return PackedDateTime.toDateTime(startSeconds, startNanos);
     }
 
     /**
      * Set the start date of an Event.
      * @param startDate
      */
+    @JsonProperty("startDate")
     public void setStartDate(LocalDateTime startDate) {
-        this.startDate = startDate;
+        LocalDateTime oldStartDate = index == null ? null : getStartDate();
+        startSeconds = PackedDateTime.toSeconds(startDate);
+        startNanos = PackedDateTime.toNanos(startDate);
+        if (index != null) {
+            index.dateChanged(this, oldStartDate);
+        }
     }
 
     /**
      * Get the end date of an Event.
      * @return endDate
      */
+    @JsonProperty("endDate")
     public LocalDateTime getEndDate() {
-        return endDate;
+        return PackedDateTime.toDateTime(endSeconds, endNanos);
     }
 
     /**
      * Set the end date of an Event.
      * @param endDate
      */
+    @JsonProperty("endDate")
     public void setEndDate(LocalDateTime endDate) {
-        this.endDate = endDate;
+        endSeconds = PackedDateTime.toSeconds(endDate);
+        endNanos = PackedDateTime.toNanos(endDate);
+        if (index != null) {
+            index.fieldChanged();
+        }
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+    
+    /**
+     * Set the ID of an Event. IDs should only ever be assigned by the TodoListDB.
+     * @param id
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+    
+    /**
+     * Set the index to notify whenever an indexed field of an Event changes.
+     * Only the TodoListDB which holds the Event should set this.
+     * @param index
+     */
+    void setIndex(CalendarItemIndex<Event> index) {
+        this.index = index;
     }
 
     @Override
@@ -73,11 +126,7 @@ public class Event implements CalendarItem {
     
     @Override
     public boolean isOver() {
-        if (endDate == null) {
-            return false;
-        } else {
-            return endDate.isBefore(LocalDateTime.now());
-        }
+        return predEndBefore(LocalDateTime.now()).test(this);
     }
 
     @Override
@@ -90,7 +139,11 @@ public class Event implements CalendarItem {
     //@@author Tiong YaoCong A0139922Y
     public boolean addTag(String tagName) {
         if(tagList.size() < MAX_TAG_LIST_SIZE) {
-            tagList.add(tagName);
+            tagList.add(TagDictionary.getInstance().intern(tagName));
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+            if (index != null) {
+                index.tagAdded(this, tagName);
+            }
             return true;
         } else {
             return false;
@@ -100,7 +153,90 @@ public class Event implements CalendarItem {
     @Override
     //@@author Tiong YaoCong A0139922Y
     public boolean removeTag(String tagName) {
-        return tagList.remove(tagName);
+        boolean isRemoved = tagList.remove(tagName);
+        if (isRemoved) {
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+        }
+        if (isRemoved && index != null) {
+            index.tagRemoved(this, tagName);
+        }
+        return isRemoved;
+    }
+    
+    /**
+     * Replaces the tags of this Event with the copies held by the TagDictionary.
+     * Tags read from disk are separate copies until this is called.
+     */
+    void internTags() {
+        TagDictionary dictionary = TagDictionary.getInstance();
+        tagList.replaceAll(dictionary::intern);
+        tagIds = dictionary.getIds(tagList);
+    }
+    
+    private int[] getTagIds() {
+        if (tagIds == null) {
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+        }
+        return tagIds;
+    }
+    
+    /**
+     * Returns a copy of this Event, including its ID.
+     * 
+     * @return event
+     */
+    Event copy() {
+        Event event = new Event();
+        event.id = id;
+        event.name = name;
+        event.startSeconds = startSeconds;
+        event.startNanos = startNanos;
+        event.endSeconds = endSeconds;
+        event.endNanos = endNanos;
+        event.tagList = new ArrayList<String>(tagList);
+        event.tagIds = tagIds;
+        return event;
+    }
+    
+    /**
+     * Updates the fields of this Event to those of <code>other</code>, through
+     * their setters so that the index is notified. Fields which are already
+     * the same are left alone.
+     * 
+     * @param other     Event with the same ID
+     */
+    void updateFrom(Event other) {
+        setName(other.name);
+        if (startSeconds != other.startSeconds || startNanos != other.startNanos) {
+            setStartDate(other.getStartDate());
+        }
+        if (endSeconds != other.endSeconds || endNanos != other.endNanos) {
+            setEndDate(other.getEndDate());
+        }
+        if (!tagList.equals(other.tagList)) {
+            for (String tag : new ArrayList<String>(tagList)) {
+                removeTag(tag);
+            }
+            for (String tag : other.tagList) {
+                addTag(tag);
+            }
+        }
+    }
+    
+    /**
+     * Returns true if <code>other</code> has the same ID and fields as this Event.
+     * 
+     * @param other
+     * @return true if both Events are in the same state, false otherwise
+     */
+    boolean hasSameState(Event other) {
+        return id == other.id
+                && Objects.equals(name, other.name)
+                && startSeconds == other.startSeconds
+                && startNanos == other.startNanos
+                && endSeconds == other.endSeconds
+                && endNanos == other.endNanos
+                && tagList.equals(other.tagList);
     }
     
     /**
@@ -110,22 +246,41 @@ public class Event implements CalendarItem {
      * Seriously, why??!!
      */
     public static List<Event> where(List<Predicate<Event>> predicates) {
-        List<Event> result = TodoListDB.getInstance().getAllEvents();
+        CalendarItemQuery<Event> query = new CalendarItemQuery<Event>();
         for (Predicate<Event> predicate : predicates) {
-            filter(predicate, result);
+            query.where(predicate);
         }
+        return where(query);
+    }
+    
+    /**
+     * Runs <code>query</code> against the Events in the DB, scanning only
+     * the Events picked out by its most selective index. Results are in a
+     * stable order, even when checked in parallel.
+     * 
+     * @param query
+     * @return events which match the query
+     */
+    public static List<Event> where(CalendarItemQuery<Event> query) {
+        long start = MetricsCenter.start();
+        List<Event> result = TodoListDB.getInstance().findEvents(query);
+        MetricsCenter.getInstance().record(Stage.QUERY, start);
         return result;
     }
     
     public static Predicate<Event> predByName(String name) {
-        return (Event event) -> Pattern.compile(String.format("\\b%s", name), Pattern.CASE_INSENSITIVE)
-                .matcher(event.getName()).find();
+        Pattern pattern = Pattern.compile(String.format("\\b%s", name), Pattern.CASE_INSENSITIVE);
+        return (Event event) -> pattern.matcher(event.getName()).find();
     }
     
     public static Predicate<Event> predByNameAny(List<String> names) {
+        List<Predicate<Event>> predicates = new ArrayList<Predicate<Event>>();
+        for (String name : names) {
+            predicates.add(predByName(name));
+        }
         return (Event event) -> {
-            for (String name : names) {
-                if (predByName(name).test(event)) {
+            for (Predicate<Event> predicate : predicates) {
+                if (predicate.test(event)) {
                     return true;
                 }
             }
@@ -134,25 +289,44 @@ public class Event implements CalendarItem {
     }
     
     public static Predicate<Event> predStartBefore(LocalDateTime date) {
-        return (Event event) -> event.getStartDate().isBefore(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Event event) -> event.startSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(event.startSeconds, event.startNanos, seconds, nanos) < 0;
     }
     
     public static Predicate<Event> predStartAfter(LocalDateTime date) {
-        return (Event event) -> event.getStartDate().isAfter(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Event event) -> event.startSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(event.startSeconds, event.startNanos, seconds, nanos) > 0;
     }
     
     public static Predicate<Event> predEndBefore(LocalDateTime date) {
-        return (Event event) -> event.getEndDate().isBefore(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Event event) -> event.endSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(event.endSeconds, event.endNanos, seconds, nanos) < 0;
     }
     
     public static Predicate<Event> predEndAfter(LocalDateTime date) {
-        return (Event event) -> event.getEndDate().isAfter(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Event event) -> event.endSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(event.endSeconds, event.endNanos, seconds, nanos) > 0;
     }
     
     public static Predicate<Event> predTag(String tag) {
+        int tagId = TagDictionary.getInstance().findId(tag);
+        if (tagId == TagDictionary.NO_ID) {
+            // Only items which were never added to a DB may carry a tag the dictionary has not seen.
+            String lowerCaseTag = tag.toLowerCase();
+            return (Event event) -> event.getTagList().stream()
+                    .anyMatch(currTag -> currTag.toLowerCase().equals(lowerCaseTag));
+        }
         return (Event event) -> {
-            for (String currTag : event.getTagList()) {
-                if (currTag.toLowerCase().equals(tag.toLowerCase())) {
+            for (int currTagId : event.getTagIds()) {
+                if (currTagId == tagId) {
                     return true;
                 }
             }
@@ -160,12 +334,15 @@ public class Event implements CalendarItem {
         };
     }
     
+    /**
+     * Removes every Event in <code>eventList</code> which does not match
+     * <code>predicate</code>, in linear time.
+     * 
+     * @param predicate
+     * @param eventList
+     */
     public static void filter(Predicate<Event> predicate, List<Event> eventList) {
-        for (int i = eventList.size() - 1; i >= 0; i--) {
-            if (!predicate.test(eventList.get(i))) {
-                eventList.remove(i);
-            }
-        }
+        eventList.removeIf(predicate.negate());
     }
 
 }
@@ -0,0 +1,49 @@
+package seedu.todo.models;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// @@author agent
+/**
+ * Packs LocalDateTimes into primitive fields, so that a Task or Event holds
+ * each of its dates in a <code>long</code> and an <code>int</code>, instead
+ * of a LocalDateTime with its own LocalDate and LocalTime.<br>
+ *
+ * A datetime is packed into its seconds since the epoch, taken as if it were
+ * in UTC, and its nanoseconds, which loses nothing. Packed datetimes are
+ * compared without unpacking them, in the same order as the datetimes.
+ */
+final class PackedDateTime {
+
+    // Seconds of a missing datetime. Earlier than LocalDateTime.MIN.
+    static final long NONE = Long.MIN_VALUE;
+
+    private PackedDateTime() {
+    }
+
+    static long toSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? NONE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static int toNanos(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.getNano();
+    }
+
+    /**
+     * Unpacks a datetime, which is null if <code>seconds</code> is
+     * <code>NONE</code>.
+     */
+    static LocalDateTime toDateTime(long seconds, int nanos) {
+        return seconds == NONE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Compares two packed datetimes, as <code>LocalDateTime.compareTo</code>
+     * would compare the datetimes.
+     */
+    static int compare(long seconds, int nanos, long otherSeconds, int otherNanos) {
+        int result = Long.compare(seconds, otherSeconds);
+        return result != 0 ? result : Integer.compare(nanos, otherNanos);
+    }
+
+}
@@ -0,0 +1,86 @@
+package seedu.todo.models;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// @@author agent
+/**
+ * Dictionary of the tags used by Tasks, Events and the TodoListDB.<br>
+ *
+ * Tags are interned, so that each distinct tag is held in memory once, however
+ * many items carry it, and however many times the DB has been reloaded. Each
+ * tag is also given an ID, which it shares with every tag that differs from it
+ * only in case, so that tags are compared case-insensitively by comparing
+ * their IDs.<br>
+ *
+ * Tags are never removed from the dictionary, so IDs are stable for as long
+ * as the app runs. They are not persisted.
+ */
+final class TagDictionary {
+
+    // ID returned by findId for tags which are not in the dictionary, which no tag has.
+    static final int NO_ID = -1;
+
+    private static final TagDictionary instance = new TagDictionary();
+
+    private final ConcurrentHashMap<String, String> tags = new ConcurrentHashMap<String, String>();
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private TagDictionary() {
+    }
+
+    static TagDictionary getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the single copy of <code>tag</code> held by the dictionary.
+     *
+     * @param tag
+     * @return tag
+     */
+    String intern(String tag) {
+        String internedTag = tags.putIfAbsent(tag, tag);
+        return internedTag == null ? tag : internedTag;
+    }
+
+    /**
+     * Returns the ID of <code>tag</code>, ignoring case. Tags which are not
+     * in the dictionary yet are given a new ID.
+     *
+     * @param tag
+     * @return ID
+     */
+    int getId(String tag) {
+        return ids.computeIfAbsent(tag.toLowerCase(), key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the ID of <code>tag</code>, ignoring case, without adding it to
+     * the dictionary, for lookups which only match tags already in use.
+     *
+     * @param tag
+     * @return ID, or <code>NO_ID</code> if the tag is not in the dictionary
+     */
+    int findId(String tag) {
+        Integer id = ids.get(tag.toLowerCase());
+        return id == null ? NO_ID : id;
+    }
+
+    /**
+     * Returns the IDs of <code>tags</code>, in the same order.
+     *
+     * @param tags
+     * @return IDs
+     */
+    int[] getIds(List<String> tags) {
+        int[] tagIds = new int[tags.size()];
+        for (int i = 0; i < tagIds.length; i++) {
+            tagIds[i] = getId(tags.get(i));
+        }
+        return tagIds;
+    }
+
+}
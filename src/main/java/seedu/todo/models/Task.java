@@ -3,22 +3,60 @@ package seedu.todo.models;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
+
 // @@author A0093907W
 /**
  * Task model
  */
+@JsonPropertyOrder({ "id", "name", "dueDate", "isCompleted", "tagList" })
 public class Task implements CalendarItem {
     
+    private long id;
     private String name;
-    private LocalDateTime dueDate;
+    // Due date, packed by PackedDateTime. Persisted as "dueDate" through its getter and setter.
+    private transient long dueSeconds = PackedDateTime.NONE;
+    private transient int dueNanos;
     private boolean isCompleted = false;
     private ArrayList<String> tagList = new ArrayList<String>();
+    // TagDictionary IDs of the tags in tagList, in the same order. Not persisted.
+    private transient int[] tagIds;
+    
+    // Index of the TodoListDB which holds this Task, to be notified of changes. Not persisted.
+    private transient CalendarItemIndex<Task> index;
     
     public static final int MAX_TAG_LIST_SIZE = 20;
 
+    @Override
+    public long getId() {
+        return id;
+    }
+    
+    /**
+     * Set the ID of a Task. IDs should only ever be assigned by the TodoListDB.
+     * @param id
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+    
+    /**
+     * Set the index to notify whenever an indexed field of a Task changes.
+     * Only the TodoListDB which holds the Task should set this.
+     * @param index
+     */
+    void setIndex(CalendarItemIndex<Task> index) {
+        this.index = index;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -33,16 +71,23 @@ public class Task implements CalendarItem {
      * Get the due date of a Task.
      * @return dueDate
      */
+    @JsonProperty("dueDate")
     public LocalDateTime getDueDate() {
-        return dueDate;
+        return PackedDateTime.toDateTime(dueSeconds, dueNanos);
     }
 
     /**
      * Set the due date of a Task.
      * @param dueDate
      */
+    @JsonProperty("dueDate")
     public void setDueDate(LocalDateTime dueDate) {
-        this.dueDate = dueDate;
+        LocalDateTime oldDueDate = index == null ? null : getDueDate();
+        dueSeconds = PackedDateTime.toSeconds(dueDate);
+        dueNanos = PackedDateTime.toNanos(dueDate);
+        if (index != null) {
+            index.dateChanged(this, oldDueDate);
+        }
     }
     
     @Override
@@ -57,11 +102,7 @@ public class Task implements CalendarItem {
     
     @Override
     public boolean isOver() {
-        if (dueDate == null) {
-            return false;
-        } else {
-            return dueDate.isBefore(LocalDateTime.now());
-        }
+        return predBeforeDueDate(LocalDateTime.now()).test(this);
     }
 
     /**
@@ -77,6 +118,9 @@ public class Task implements CalendarItem {
      */
     public void setCompleted() {
         this.isCompleted = true;
+        if (index != null) {
+            index.completionChanged(this);
+        }
     }
 
     /**
@@ -84,6 +128,9 @@ public class Task implements CalendarItem {
      */
     public void setIncomplete() {
         this.isCompleted = false;
+        if (index != null) {
+            index.completionChanged(this);
+        }
     }
 
     @Override
@@ -96,7 +143,11 @@ public class Task implements CalendarItem {
     //@@author Tiong YaoCong A0139922Y
     public boolean addTag(String tagName) {
         if(tagList.size() < MAX_TAG_LIST_SIZE) {
-            tagList.add(tagName);
+            tagList.add(TagDictionary.getInstance().intern(tagName));
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+            if (index != null) {
+                index.tagAdded(this, tagName);
+            }
             return true;
         } else {
             return false;
@@ -106,10 +157,95 @@ public class Task implements CalendarItem {
     @Override
     //@@author Tiong YaoCong A0139922Y
     public boolean removeTag(String tagName) {
-        return tagList.remove(tagName);
+        boolean isRemoved = tagList.remove(tagName);
+        if (isRemoved) {
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+        }
+        if (isRemoved && index != null) {
+            index.tagRemoved(this, tagName);
+        }
+        return isRemoved;
+    }
+    
+    /**
+     * Replaces the tags of this Task with the copies held by the TagDictionary.
+     * Tags read from disk are separate copies until this is called.
+     */
+    void internTags() {
+        TagDictionary dictionary = TagDictionary.getInstance();
+        tagList.replaceAll(dictionary::intern);
+        tagIds = dictionary.getIds(tagList);
+    }
+    
+    private int[] getTagIds() {
+        if (tagIds == null) {
+            tagIds = TagDictionary.getInstance().getIds(tagList);
+        }
+        return tagIds;
     }
     
     
+    /**
+     * Returns a copy of this Task, including its ID.
+     * 
+     * @return task
+     */
+    Task copy() {
+        Task task = new Task();
+        task.id = id;
+        task.name = name;
+        task.dueSeconds = dueSeconds;
+        task.dueNanos = dueNanos;
+        task.isCompleted = isCompleted;
+        task.tagList = new ArrayList<String>(tagList);
+        task.tagIds = tagIds;
+        return task;
+    }
+    
+    /**
+     * Updates the fields of this Task to those of <code>other</code>, through
+     * their setters so that the index is notified. Fields which are already
+     * the same are left alone.
+     * 
+     * @param other     Task with the same ID
+     */
+    void updateFrom(Task other) {
+        setName(other.name);
+        if (dueSeconds != other.dueSeconds || dueNanos != other.dueNanos) {
+            setDueDate(other.getDueDate());
+        }
+        if (isCompleted != other.isCompleted) {
+            if (other.isCompleted) {
+                setCompleted();
+            } else {
+                setIncomplete();
+            }
+        }
+        if (!tagList.equals(other.tagList)) {
+            for (String tag : new ArrayList<String>(tagList)) {
+                removeTag(tag);
+            }
+            for (String tag : other.tagList) {
+                addTag(tag);
+            }
+        }
+    }
+    
+    /**
+     * Returns true if <code>other</code> has the same ID and fields as this Task.
+     * 
+     * @param other
+     * @return true if both Tasks are in the same state, false otherwise
+     */
+    boolean hasSameState(Task other) {
+        return id == other.id
+                && isCompleted == other.isCompleted
+                && Objects.equals(name, other.name)
+                && dueSeconds == other.dueSeconds
+                && dueNanos == other.dueNanos
+                && tagList.equals(other.tagList);
+    }
+    
     /**
      * @@author A0093907W
      * 
@@ -117,22 +253,41 @@ public class Task implements CalendarItem {
      * Seriously, why??!!
      */
     public static List<Task> where(List<Predicate<Task>> predicates) {
-        List<Task> result = TodoListDB.getInstance().getAllTasks();
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>();
         for (Predicate<Task> predicate : predicates) {
-            filter(predicate, result);
+            query.where(predicate);
         }
+        return where(query);
+    }
+    
+    /**
+     * Runs <code>query</code> against the Tasks in the DB, scanning only
+     * the Tasks picked out by its most selective index. Results are in a
+     * stable order, even when checked in parallel.
+     * 
+     * @param query
+     * @return tasks which match the query
+     */
+    public static List<Task> where(CalendarItemQuery<Task> query) {
+        long start = MetricsCenter.start();
+        List<Task> result = TodoListDB.getInstance().findTasks(query);
+        MetricsCenter.getInstance().record(Stage.QUERY, start);
         return result;
     }
     
     public static Predicate<Task> predByName(String name) {
-        return (Task task) -> Pattern.compile(String.format("\\b%s", name), Pattern.CASE_INSENSITIVE)
-                .matcher(task.getName()).find();
+        Pattern pattern = Pattern.compile(String.format("\\b%s", name), Pattern.CASE_INSENSITIVE);
+        return (Task task) -> pattern.matcher(task.getName()).find();
     }
     
     public static Predicate<Task> predByNameAny(List<String> names) {
+        List<Predicate<Task>> predicates = new ArrayList<Predicate<Task>>();
+        for (String name : names) {
+            predicates.add(predByName(name));
+        }
         return (Task task) -> {
-            for (String name : names) {
-                if (predByName(name).test(task)) {
+            for (Predicate<Task> predicate : predicates) {
+                if (predicate.test(task)) {
                     return true;
                 }
             }
@@ -141,11 +296,17 @@ public class Task implements CalendarItem {
     }
     
     public static Predicate<Task> predBeforeDueDate(LocalDateTime date) {
-        return (Task task) -> task.getDueDate() != null && task.getDueDate().isBefore(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Task task) -> task.dueSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(task.dueSeconds, task.dueNanos, seconds, nanos) < 0;
     }
     
     public static Predicate<Task> predAfterDueDate(LocalDateTime date) {
-        return (Task task) -> task.getDueDate() != null && task.getDueDate().isAfter(date);
+        long seconds = PackedDateTime.toSeconds(date);
+        int nanos = PackedDateTime.toNanos(date);
+        return (Task task) -> task.dueSeconds != PackedDateTime.NONE
+                && PackedDateTime.compare(task.dueSeconds, task.dueNanos, seconds, nanos) > 0;
     }
     
     public static Predicate<Task> predCompleted(boolean completed) {
@@ -153,9 +314,16 @@ public class Task implements CalendarItem {
     }
     
     public static Predicate<Task> predTag(String tag) {
+        int tagId = TagDictionary.getInstance().findId(tag);
+        if (tagId == TagDictionary.NO_ID) {
+            // Only items which were never added to a DB may carry a tag the dictionary has not seen.
+            String lowerCaseTag = tag.toLowerCase();
+            return (Task task) -> task.getTagList().stream()
+                    .anyMatch(currTag -> currTag.toLowerCase().equals(lowerCaseTag));
+        }
         return (Task task) -> {
-            for (String currTag : task.getTagList()) {
-                if (currTag.toLowerCase().equals(tag.toLowerCase())) {
+            for (int currTagId : task.getTagIds()) {
+                if (currTagId == tagId) {
                     return true;
                 }
             }
@@ -163,12 +331,15 @@ public class Task implements CalendarItem {
         };
     }
     
+    /**
+     * Removes every Task in <code>taskList</code> which does not match
+     * <code>predicate</code>, in linear time.
+     * 
+     * @param predicate
+     * @param taskList
+     */
     public static void filter(Predicate<Task> predicate, List<Task> taskList) {
-        for (int i = taskList.size() - 1; i >= 0; i--) {
-            if (!predicate.test(taskList.get(i))) {
-                taskList.remove(i);
-            }
-        }
+        taskList.removeIf(predicate.negate());
     }
 
 }
@@ -1,18 +1,38 @@
 package seedu.todo.models;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.LogsCenter;
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
 import seedu.todo.commons.exceptions.CannotRedoException;
 import seedu.todo.commons.exceptions.CannotUndoException;
-import seedu.todo.commons.util.DateUtil;
 import seedu.todo.storage.JsonStorage;
 import seedu.todo.storage.Storage;
 
@@ -24,17 +44,73 @@ import seedu.todo.storage.Storage;
  * not be working with multiple DB instances simultaneously.</li>
  * <li>Object to object dynamic references should not be expected to survive
  * serialization.</li>
+ * <li>The DB, and its items, are only ever read and changed from within
+ * <code>write</code>, which commands run in, so that work handed over by
+ * other threads never interleaves with a command.</li>
+ * <li>Changes made to the DB file by other apps or processes are merged in
+ * by <code>rebase</code>, rather than replacing the DB or being overwritten.
+ * </li>
+ * <li>Old items are moved out of the DB by <code>archive</code>, and are
+ * loaded back in when a query reaches the month they were archived for.</li>
  * </ul>
  */
 public class TodoListDB {
 
-    private static TodoListDB instance = null;
+    private static final Logger logger = LogsCenter.getLogger(TodoListDB.class);
+    
+    private static volatile TodoListDB instance = null;
+    
+    // Guards the DB across threads. Shared by every instance, as load, undo and
+    // redo replace the instance. Held by commands.
+    private static final ReentrantLock lock = new ReentrantLock();
     private static Storage storage = new JsonStorage();
     
-    private Set<Task> tasks = new LinkedHashSet<Task>();
-    private Set<Event> events = new LinkedHashSet<Event>();
+    // Declared as LinkedHashSets so that deserialization preserves insertion order.
+    // Persisted through getStoredTasks/getStoredEvents, which leave out the
+    // items loaded back from the archive.
+    private transient LinkedHashSet<Task> tasks = new LinkedHashSet<Task>();
+    private transient LinkedHashSet<Event> events = new LinkedHashSet<Event>();
     private Map<String, String> aliases = new HashMap<String, String>();
-    private Set<String> tagList = new LinkedHashSet<String>();
+    private LinkedHashSet<String> tagList = new LinkedHashSet<String>();
+    // Months with an archive shard, and the IDs of archived items which were
+    // changed or destroyed since, by the month of the shard holding their
+    // outdated copy. The next archive drops those copies.
+    private LinkedHashSet<YearMonth> archivedMonths = new LinkedHashSet<YearMonth>();
+    private LinkedHashMap<Long, YearMonth> staleArchives = new LinkedHashMap<Long, YearMonth>();
+    private long nextId = 1;
+    
+    // Index of ID -> CalendarItem. Not persisted, and rebuilt whenever the DB is reloaded.
+    private transient Map<Long, CalendarItem> itemsById = new HashMap<Long, CalendarItem>();
+    
+    // Indexes by tag, date and completion, for queries. Not persisted, and rebuilt along with itemsById.
+    private transient CalendarItemIndex<Task> taskIndex = new CalendarItemIndex<Task>(Task::isCompleted);
+    private transient CalendarItemIndex<Event> eventIndex = new CalendarItemIndex<Event>(null);
+    
+    // Unmodifiable copies of tasks, events and tagList, shared by every caller
+    // until items are created or destroyed. Null when they must be copied again.
+    private transient List<Task> tasksView;
+    private transient List<Event> eventsView;
+    private transient List<String> tagListView;
+    
+    // Lists rendered after every command, reused until the index they were
+    // built from changes, or the time they were built for has passed.
+    private transient List<Task> currentTasks;
+    private transient int currentTasksVersion;
+    private transient LocalDate currentTasksDate;
+    private transient List<Event> currentEvents;
+    private transient int currentEventsVersion;
+    private transient LocalDateTime currentEventsUntil;
+    
+    // Number of batches currently open. Saves are deferred until this drops back to 0.
+    private transient int batchDepth = 0;
+    // The DB as it was before the last outermost batch, which it is rolled back to if the batch fails.
+    private transient TodoListSnapshot batchSnapshot;
+    
+    // Months whose shard has been loaded back into the DB, and a copy of each
+    // item loaded from them, by ID. Loaded items are not persisted, as their
+    // shard still holds them, until they are changed.
+    private transient Set<YearMonth> loadedArchives = new HashSet<YearMonth>();
+    private transient Map<Long, CalendarItem> archivedItems = new HashMap<Long, CalendarItem>();
     
     protected TodoListDB() {
         // Prevent instantiation.
@@ -45,13 +121,33 @@ public class TodoListDB {
      * 
      * @return TodoListDB
      */
-    public static TodoListDB getInstance() {
+    public static synchronized TodoListDB getInstance() {
         if (instance == null) {
             instance = new TodoListDB();
         }
         return instance;
     }
     
+    /**
+     * Runs <code>command</code> with exclusive access to the DB. Every read
+     * and change of the DB or of its items must be made from within a
+     * command, so that no thread sees another's command halfway through.<br>
+     * 
+     * Commands may be nested, and may read the DB directly, including from
+     * the parallel queries they start.
+     * 
+     * @param command   Reads and changes to make to the DB
+     * @return result of the command
+     */
+    public static <T> T write(Supplier<T> command) {
+        lock.lock();
+        try {
+            return command.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     public void setStorage(Storage storageToSet) {
         storage = storageToSet;
     }
@@ -61,16 +157,22 @@ public class TodoListDB {
      * 
      */
     public void updateTagList(String tagName) {
-        tagList.add(tagName);
+        if (tagList.add(TagDictionary.getInstance().intern(tagName))) {
+            tagListView = null;
+        }
     }
     
     /**
-     * Get a list of Tags in the DB.
+     * Get a list of Tags in the DB. The list is unmodifiable, and shared by
+     * every caller until a Tag is added, so copy it to modify it.
      * 
      * @return tagList
      */
     public List<String> getTagList() {
-        return new ArrayList<String>(tagList);
+        if (tagListView == null) {
+            tagListView = Collections.unmodifiableList(new ArrayList<String>(tagList));
+        }
+        return tagListView;
     }
     
     /**
@@ -87,41 +189,75 @@ public class TodoListDB {
     }
     
     /**
-     * Get a list of Tasks in the DB.
+     * Get a list of Tasks in the DB. The list is unmodifiable, and shared by
+     * every caller until a Task is created or destroyed, so copy it to modify
+     * it.
      * 
      * @return tasks
      */
     public List<Task> getAllTasks() {
-        return new ArrayList<Task>(tasks);
+        if (tasksView == null) {
+            tasksView = Collections.unmodifiableList(new ArrayList<Task>(tasks));
+        }
+        return tasksView;
     }
 
+    /**
+     * Get the index over the Tasks in the DB, which is kept up to date as
+     * Tasks change.
+     * 
+     * @return taskIndex
+     */
+    public CalendarItemIndex<Task> getTaskIndex() {
+        return taskIndex;
+    }
+    
+    /**
+     * Streams the Tasks in the DB which match <code>query</code>, checking
+     * each Task only as the stream is consumed. The DB must not be modified
+     * until the stream has been consumed.
+     * 
+     * @param query
+     * @return tasks
+     */
+    public Stream<Task> streamTasks(CalendarItemQuery<Task> query) {
+        loadArchives(query);
+        return query.stream(tasks, taskIndex);
+    }
+    
+    /**
+     * Get the Tasks in the DB which match <code>query</code>. Large scans are
+     * checked in parallel, as set by <code>queryParallelThreshold</code>.
+     * 
+     * @param query
+     * @return tasks
+     */
+    public List<Task> findTasks(CalendarItemQuery<Task> query) {
+        loadArchives(query);
+        return query.collect(tasks, taskIndex, getQueryParallelThreshold());
+    }
     
     /**
      * Count tasks which are not marked as complete, where {@code isComplete} is false.
+     * Read from the index, in O(1) time.
      * 
      * @return Number of incomplete tasks
      */
     public int countIncompleteTasks() {
-        int count = 0;
-        for (Task task : tasks) {
-            if (!task.isCompleted()) {
-                count++;
-            }
-        }
-        return count;
+        return taskIndex.getByCompletion(false).size();
     }
     
     /**
      * Count tasks which are overdue, where {@code dueDate} is before the time now.
+     * Only the incomplete tasks in the index are checked.
      * 
      * @return Number of overdue tasks
      */
     public int countOverdueTasks() {
-        LocalDateTime now = LocalDateTime.now();
+        Predicate<Task> isOverdue = Task.predBeforeDueDate(LocalDateTime.now());
         int count = 0;
-        for (Task task : tasks) {
-            LocalDateTime dueDate = task.getDueDate();
-            if (!task.isCompleted() && dueDate != null && dueDate.compareTo(now) < 0) {
+        for (Task task : taskIndex.getByCompletion(false)) {
+            if (isOverdue.test(task)) {
                 count++;
             }
         }
@@ -129,31 +265,85 @@ public class TodoListDB {
     }
     
     /**
-     * Get a list of Events in the DB.
+     * Get a list of Events in the DB. The list is unmodifiable, and shared by
+     * every caller until an Event is created or destroyed, so copy it to
+     * modify it.
      * 
      * @return events
      */
     public List<Event> getAllEvents() {
-        return new ArrayList<Event>(events);
+        if (eventsView == null) {
+            eventsView = Collections.unmodifiableList(new ArrayList<Event>(events));
+        }
+        return eventsView;
+    }
+
+    /**
+     * Get the index over the Events in the DB, which is kept up to date as
+     * Events change.
+     * 
+     * @return eventIndex
+     */
+    public CalendarItemIndex<Event> getEventIndex() {
+        return eventIndex;
+    }
+    
+    /**
+     * Streams the Events in the DB which match <code>query</code>, checking
+     * each Event only as the stream is consumed. The DB must not be modified
+     * until the stream has been consumed.
+     * 
+     * @param query
+     * @return events
+     */
+    public Stream<Event> streamEvents(CalendarItemQuery<Event> query) {
+        loadArchives(query);
+        return query.stream(events, eventIndex);
+    }
+    
+    /**
+     * Get the Events in the DB which match <code>query</code>. Large scans are
+     * checked in parallel, as set by <code>queryParallelThreshold</code>.
+     * 
+     * @param query
+     * @return events
+     */
+    public List<Event> findEvents(CalendarItemQuery<Event> query) {
+        loadArchives(query);
+        return query.collect(events, eventIndex, getQueryParallelThreshold());
     }
 
     /**
      * Count events which are in the future, where {@code startDate} is after the time now.
+     * Counted from the index by date.
      * 
      * @return Number of future events
      */
     public int countFutureEvents() {
         LocalDateTime now = LocalDateTime.now();
-        int count = 0;
-        for (Event event : events) {
-            LocalDateTime startDate = event.getStartDate();
-            if (startDate != null && startDate.compareTo(now) >= 0) {
-                count++;
+        LocalDate today = now.toLocalDate();
+        // Only Events starting today have to be checked.
+        int count = eventIndex.countDated(today.plusDays(1), null);
+        for (NavigableSet<Event> eventsToday : eventIndex.getDated(today, today).values()) {
+            for (Event event : eventsToday) {
+                if (event.getStartDate().compareTo(now) >= 0) {
+                    count++;
+                }
             }
         }
         return count;
     }
     
+    /**
+     * Get a Task or Event in the DB by its ID, in O(1) time.
+     * 
+     * @param id    ID of the CalendarItem
+     * @return CalendarItem if found, null otherwise
+     */
+    public CalendarItem getCalendarItemById(long id) {
+        return itemsById.get(id);
+    }
+    
     /**
      * Create a new Task in the DB and return it.<br>
      * <i>The new record is not persisted until <code>save</code> is explicitly
@@ -163,7 +353,12 @@ public class TodoListDB {
      */
     public Task createTask() {
         Task task = new Task();
+        task.setId(nextId++);
         tasks.add(task);
+        tasksView = null;
+        itemsById.put(task.getId(), task);
+        taskIndex.add(task);
+        task.setIndex(taskIndex);
         return task;
     }
     
@@ -174,7 +369,12 @@ public class TodoListDB {
      * @return true if the save was successful, false otherwise
      */
     public boolean destroyTask(Task task) {
-        tasks.remove(task);
+        if (tasks.remove(task)) {
+            tasksView = null;
+            itemsById.remove(task.getId());
+            taskIndex.remove(task);
+            task.setIndex(null);
+        }
         return save();
     }
     
@@ -184,7 +384,15 @@ public class TodoListDB {
      * @param tasks Tasks to remove
      */
     public void destroyTasks(List<Task> clearTasks) {
-        tasks.removeAll(clearTasks);
+        // Removed one at a time, as Set.removeAll calls List.contains for every Task in the DB.
+        for (Task task : clearTasks) {
+            if (tasks.remove(task)) {
+                tasksView = null;
+                itemsById.remove(task.getId());
+                taskIndex.remove(task);
+                task.setIndex(null);
+            }
+        }
     }
     
     /**
@@ -198,7 +406,12 @@ public class TodoListDB {
      */
     public Event createEvent() {
         Event event = new Event();
+        event.setId(nextId++);
         events.add(event);
+        eventsView = null;
+        itemsById.put(event.getId(), event);
+        eventIndex.add(event);
+        event.setIndex(eventIndex);
         return event;
     }
     
@@ -209,7 +422,12 @@ public class TodoListDB {
      * @return true if the save was successful, false otherwise
      */
     public boolean destroyEvent(Event event) {
-        events.remove(event);
+        if (events.remove(event)) {
+            eventsView = null;
+            itemsById.remove(event.getId());
+            eventIndex.remove(event);
+            event.setIndex(null);
+        }
         return save();
     }
     
@@ -219,25 +437,110 @@ public class TodoListDB {
      * @param tasks Tasks to remove
      */
     public void destroyEvents(List<Event> clearEvents) {
-        events.removeAll(clearEvents);
+        // Removed one at a time, as Set.removeAll calls List.contains for every Event in the DB.
+        for (Event event : clearEvents) {
+            if (events.remove(event)) {
+                eventsView = null;
+                itemsById.remove(event.getId());
+                eventIndex.remove(event);
+                event.setIndex(null);
+            }
+        }
     }
     
     /**
      * @@author A0093907W
      * 
-     * Explicitly persists the database to disk.
+     * Explicitly persists the database to disk.<br>
+     * <i>If called from within a <code>batch</code>, the save is deferred
+     * until the outermost batch commits.</i>
      * 
      * @return true if the save was successful, false otherwise
      */
     public boolean save() {
+        return save(false);
+    }
+    
+    /**
+     * Persists the database to disk, as a commit of its own, or as part of
+     * the newest commit if <code>isAmend</code>, so that it is not an undo
+     * step of its own.
+     * 
+     * @return true if the save was successful, false otherwise
+     */
+    private boolean save(boolean isAmend) {
+        if (batchDepth > 0) {
+            return true;
+        }
+        markChangedArchives();
+        long start = MetricsCenter.start();
         try {
-            storage.save(this);
+            if (isAmend) {
+                storage.amend(this);
+            } else {
+                storage.save(this);
+            }
             return true;
         } catch (IOException e) {
             return false;
+        } finally {
+            MetricsCenter.getInstance().record(Stage.SAVE, start);
         }
     }
     
+    /**
+     * Runs <code>transaction</code> against the DB and commits all of its
+     * changes with a single save, so that they are persisted once and can be
+     * rolled back with a single undo.<br>
+     * 
+     * Any <code>save</code> called within the transaction (including those
+     * made by <code>destroyTask</code>/<code>destroyEvent</code>) is deferred
+     * until the outermost batch commits. Batches may be nested.<br>
+     * 
+     * If the transaction throws, or the commit cannot be saved, the DB is
+     * rolled back to where it was before the outermost batch, so that it is
+     * either changed as a whole or not at all.
+     * 
+     * @param transaction   Changes to apply to the DB
+     * @return true if the commit was successful, false otherwise
+     */
+    public boolean batch(Consumer<TodoListDB> transaction) {
+        return batch(transaction, false);
+    }
+    
+    /**
+     * Runs <code>transaction</code> as <code>batch</code> does, committing
+     * it as part of the newest commit if <code>isAmend</code>.
+     */
+    private boolean batch(Consumer<TodoListDB> transaction, boolean isAmend) {
+        if (batchDepth > 0) {
+            batchDepth++;
+            try {
+                transaction.accept(this);
+            } finally {
+                batchDepth--;
+            }
+            return true;
+        }
+        
+        // Shares unchanged items with the previous batch, so only the items changed since are copied.
+        batchSnapshot = snapshot(batchSnapshot);
+        batchDepth++;
+        try {
+            transaction.accept(this);
+        } catch (RuntimeException e) {
+            batchSnapshot.restoreTo(this);
+            throw e;
+        } finally {
+            batchDepth--;
+        }
+        if (!save(isAmend)) {
+            batchSnapshot.restoreTo(this);
+            return false;
+        }
+        return true;
+    }
+    
     /**
      * Explicitly reloads the database from disk.
      * 
@@ -246,16 +549,569 @@ public class TodoListDB {
     public boolean load() {
         try {
             instance = storage.load();
+            instance.reindex(0);
             return true;
         } catch (IOException e) {
             return false;
         }
     }
     
+    /**
+     * Reads and parses the DB file if it was changed by another app or
+     * process since it was last loaded or saved, and keeps it for the next
+     * <code>sync</code>. This DB is not changed. May be called from any
+     * thread, so that the file is not parsed on the thread running commands.
+     * 
+     * @return true if the DB file was changed, false otherwise
+     * @throws IOException  If the DB file cannot be read or parsed.
+     */
+    public boolean loadIfChanged() throws IOException {
+        return storage.loadIfChanged();
+    }
+    
+    /**
+     * Merges the changes made to the DB file by other apps or processes into
+     * the DB, as by <code>rebase</code>, and persists the result. The changes
+     * are committed separately from the DB's own, so that they can be undone.
+     * 
+     * @return true if the DB was changed, false otherwise
+     */
+    public boolean sync() {
+        long start = MetricsCenter.start();
+        try {
+            return storage.sync(this);
+        } catch (IOException e) {
+            return false;
+        } finally {
+            MetricsCenter.getInstance().record(Stage.SAVE, start);
+        }
+    }
+    
+    /**
+     * Merges <code>changes</code>, the DB as changed by another app or
+     * process, into this DB, matching items by ID. Only what the other side
+     * changed since <code>base</code> is merged, and where both sides changed
+     * the same item, this DB's change is kept. If <code>base</code> is null,
+     * everything which differs is taken from <code>changes</code>.<br>
+     * 
+     * Items are updated in place, so that they keep their display indexes.
+     * Items which both sides created with the same ID are both kept, with
+     * the other side's given a new ID. The DB is not saved.
+     * 
+     * @param changes   DB as changed by the other side, whose items may be
+     *                  moved into this DB
+     * @param base      DB as both sides last saw it, or null
+     * @return true if anything was changed, false otherwise
+     */
+    public boolean rebase(TodoListDB changes, TodoListDB base) {
+        Map<Long, CalendarItem> changedById = new HashMap<Long, CalendarItem>();
+        long maxId = 0;
+        for (Task task : changes.tasks) {
+            changedById.putIfAbsent(task.getId(), task);
+            maxId = Math.max(maxId, task.getId());
+        }
+        for (Event event : changes.events) {
+            changedById.putIfAbsent(event.getId(), event);
+            maxId = Math.max(maxId, event.getId());
+        }
+        Map<Long, CalendarItem> baseById = base == null ? null : base.indexById();
+        nextId = Math.max(Math.max(nextId, changes.nextId), maxId + 1);
+        
+        // Items destroyed by the other side, or replaced by the other kind of item
+        List<Task> goneTasks = new ArrayList<Task>();
+        Set<Long> replacedIds = new HashSet<Long>();
+        for (Task task : tasks) {
+            CalendarItem changed = changedById.get(task.getId());
+            if (!(changed instanceof Task) && !isArchived(task) && isTheirs(task, changed, baseById)) {
+                goneTasks.add(task);
+                if (changed != null) {
+                    replacedIds.add(task.getId());
+                }
+            }
+        }
+        List<Event> goneEvents = new ArrayList<Event>();
+        for (Event event : events) {
+            CalendarItem changed = changedById.get(event.getId());
+            if (!(changed instanceof Event) && !isArchived(event) && isTheirs(event, changed, baseById)) {
+                goneEvents.add(event);
+                if (changed != null) {
+                    replacedIds.add(event.getId());
+                }
+            }
+        }
+        destroyTasks(goneTasks);
+        destroyEvents(goneEvents);
+        boolean isChanged = !goneTasks.isEmpty() || !goneEvents.isEmpty();
+        
+        // In the other side's order, followed by items only this DB has
+        LinkedHashSet<Task> mergedTasks = new LinkedHashSet<Task>();
+        for (Task changedTask : changes.tasks) {
+            CalendarItem item = itemsById.get(changedTask.getId());
+            if (changedById.get(changedTask.getId()) != changedTask) {
+                // Duplicate ID
+                mergedTasks.add(adoptTask(changedTask));
+                isChanged = true;
+            } else if (item == null) {
+                if (replacedIds.contains(changedTask.getId()) || isTheirs(null, changedTask, baseById)) {
+                    mergedTasks.add(adoptTask(changedTask));
+                    isChanged = true;
+                }
+            } else if (item instanceof Task && isTheirs(item, changedTask, baseById)) {
+                ((Task) item).updateFrom(changedTask);
+                mergedTasks.add((Task) item);
+                isChanged = true;
+            } else if (isCreatedByBoth(item, changedTask, baseById)) {
+                mergedTasks.add(adoptTask(changedTask));
+                isChanged = true;
+            } else if (item instanceof Task) {
+                mergedTasks.add((Task) item);
+            }
+        }
+        mergedTasks.addAll(tasks);
+        tasks = mergedTasks;
+        tasksView = null;
+        
+        LinkedHashSet<Event> mergedEvents = new LinkedHashSet<Event>();
+        for (Event changedEvent : changes.events) {
+            CalendarItem item = itemsById.get(changedEvent.getId());
+            if (changedById.get(changedEvent.getId()) != changedEvent) {
+                // Duplicate ID
+                mergedEvents.add(adoptEvent(changedEvent));
+                isChanged = true;
+            } else if (item == null) {
+                if (replacedIds.contains(changedEvent.getId()) || isTheirs(null, changedEvent, baseById)) {
+                    mergedEvents.add(adoptEvent(changedEvent));
+                    isChanged = true;
+                }
+            } else if (item instanceof Event && isTheirs(item, changedEvent, baseById)) {
+                ((Event) item).updateFrom(changedEvent);
+                mergedEvents.add((Event) item);
+                isChanged = true;
+            } else if (isCreatedByBoth(item, changedEvent, baseById)) {
+                mergedEvents.add(adoptEvent(changedEvent));
+                isChanged = true;
+            } else if (item instanceof Event) {
+                mergedEvents.add((Event) item);
+            }
+        }
+        mergedEvents.addAll(events);
+        events = mergedEvents;
+        eventsView = null;
+        
+        Set<String> aliasKeys = new HashSet<String>(aliases.keySet());
+        aliasKeys.addAll(changes.aliases.keySet());
+        if (base != null) {
+            aliasKeys.addAll(base.aliases.keySet());
+        }
+        for (String key : aliasKeys) {
+            String alias = aliases.get(key);
+            String changedAlias = changes.aliases.get(key);
+            boolean isTheirs = base == null ? !Objects.equals(alias, changedAlias)
+                    : !Objects.equals(changedAlias, base.aliases.get(key)) && Objects.equals(alias, base.aliases.get(key));
+            if (isTheirs) {
+                if (changedAlias == null) {
+                    aliases.remove(key);
+                } else {
+                    aliases.put(key, changedAlias);
+                }
+                isChanged = true;
+            }
+        }
+        
+        LinkedHashSet<String> mergedTagList = new LinkedHashSet<String>(base == null ? changes.tagList : tagList);
+        if (base != null) {
+            mergedTagList.addAll(changes.tagList);
+            for (String tag : base.tagList) {
+                if (!changes.tagList.contains(tag)) {
+                    mergedTagList.remove(tag);
+                }
+            }
+        }
+        if (!mergedTagList.equals(tagList)) {
+            tagList = new LinkedHashSet<String>();
+            for (String tag : mergedTagList) {
+                tagList.add(TagDictionary.getInstance().intern(tag));
+            }
+            tagListView = null;
+            isChanged = true;
+        }
+        
+        LinkedHashSet<YearMonth> mergedArchivedMonths = rebaseSet(archivedMonths, changes.archivedMonths,
+                base == null ? null : base.archivedMonths);
+        LinkedHashMap<Long, YearMonth> mergedStaleArchives = new LinkedHashMap<Long, YearMonth>();
+        for (Long id : rebaseSet(staleArchives.keySet(), changes.staleArchives.keySet(),
+                base == null ? null : base.staleArchives.keySet())) {
+            YearMonth month = staleArchives.get(id);
+            mergedStaleArchives.put(id, month != null ? month : changes.staleArchives.get(id));
+        }
+        if (!mergedArchivedMonths.equals(archivedMonths) || !mergedStaleArchives.equals(staleArchives)) {
+            archivedMonths = mergedArchivedMonths;
+            staleArchives = mergedStaleArchives;
+            isChanged = true;
+        }
+        
+        return isChanged;
+    }
+    
+    /**
+     * Merges the other side's <code>changed</code> elements into
+     * <code>elements</code>, keeping the elements either side added since
+     * <code>base</code>, which may be null, and dropping those either side
+     * removed.
+     */
+    private static <T> LinkedHashSet<T> rebaseSet(Set<T> elements, Set<T> changed, Set<T> base) {
+        LinkedHashSet<T> merged = new LinkedHashSet<T>(base == null ? changed : elements);
+        if (base != null) {
+            merged.addAll(changed);
+            for (T element : base) {
+                if (!changed.contains(element)) {
+                    merged.remove(element);
+                }
+            }
+        }
+        return merged;
+    }
+    
+    /**
+     * Returns true if <code>rebase</code> should take the other side's
+     * <code>changed</code> item over this DB's <code>item</code>, either of
+     * which may be null: if the other side changed it since the base, and
+     * this DB did not.
+     */
+    private static boolean isTheirs(CalendarItem item, CalendarItem changed, Map<Long, CalendarItem> baseById) {
+        if (baseById == null) {
+            return !hasSameState(item, changed);
+        }
+        CalendarItem baseItem = baseById.get(item != null ? item.getId() : changed.getId());
+        return !hasSameState(changed, baseItem) && hasSameState(item, baseItem);
+    }
+    
+    /**
+     * Returns true if <code>item</code> and <code>changed</code> are different
+     * items, which were created by each side with the same ID.
+     */
+    private static boolean isCreatedByBoth(CalendarItem item, CalendarItem changed,
+            Map<Long, CalendarItem> baseById) {
+        return (baseById == null ? !item.getClass().equals(changed.getClass())
+                : !baseById.containsKey(item.getId())) && !hasSameState(item, changed);
+    }
+    
+    private static boolean hasSameState(CalendarItem item, CalendarItem other) {
+        if (item == null || other == null) {
+            return item == other;
+        }
+        if (item instanceof Task && other instanceof Task) {
+            return ((Task) item).hasSameState((Task) other);
+        }
+        if (item instanceof Event && other instanceof Event) {
+            return ((Event) item).hasSameState((Event) other);
+        }
+        return false;
+    }
+    
+    /**
+     * Adds a Task from another DB to this DB, giving it a new ID if its ID is
+     * already taken.
+     */
+    private Task adoptTask(Task task) {
+        if (task.getId() <= 0 || itemsById.containsKey(task.getId())) {
+            task.setId(nextId++);
+        }
+        task.internTags();
+        itemsById.put(task.getId(), task);
+        taskIndex.add(task);
+        task.setIndex(taskIndex);
+        return task;
+    }
+    
+    /**
+     * Adds an Event from another DB to this DB, giving it a new ID if its ID
+     * is already taken.
+     */
+    private Event adoptEvent(Event event) {
+        if (event.getId() <= 0 || itemsById.containsKey(event.getId())) {
+            event.setId(nextId++);
+        }
+        event.internTags();
+        itemsById.put(event.getId(), event);
+        eventIndex.add(event);
+        event.setIndex(eventIndex);
+        return event;
+    }
+    
+    /**
+     * Returns the items of a DB which has not been reindexed, by ID.
+     */
+    private Map<Long, CalendarItem> indexById() {
+        Map<Long, CalendarItem> byId = new HashMap<Long, CalendarItem>();
+        for (Task task : tasks) {
+            byId.putIfAbsent(task.getId(), task);
+        }
+        for (Event event : events) {
+            byId.putIfAbsent(event.getId(), event);
+        }
+        return byId;
+    }
+    
+    /**
+     * Moves the Tasks completed, and the Events over, before
+     * <code>cutoff</code> out of the DB, into the archive shard for the month
+     * of their calendar datetime, and persists them as part of the newest
+     * commit, as archiving is not an undo step of its own. Tasks without a
+     * due date are never archived.<br>
+     * 
+     * Items loaded back from the archive are left in their shard unless they
+     * were changed. Shards keep their items, except those which were changed
+     * or destroyed since they were archived, which the shards holding them
+     * are rewritten without. Shards on disk which the DB has no record of,
+     * e.g. as archiving them was undone, are replaced, as the DB holds all of
+     * their items. If a shard cannot be read or written, nothing is taken
+     * out of the DB.
+     * 
+     * @param cutoff    Items completed or over before this are archived
+     * @return number of items archived
+     */
+    public int archive(LocalDateTime cutoff) {
+        markChangedArchives();
+        List<Task> archivedTasks = new ArrayList<Task>();
+        for (NavigableSet<Task> tasksOnDate : taskIndex.getDated(null, cutoff.toLocalDate()).values()) {
+            for (Task task : tasksOnDate) {
+                if (task.isCompleted() && task.getDueDate().isBefore(cutoff) && !isArchived(task)) {
+                    archivedTasks.add(task);
+                }
+            }
+        }
+        List<Event> archivedEvents = new ArrayList<Event>();
+        Predicate<Event> isOver = Event.predEndBefore(cutoff);
+        for (NavigableSet<Event> eventsOnDate : eventIndex.getDated(null, cutoff.toLocalDate()).values()) {
+            for (Event event : eventsOnDate) {
+                if (isOver.test(event) && !isArchived(event)) {
+                    archivedEvents.add(event);
+                }
+            }
+        }
+        if (archivedTasks.isEmpty() && archivedEvents.isEmpty() && staleArchives.isEmpty()) {
+            return 0;
+        }
+        
+        Map<YearMonth, ArchiveShard> shards = new TreeMap<YearMonth, ArchiveShard>();
+        try {
+            for (YearMonth month : staleArchives.values()) {
+                getShard(shards, month);
+            }
+            for (Task task : archivedTasks) {
+                getShard(shards, YearMonth.from(task.getCalendarDateTime())).getTasks().add(task);
+            }
+            for (Event event : archivedEvents) {
+                getShard(shards, YearMonth.from(event.getCalendarDateTime())).getEvents().add(event);
+            }
+            for (Map.Entry<YearMonth, ArchiveShard> entry : shards.entrySet()) {
+                entry.getValue().getTasks().sort(CalendarItemIndex.ID_ORDER);
+                entry.getValue().getEvents().sort(CalendarItemIndex.ID_ORDER);
+                storage.saveArchive(entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            logger.warning("Could not archive old items: " + e.getMessage());
+            return 0;
+        }
+        
+        boolean hadSaved = batch(db -> {
+            destroyTasks(archivedTasks);
+            destroyEvents(archivedEvents);
+            for (Map.Entry<YearMonth, ArchiveShard> entry : shards.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    archivedMonths.remove(entry.getKey());
+                } else {
+                    archivedMonths.add(entry.getKey());
+                }
+            }
+            staleArchives.clear();
+        }, true);
+        if (!hadSaved) {
+            logger.warning("Could not save the DB once old items were archived");
+            return 0;
+        }
+        // Shards which were rewritten are loaded again by the queries which reach them.
+        loadedArchives.removeAll(shards.keySet());
+        return archivedTasks.size() + archivedEvents.size();
+    }
+    
+    /**
+     * Archives the items completed or over more than
+     * <code>archiveAfterDays</code> ago, as set in the config, unless it is
+     * 0.
+     * 
+     * @return number of items archived
+     */
+    public int archiveExpired() {
+        int days = ConfigCenter.getInstance().getConfig().getArchiveAfterDays();
+        return days == 0 ? 0 : archive(LocalDateTime.now().minusDays(days));
+    }
+    
+    /**
+     * Returns the shard of <code>month</code> which <code>archive</code> is
+     * writing, starting from the one on disk without the items which are
+     * stale, or held by the DB other than as loaded from the archive.
+     */
+    private ArchiveShard getShard(Map<YearMonth, ArchiveShard> shards, YearMonth month) throws IOException {
+        ArchiveShard shard = shards.get(month);
+        if (shard != null) {
+            return shard;
+        }
+        shard = new ArchiveShard();
+        if (archivedMonths.contains(month)) {
+            ArchiveShard oldShard = storage.loadArchive(month);
+            for (Task task : oldShard.getTasks()) {
+                if (isKeptInArchive(task)) {
+                    shard.getTasks().add(task);
+                }
+            }
+            for (Event event : oldShard.getEvents()) {
+                if (isKeptInArchive(event)) {
+                    shard.getEvents().add(event);
+                }
+            }
+        }
+        shards.put(month, shard);
+        return shard;
+    }
+    
+    /**
+     * Returns true if the copy of <code>archivedItem</code> in its shard is
+     * still the latest one.
+     */
+    private boolean isKeptInArchive(CalendarItem archivedItem) {
+        if (staleArchives.containsKey(archivedItem.getId())) {
+            return false;
+        }
+        CalendarItem item = itemsById.get(archivedItem.getId());
+        return item == null || isArchived(item);
+    }
+    
+    /**
+     * Returns true if <code>item</code> was loaded back from the archive, and
+     * is unchanged since, so that it is only persisted in its shard.
+     */
+    private boolean isArchived(CalendarItem item) {
+        if (archivedItems.isEmpty()) {
+            return false;
+        }
+        CalendarItem archivedItem = archivedItems.get(item.getId());
+        return archivedItem != null && hasSameState(archivedItem, item);
+    }
+    
+    /**
+     * Records the items loaded back from the archive which were changed or
+     * destroyed since as stale, so that the DB persists them from now on,
+     * and the next archive drops their copy from the shard.
+     */
+    private void markChangedArchives() {
+        Iterator<Map.Entry<Long, CalendarItem>> entries = archivedItems.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, CalendarItem> entry = entries.next();
+            CalendarItem item = itemsById.get(entry.getKey());
+            if (item == null || !hasSameState(entry.getValue(), item)) {
+                staleArchives.put(entry.getKey(), YearMonth.from(entry.getValue().getCalendarDateTime()));
+                entries.remove();
+            }
+        }
+    }
+    
+    /**
+     * Loads the archive shards which <code>query</code> may reach back into
+     * the DB, unless they were loaded already, so that queries find archived
+     * items as if they had never left. Items which the DB already holds a
+     * copy of, or which are stale, are skipped. Loaded items are kept out of
+     * what the DB persists, as their shard still holds them, until they are
+     * changed.
+     */
+    private void loadArchives(CalendarItemQuery<?> query) {
+        for (YearMonth month : archivedMonths) {
+            if (loadedArchives.contains(month) || !query.mayMatchArchive(month)) {
+                continue;
+            }
+            ArchiveShard shard;
+            try {
+                shard = storage.loadArchive(month);
+            } catch (IOException e) {
+                logger.warning(String.format("Could not load the archive for %s: %s", month, e.getMessage()));
+                continue;
+            }
+            for (Task task : shard.getTasks()) {
+                if (!itemsById.containsKey(task.getId()) && !staleArchives.containsKey(task.getId())) {
+                    nextId = Math.max(nextId, task.getId() + 1);
+                    tasks.add(adoptTask(task));
+                    archivedItems.put(task.getId(), task.copy());
+                    tasksView = null;
+                }
+            }
+            for (Event event : shard.getEvents()) {
+                if (!itemsById.containsKey(event.getId()) && !staleArchives.containsKey(event.getId())) {
+                    nextId = Math.max(nextId, event.getId() + 1);
+                    events.add(adoptEvent(event));
+                    archivedItems.put(event.getId(), event.copy());
+                    eventsView = null;
+                }
+            }
+            loadedArchives.add(month);
+        }
+    }
+    
+    /**
+     * Returns <code>items</code> without those loaded back from the archive
+     * and unchanged since, which are persisted in their shard instead.
+     */
+    private <T extends CalendarItem> Collection<T> getStored(LinkedHashSet<T> items) {
+        if (archivedItems.isEmpty()) {
+            return items;
+        }
+        List<T> storedItems = new ArrayList<T>(items.size());
+        for (T item : items) {
+            if (!isArchived(item)) {
+                storedItems.add(item);
+            }
+        }
+        return storedItems;
+    }
+    
+    @JsonProperty("tasks")
+    private Collection<Task> getStoredTasks() {
+        return getStored(tasks);
+    }
+    
+    @JsonProperty("tasks")
+    private void setStoredTasks(LinkedHashSet<Task> storedTasks) {
+        tasks = storedTasks;
+    }
+    
+    @JsonProperty("events")
+    private Collection<Event> getStoredEvents() {
+        return getStored(events);
+    }
+    
+    @JsonProperty("events")
+    private void setStoredEvents(LinkedHashSet<Event> storedEvents) {
+        events = storedEvents;
+    }
+    
     public void move(String newPath) throws IOException {
         storage.move(newPath);
     }
     
+    /**
+     * Blocks until all pending writes to disk have completed.
+     * 
+     * @return true if all pending writes were successful, false otherwise
+     */
+    public boolean flush() {
+        try {
+            storage.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
     /**
      * Returns the maximum possible number of undos.
      * 
@@ -265,6 +1121,16 @@ public class TodoListDB {
         return storage.undoSize();
     }
     
+    /**
+     * Returns the estimated number of bytes of memory used to hold undo/redo
+     * information.
+     * 
+     * @return undoMemoryUsage
+     */
+    public long undoMemoryUsage() {
+        return storage.undoMemoryUsage();
+    }
+    
     /**
      * Rolls back the DB by one commit.
      * 
@@ -273,6 +1139,7 @@ public class TodoListDB {
     public boolean undo() {
         try {
             instance = storage.undo();
+            instance.reindex(nextId);
             return true;
         } catch (CannotUndoException | IOException e) {
             return false;
@@ -296,51 +1163,177 @@ public class TodoListDB {
     public boolean redo() {
         try {
             instance = storage.redo();
+            instance.reindex(nextId);
             return true;
         } catch (CannotRedoException | IOException e) {
             return false;
         }
     }
     
+    /**
+     * Takes an immutable snapshot of the DB, sharing unchanged items with
+     * <code>previous</code>.
+     * 
+     * @param previous  Previous snapshot of this DB, or null
+     * @return snapshot
+     */
+    TodoListSnapshot snapshot(TodoListSnapshot previous) {
+        return new TodoListSnapshot(getStored(tasks), getStored(events), aliases, tagList, archivedMonths,
+                staleArchives, nextId, previous);
+    }
+    
+    /**
+     * Replaces the contents of the DB with those of a snapshot, and rebuilds
+     * the ID index. Snapshots leave out the items loaded back from the
+     * archive, so those are loaded again by the queries which reach them.
+     */
+    void restore(List<Task> restoredTasks, List<Event> restoredEvents, Map<String, String> restoredAliases,
+            List<String> restoredTagList, List<YearMonth> restoredArchivedMonths,
+            Map<Long, YearMonth> restoredStaleArchives, long restoredNextId) {
+        tasks = new LinkedHashSet<Task>(restoredTasks);
+        events = new LinkedHashSet<Event>(restoredEvents);
+        aliases = new HashMap<String, String>(restoredAliases);
+        tagList = new LinkedHashSet<String>(restoredTagList);
+        archivedMonths = new LinkedHashSet<YearMonth>(restoredArchivedMonths);
+        staleArchives = new LinkedHashMap<Long, YearMonth>(restoredStaleArchives);
+        loadedArchives.clear();
+        archivedItems.clear();
+        nextId = restoredNextId;
+        reindex(restoredNextId);
+    }
+    
+    /**
+     * Returns the number of items a query must check before they are checked
+     * in parallel, or 0 if there is only one core to check them on.
+     */
+    private static int getQueryParallelThreshold() {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            return 0;
+        }
+        return ConfigCenter.getInstance().getConfig().getQueryParallelThreshold();
+    }
+    
+    /**
+     * Rebuilds the ID index, and the indexes used by queries, after the DB
+     * has been deserialized. Tags are interned in the TagDictionary.<br>
+     * 
+     * Items without an ID (e.g. from databases saved before IDs were
+     * introduced) or with a duplicate ID are assigned a new one, so that IDs
+     * are always unique within the DB.
+     * 
+     * @param minNextId     Lower bound for the next ID to be assigned, so that
+     *                      IDs are never reused even when rolling back the DB.
+     */
+    private void reindex(long minNextId) {
+        itemsById.clear();
+        tasksView = null;
+        eventsView = null;
+        tagListView = null;
+        
+        long maxId = 0;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        for (Event event : events) {
+            maxId = Math.max(maxId, event.getId());
+        }
+        nextId = Math.max(Math.max(nextId, minNextId), maxId + 1);
+        
+        for (Task task : tasks) {
+            if (task.getId() <= 0 || itemsById.containsKey(task.getId())) {
+                task.setId(nextId++);
+            }
+            itemsById.put(task.getId(), task);
+        }
+        for (Event event : events) {
+            if (event.getId() <= 0 || itemsById.containsKey(event.getId())) {
+                event.setId(nextId++);
+            }
+            itemsById.put(event.getId(), event);
+        }
+        
+        TagDictionary dictionary = TagDictionary.getInstance();
+        LinkedHashSet<String> internedTagList = new LinkedHashSet<String>();
+        for (String tag : tagList) {
+            internedTagList.add(dictionary.intern(tag));
+        }
+        tagList = internedTagList;
+        
+        // IDs must be final before items are indexed, as the indexes are kept in ID order.
+        taskIndex.clear();
+        for (Task task : tasks) {
+            task.internTags();
+            taskIndex.add(task);
+            task.setIndex(taskIndex);
+        }
+        eventIndex.clear();
+        for (Event event : events) {
+            event.internTags();
+            eventIndex.add(event);
+            event.setIndex(eventIndex);
+        }
+    }
+    
     /**
      * Get a list of events that are not over based on today date from the DB.
+     * The list is unmodifiable, and is reused until an Event changes or the
+     * first of the Events in it is over.
      * 
      * @return events
      * @@author Tiong YaoCong A0139922Y
      */   
     public List<Event> getAllCurrentEvents() {
-        ArrayList<Event> currentEvents = new ArrayList<Event>();
-        Iterator<Event> iterator = events.iterator();
-        while (iterator.hasNext()) {
-            Event currEvent = iterator.next();
-            if (!currEvent.isOver()) {
-                currentEvents.add(currEvent);
+        long start = MetricsCenter.start();
+        LocalDateTime now = LocalDateTime.now();
+        if (currentEvents == null || currentEventsVersion != eventIndex.getVersion()
+                || (currentEventsUntil != null && now.isAfter(currentEventsUntil))) {
+            ArrayList<Event> results = new ArrayList<Event>();
+            LocalDateTime until = null;
+            for (Event event : events) {
+                if (!event.isOver()) {
+                    results.add(event);
+                    LocalDateTime endDate = event.getEndDate();
+                    if (endDate != null && (until == null || endDate.isBefore(until))) {
+                        until = endDate;
+                    }
+                }
             }
+            currentEvents = Collections.unmodifiableList(results);
+            currentEventsVersion = eventIndex.getVersion();
+            currentEventsUntil = until;
         }
+        MetricsCenter.getInstance().record(Stage.QUERY, start);
         return currentEvents;
     }
     
     /**
-     * Get a list of Incomplete Tasks in the DB.
+     * Get a list of Incomplete Tasks, and Tasks due from today, in the DB.
+     * They are read from the index, and the list is unmodifiable, and reused
+     * until a Task changes or the day is over.
      * 
      * @return tasks
      * @@author Tiong YaoCong A0139922Y
      */
     public List<Task> getIncompleteTasksAndTaskFromTodayDate() {
-        ArrayList<Task> incompleteTasks = new ArrayList<Task>();
-        Iterator<Task> iterator = tasks.iterator();
-        LocalDateTime todayDate = DateUtil.floorDate(LocalDateTime.now());
-        while (iterator.hasNext()) {
-            Task currTask = iterator.next();
-            if (!currTask.isCompleted()) { //if incompleted
-                incompleteTasks.add(currTask);
-            } else {
-                if (currTask.getDueDate() != null && DateUtil.floorDate(currTask.getDueDate()).compareTo(todayDate) >= 0) {
-                    incompleteTasks.add(currTask);
+        long start = MetricsCenter.start();
+        LocalDate today = LocalDate.now();
+        if (currentTasks == null || currentTasksVersion != taskIndex.getVersion() || !today.equals(currentTasksDate)) {
+            ArrayList<Task> results = new ArrayList<Task>(taskIndex.getByCompletion(false));
+            for (NavigableSet<Task> tasksOnDate : taskIndex.getDated(today, null).values()) {
+                for (Task task : tasksOnDate) {
+                    if (task.isCompleted()) {
+                        results.add(task);
+                    }
                 }
             }
+            // In ID order, as in the DB
+            results.sort(CalendarItemIndex.ID_ORDER);
+            currentTasks = Collections.unmodifiableList(results);
+            currentTasksVersion = taskIndex.getVersion();
+            currentTasksDate = today;
         }
-        return incompleteTasks;
+        MetricsCenter.getInstance().record(Stage.QUERY, start);
+        return currentTasks;
     }
 
     
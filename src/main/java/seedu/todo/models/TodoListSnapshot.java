@@ -0,0 +1,370 @@
+package seedu.todo.models;
+
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// @@author agent
+/**
+ * An immutable, point-in-time copy of a TodoListDB, used to roll the DB back
+ * and forth without having to re-read or re-parse it from disk.
+ *
+ * <ul>
+ * <li>Items are frozen copies, so later changes to the live DB do not leak
+ * into the snapshot.</li>
+ * <li>Consecutive snapshots are structurally shared: unchanged items, and
+ * whole chunks of unchanged items, are reused from the previous snapshot. A
+ * snapshot hence costs memory in proportion to what changed since the
+ * previous one, rather than to the size of the DB.</li>
+ * </ul>
+ */
+public class TodoListSnapshot {
+
+    private static final int CHUNK_SIZE = 64;
+
+    // Rough per-object costs on a 64-bit JVM with compressed references, used to estimate memory usage.
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_BYTES = 16;
+    private static final int STRING_BYTES = 40;
+    private static final int DATE_TIME_BYTES = 72;
+    private static final int ITEM_BYTES = 40;
+    private static final int TAG_LIST_BYTES = 40;
+
+    private final List<CalendarItem[]> taskChunks;
+    private final List<CalendarItem[]> eventChunks;
+    private final int taskCount;
+    private final int eventCount;
+    private final Map<String, String> aliases;
+    private final List<String> tagList;
+    private final List<YearMonth> archivedMonths;
+    private final Map<Long, YearMonth> staleArchives;
+    private final long nextId;
+
+    TodoListSnapshot(Collection<Task> tasks, Collection<Event> events, Map<String, String> aliases,
+            Collection<String> tagList, Collection<YearMonth> archivedMonths, Map<Long, YearMonth> staleArchives,
+            long nextId, TodoListSnapshot previous) {
+        this.taskChunks = freeze(tasks, previous == null ? null : previous.taskChunks);
+        this.eventChunks = freeze(events, previous == null ? null : previous.eventChunks);
+        this.taskCount = tasks.size();
+        this.eventCount = events.size();
+        this.aliases = Collections.unmodifiableMap(new LinkedHashMap<String, String>(aliases));
+        this.tagList = Collections.unmodifiableList(new ArrayList<String>(tagList));
+        this.archivedMonths = Collections.unmodifiableList(new ArrayList<YearMonth>(archivedMonths));
+        this.staleArchives = Collections.unmodifiableMap(new LinkedHashMap<Long, YearMonth>(staleArchives));
+        this.nextId = nextId;
+    }
+
+    /**
+     * Takes a snapshot of <code>db</code>, sharing unchanged items with
+     * <code>previous</code>.
+     *
+     * @param db        DB to snapshot
+     * @param previous  Previous snapshot of the same DB, or null
+     * @return snapshot
+     */
+    public static TodoListSnapshot of(TodoListDB db, TodoListSnapshot previous) {
+        return db.snapshot(previous);
+    }
+
+    /**
+     * Returns a new TodoListDB in the state captured by this snapshot. The
+     * items in the returned DB are copies, and are safe to modify.
+     *
+     * @return TodoListDB
+     */
+    public TodoListDB toDB() {
+        TodoListDB db = new TodoListDB();
+        restoreTo(db);
+        return db;
+    }
+
+    /**
+     * Replaces the contents of <code>db</code> with copies of the items in
+     * this snapshot, rolling it back to the state captured by it.
+     *
+     * @param db    DB to roll back
+     */
+    void restoreTo(TodoListDB db) {
+        List<Task> tasks = new ArrayList<Task>(taskCount);
+        for (CalendarItem[] chunk : taskChunks) {
+            for (CalendarItem task : chunk) {
+                tasks.add(((Task) task).copy());
+            }
+        }
+        List<Event> events = new ArrayList<Event>(eventCount);
+        for (CalendarItem[] chunk : eventChunks) {
+            for (CalendarItem event : chunk) {
+                events.add(((Event) event).copy());
+            }
+        }
+
+        db.restore(tasks, events, aliases, tagList, archivedMonths, staleArchives, nextId);
+    }
+
+    /**
+     * Get the Tasks in this snapshot, in the order in which they are held in
+     * the DB. The list is read straight from the snapshot without copying,
+     * so neither it nor its Tasks may be modified.
+     *
+     * @return tasks
+     */
+    public List<Task> getTasks() {
+        return new FrozenList<Task>(taskChunks, taskCount);
+    }
+
+    /**
+     * Get the Events in this snapshot, in the order in which they are held in
+     * the DB. The list is read straight from the snapshot without copying,
+     * so neither it nor its Events may be modified.
+     *
+     * @return events
+     */
+    public List<Event> getEvents() {
+        return new FrozenList<Event>(eventChunks, eventCount);
+    }
+
+    /**
+     * Get the Tags in this snapshot.
+     *
+     * @return tagList
+     */
+    public List<String> getTagList() {
+        return tagList;
+    }
+
+    /**
+     * Returns the number of Tasks and Events in this snapshot.
+     *
+     * @return size
+     */
+    public int size() {
+        return taskCount + eventCount;
+    }
+
+    /**
+     * Estimates the number of bytes of memory held by this snapshot which are
+     * not shared with <code>other</code>, i.e. the memory which would be
+     * freed by dropping this snapshot while keeping <code>other</code>.
+     *
+     * @param other     Snapshot which is kept, or null
+     * @return Estimated size in bytes
+     */
+    public long estimateBytesNotIn(TodoListSnapshot other) {
+        long bytes = ITEM_BYTES + STRING_BYTES * (aliases.size() * 2 + tagList.size());
+        bytes += estimateBytesNotIn(taskChunks, other == null ? null : other.taskChunks);
+        bytes += estimateBytesNotIn(eventChunks, other == null ? null : other.eventChunks);
+        return bytes;
+    }
+
+    private static long estimateBytesNotIn(List<CalendarItem[]> chunks, List<CalendarItem[]> otherChunks) {
+        long bytes = ARRAY_BYTES + REFERENCE_BYTES * chunks.size();
+        Set<CalendarItem> otherItems = null;
+
+        for (int i = 0; i < chunks.size(); i++) {
+            CalendarItem[] chunk = chunks.get(i);
+            if (otherChunks != null && i < otherChunks.size() && otherChunks.get(i) == chunk) {
+                continue;
+            }
+
+            bytes += ARRAY_BYTES + REFERENCE_BYTES * chunk.length;
+            for (int j = 0; j < chunk.length; j++) {
+                CalendarItem item = chunk[j];
+                if (itemAt(otherChunks, i * CHUNK_SIZE + j) == item) {
+                    continue;
+                }
+                if (otherItems == null) {
+                    otherItems = identitySetOf(otherChunks);
+                }
+                if (!otherItems.contains(item)) {
+                    bytes += estimateBytes(item);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static Set<CalendarItem> identitySetOf(List<CalendarItem[]> chunks) {
+        Set<CalendarItem> items = Collections.newSetFromMap(new IdentityHashMap<CalendarItem, Boolean>());
+        if (chunks != null) {
+            for (CalendarItem[] chunk : chunks) {
+                items.addAll(Arrays.asList(chunk));
+            }
+        }
+        return items;
+    }
+
+    private static long estimateBytes(CalendarItem item) {
+        long bytes = ITEM_BYTES + TAG_LIST_BYTES + REFERENCE_BYTES * item.getTagList().size();
+        if (item.getName() != null) {
+            bytes += STRING_BYTES + 2L * item.getName().length();
+        }
+        if (item instanceof Task) {
+            bytes += ((Task) item).getDueDate() == null ? 0 : DATE_TIME_BYTES;
+        } else {
+            Event event = (Event) item;
+            bytes += event.getStartDate() == null ? 0 : DATE_TIME_BYTES;
+            bytes += event.getEndDate() == null ? 0 : DATE_TIME_BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns true if the frozen item at <code>position</code> is the same
+     * object as the one at <code>otherPosition</code> in <code>other</code>.
+     * Exposed for testing structural sharing.
+     */
+    boolean shares(TodoListSnapshot other, boolean isTask, int position, int otherPosition) {
+        List<CalendarItem[]> chunks = isTask ? taskChunks : eventChunks;
+        List<CalendarItem[]> otherChunks = isTask ? other.taskChunks : other.eventChunks;
+        return itemAt(chunks, position) == itemAt(otherChunks, otherPosition);
+    }
+
+    /**
+     * Returns true if the chunk holding <code>position</code> is the same
+     * array in both snapshots. Exposed for testing structural sharing.
+     */
+    boolean sharesChunk(TodoListSnapshot other, boolean isTask, int position) {
+        List<CalendarItem[]> chunks = isTask ? taskChunks : eventChunks;
+        List<CalendarItem[]> otherChunks = isTask ? other.taskChunks : other.eventChunks;
+        return chunks.get(position / CHUNK_SIZE) == otherChunks.get(position / CHUNK_SIZE);
+    }
+
+    /**
+     * Freezes <code>items</code> into chunks, reusing frozen items and chunks
+     * from <code>previousChunks</code> where they are unchanged.
+     *
+     * Items are first matched by position, which is the common case as the DB
+     * preserves insertion order. Should that fail (e.g. after a deletion
+     * shifts the remaining items), items are matched by ID instead.
+     */
+    private static List<CalendarItem[]> freeze(Collection<? extends CalendarItem> items,
+            List<CalendarItem[]> previousChunks) {
+        int size = items.size();
+        List<CalendarItem[]> chunks = new ArrayList<CalendarItem[]>((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        Map<Long, CalendarItem> previousById = null;
+        CalendarItem[] chunk = null;
+        int position = 0;
+
+        for (CalendarItem item : items) {
+            int offset = position % CHUNK_SIZE;
+            if (offset == 0) {
+                chunk = new CalendarItem[Math.min(CHUNK_SIZE, size - position)];
+            }
+
+            CalendarItem frozen = itemAt(previousChunks, position);
+            if (frozen == null || frozen.getId() != item.getId()) {
+                if (previousById == null) {
+                    previousById = indexById(previousChunks);
+                }
+                frozen = previousById.get(item.getId());
+            }
+            chunk[offset] = (frozen != null && hasSameState(frozen, item)) ? frozen : copyOf(item);
+
+            if (offset == chunk.length - 1) {
+                chunks.add(reuseChunk(chunk, previousChunks, chunks.size()));
+            }
+            position++;
+        }
+        return chunks;
+    }
+
+    private static CalendarItem itemAt(List<CalendarItem[]> chunks, int position) {
+        int chunkIndex = position / CHUNK_SIZE;
+        if (chunks == null || chunkIndex >= chunks.size()) {
+            return null;
+        }
+        CalendarItem[] chunk = chunks.get(chunkIndex);
+        int offset = position % CHUNK_SIZE;
+        return offset < chunk.length ? chunk[offset] : null;
+    }
+
+    /**
+     * Unmodifiable list view of frozen chunks.
+     */
+    private static class FrozenList<T extends CalendarItem> extends AbstractList<T> {
+
+        private final List<CalendarItem[]> chunks;
+        private final int size;
+
+        private FrozenList(List<CalendarItem[]> chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return (T) chunks.get(index / CHUNK_SIZE)[index % CHUNK_SIZE];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private static Map<Long, CalendarItem> indexById(List<CalendarItem[]> chunks) {
+        Map<Long, CalendarItem> itemsById = new HashMap<Long, CalendarItem>();
+        if (chunks != null) {
+            for (CalendarItem[] chunk : chunks) {
+                for (CalendarItem item : chunk) {
+                    itemsById.put(item.getId(), item);
+                }
+            }
+        }
+        return itemsById;
+    }
+
+    /**
+     * Returns the previous chunk at <code>chunkIndex</code> if it holds
+     * exactly the same frozen items as <code>chunk</code>, or
+     * <code>chunk</code> otherwise.
+     */
+    private static CalendarItem[] reuseChunk(CalendarItem[] chunk, List<CalendarItem[]> previousChunks,
+            int chunkIndex) {
+        if (previousChunks == null || chunkIndex >= previousChunks.size()) {
+            return chunk;
+        }
+        CalendarItem[] previousChunk = previousChunks.get(chunkIndex);
+        if (previousChunk.length != chunk.length) {
+            return chunk;
+        }
+        for (int i = 0; i < chunk.length; i++) {
+            if (previousChunk[i] != chunk[i]) {
+                return chunk;
+            }
+        }
+        return previousChunk;
+    }
+
+    private static boolean hasSameState(CalendarItem frozen, CalendarItem item) {
+        if (frozen instanceof Task && item instanceof Task) {
+            return ((Task) frozen).hasSameState((Task) item);
+        }
+        if (frozen instanceof Event && item instanceof Event) {
+            return ((Event) frozen).hasSameState((Event) item);
+        }
+        return false;
+    }
+
+    private static CalendarItem copyOf(CalendarItem item) {
+        if (item instanceof Task) {
+            return ((Task) item).copy();
+        }
+        return ((Event) item).copy();
+    }
+
+}
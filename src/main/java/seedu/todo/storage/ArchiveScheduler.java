@@ -0,0 +1,77 @@
+package seedu.todo.storage;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import seedu.todo.commons.core.LogsCenter;
+
+// @@author agent
+/**
+ * Archives old items on a schedule while the app runs, so that the DB only
+ * holds the items which are still in use, however long the app is left
+ * running. Items loaded back from the archive by queries, and changed since,
+ * are archived again by the next run.<br>
+ *
+ * The archive itself is run by <code>archive</code>, which should hand it to
+ * the thread running commands, so that it is applied between commands.
+ * <code>TodoListDB.archiveExpired</code> reads the retention from the config
+ * on every run, so archiving is only done once it is turned on, and changes
+ * to it apply from the next run. Archiving is not an undo step of its own.
+ */
+public class ArchiveScheduler {
+
+    private static final Logger logger = LogsCenter.getLogger(ArchiveScheduler.class);
+
+    // How often old items are archived
+    private static final long INTERVAL_MINUTES = 60;
+
+    private final Runnable archive;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param archive   Called from the scheduler thread on every run, to
+     *                  archive the old items in the DB
+     */
+    public ArchiveScheduler(Runnable archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Starts archiving old items every <code>INTERVAL_MINUTES</code>, starting
+     * <code>INTERVAL_MINUTES</code> from now.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ArchiveScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::run, INTERVAL_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops archiving old items.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    private void run() {
+        try {
+            archive.run();
+        } catch (RuntimeException e) {
+            // Thrown exceptions would cancel every later run.
+            logger.warning("Could not archive old items: " + e.getMessage());
+        }
+    }
+
+}
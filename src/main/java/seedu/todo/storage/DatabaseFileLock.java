@@ -0,0 +1,79 @@
+package seedu.todo.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+import seedu.todo.commons.util.FileUtil;
+
+// @@author agent
+/**
+ * Exclusive lock on the DB file, held while it is read or written, so that
+ * no process ever reads a half-written file, or writes over another's write
+ * between checking the file and writing it.<br>
+ *
+ * Processes lock a FileChannel on a lock file next to the DB file, which is
+ * left in place. FileChannel locks are held by the whole process, so the
+ * threads of this process take turns through a ReentrantLock first. The lock
+ * may be taken again by the thread holding it.
+ */
+final class DatabaseFileLock {
+
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+
+    private static final ReentrantLock threadLock = new ReentrantLock();
+
+    // Null if the thread already held the lock
+    private final FileChannel channel;
+
+    private DatabaseFileLock(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Waits for, and takes, the lock on <code>dbFile</code>.
+     *
+     * @param dbFile
+     * @return lock, to be released once the file has been read or written
+     * @throws IOException  If the lock file cannot be locked.
+     */
+    static DatabaseFileLock acquire(File dbFile) throws IOException {
+        threadLock.lock();
+        if (threadLock.getHoldCount() > 1) {
+            return new DatabaseFileLock(null);
+        }
+        FileChannel channel = null;
+        try {
+            File lockFile = new File(dbFile.getPath() + LOCK_FILE_SUFFIX);
+            FileUtil.createParentDirsOfFile(lockFile);
+            channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // Closing the channel releases the lock.
+            channel.lock();
+            return new DatabaseFileLock(channel);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            threadLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the lock, which must be held by the calling thread.
+     *
+     * @throws IOException  If the lock file cannot be closed.
+     */
+    void release() throws IOException {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            threadLock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package seedu.todo.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.LogsCenter;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * Watches the DB file for changes made by other apps or processes, such as
+ * sync tools or scripts, so that they can be merged into the DB.<br>
+ *
+ * The directory of the DB file is watched with a WatchService, and is
+ * switched whenever the DB is moved. A burst of changes, such as a file being
+ * written in several chunks, is only read once the file has been left alone
+ * for <code>DEBOUNCE_MILLIS</code>. The file is read and parsed on the
+ * watcher's own thread, and kept for <code>TodoListDB.sync</code>, so the UI
+ * is never held up by it. The app's own writes are recognised by
+ * <code>TodoListDB.loadIfChanged</code>, and skipped.
+ */
+public class DatabaseWatcher {
+
+    private static final Logger logger = LogsCenter.getLogger(DatabaseWatcher.class);
+
+    // How long the DB file must be left alone before it is read
+    private static final long DEBOUNCE_MILLIS = 250;
+    // How often to check whether the DB file has been moved
+    private static final long MOVE_CHECK_MILLIS = 1000;
+
+    private final Runnable onChange;
+    private WatchService watchService;
+    private Thread thread;
+
+    // Only accessed from the watcher thread.
+    private Path watchedDir;
+    private WatchKey watchKey;
+
+    /**
+     * @param onChange  Called from the watcher thread once the changed DB file
+     *                  has been parsed, to sync the DB
+     */
+    public DatabaseWatcher(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts watching the DB file on a background thread.
+     *
+     * @throws IOException  If the file system cannot be watched.
+     */
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        thread = new Thread(this::run, "DatabaseWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the DB file.
+     */
+    public synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warning("Could not stop watching the DB file: " + e.getMessage());
+        }
+        thread = null;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Path file = Paths.get(ConfigCenter.getInstance().getConfig().getDatabaseFilePath()).toAbsolutePath();
+                if (!watch(file.getParent())) {
+                    Thread.sleep(MOVE_CHECK_MILLIS);
+                } else if (awaitChange(file, MOVE_CHECK_MILLIS)) {
+                    awaitQuiet(file);
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.info("Stopped watching the DB file");
+        }
+    }
+
+    /**
+     * Watches <code>dir</code> instead of the directory watched so far.
+     *
+     * @return true if <code>dir</code> is being watched, false otherwise
+     */
+    private boolean watch(Path dir) {
+        if (dir.equals(watchedDir)) {
+            return true;
+        }
+        if (watchKey != null) {
+            watchKey.cancel();
+            watchKey = null;
+            watchedDir = null;
+        }
+        try {
+            watchKey = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            watchedDir = dir;
+            logger.info("Watching for changes to the DB file in " + dir);
+            return true;
+        } catch (IOException e) {
+            logger.warning(String.format("Could not watch \"%s\": %s", dir, e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Waits up to <code>timeoutMillis</code> for changes in the watched
+     * directory.
+     *
+     * @return true if <code>file</code> may have been changed, false otherwise
+     */
+    private boolean awaitChange(Path file, long timeoutMillis) throws InterruptedException {
+        WatchKey key = watchService.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (key == null) {
+            return false;
+        }
+        boolean isChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            isChanged |= event.kind() == OVERFLOW || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return isChanged;
+    }
+
+    /**
+     * Waits until <code>file</code> has been left alone for
+     * <code>DEBOUNCE_MILLIS</code>.
+     */
+    private void awaitQuiet(Path file) throws InterruptedException {
+        long quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+        long remaining;
+        while ((remaining = quietUntil - System.nanoTime()) > 0) {
+            if (awaitChange(file, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)))) {
+                quietUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+            }
+        }
+    }
+
+    private void reload(Path file) {
+        try {
+            if (TodoListDB.getInstance().loadIfChanged()) {
+                logger.info("The DB file was changed by another app: " + file);
+                onChange.run();
+            }
+        } catch (IOException e) {
+            // Most likely read halfway through a write by another app, which is read again once it is done.
+            logger.warning(String.format("Could not read \"%s\": %s", file, e.getMessage()));
+        }
+    }
+
+}
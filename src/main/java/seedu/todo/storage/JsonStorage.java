@@ -1,150 +1,823 @@
 package seedu.todo.storage;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
 import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.NoSuchElementException;
-
-import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch;
-import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Patch;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
+import seedu.todo.commons.core.Config;
 import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.LogsCenter;
 import seedu.todo.commons.exceptions.CannotRedoException;
 import seedu.todo.commons.exceptions.CannotUndoException;
 import seedu.todo.commons.util.FileUtil;
 import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.ArchiveShard;
 import seedu.todo.models.TodoListDB;
+import seedu.todo.models.TodoListSnapshot;
 
 // @@author A0093907W
 /**
  * JSON Storage for persisting and loading from disk.
+ *
+ * Undo history is persisted in an UndoJournal next to the DB file, so that it
+ * survives restarts. The most recent commits are also kept as in-memory
+ * snapshots of the DB, for as long as they fit in the undo memory budget.
+ * Undo and redo within those swap snapshots, so they never parse the file;
+ * only undo beyond them goes to the journal.
+ * 
+ * All writes are performed on a single writer thread, so that they always
+ * reach the disk in order. The journal is shared by every process using the
+ * DB file, and is updated under the same lock as the write it records, but
+ * without holding up the caller.
+ * 
+ * The DB file is only read and written under a DatabaseFileLock, so that
+ * several processes can share it. Saves are optimistic: the length and hash
+ * of the JSON last loaded or written here are kept as the version of the
+ * file, and a save only writes if the file is still at that version. If
+ * another process wrote in between, its DB is merged in by
+ * <code>TodoListDB.rebase</code>, committed as a step of its own, and the
+ * save is tried again. Undo and redo are only written under the same
+ * condition, and are refused otherwise, as the changes of the other process
+ * must be merged in first. The version also lets <code>loadIfChanged</code>
+ * tell this app's own writes apart without parsing the file.
+ * 
+ * Archived items are kept out of the DB file, in a shard per month named
+ * <code>archive-YYYY-MM.json</code>, in a directory next to it. The DB
+ * records which months have a shard, and shards are only read when the DB
+ * asks for them.
+ * 
+ * Files are pretty-printed by default, and may instead be written compact,
+ * or gzipped, as set by <code>databaseCompact</code> and
+ * <code>databaseCompressed</code>. Either is read whatever the config says,
+ * so the setting takes effect from the next save. JSON is always handled
+ * uncompressed in memory, so versions do not depend on it, and the journal
+ * always records it pretty-printed, so that its entries still apply once
+ * the format is changed.
  */
 public class JsonStorage implements Storage {
-    
+
+    private static final Logger logger = LogsCenter.getLogger(JsonStorage.class);
+
+    // Saves which still find the file changed by then give up.
+    private static final int MAX_SAVE_ATTEMPTS = 5;
+
+    private static final String ARCHIVE_DIRECTORY_SUFFIX = ".archive";
+    private static final String ARCHIVE_FILE_PREFIX = "archive-";
+    private static final String ARCHIVE_FILE_SUFFIX = ".json";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * An in-memory undo or redo snapshot, with the estimated number of bytes
+     * which are freed by dropping it.
+     */
+    private static class HistoryEntry {
+        private final TodoListSnapshot snapshot;
+        private final long bytes;
+
+        private HistoryEntry(TodoListSnapshot snapshot, TodoListSnapshot next) {
+            this.snapshot = snapshot;
+            this.bytes = snapshot.estimateBytesNotIn(next);
+        }
+    }
+
+    /**
+     * A DB written by another process, with the digest of its JSON.
+     */
+    private static class ChangedDB {
+        private final TodoListDB db;
+        private final byte[] digest;
+
+        private ChangedDB(TodoListDB db, byte[] digest) {
+            this.db = db;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * Change to the undo journal, recording a write to the DB file.
+     */
+    private interface JournalUpdate {
+        /**
+         * @param journal   Journal of the DB file
+         * @param json      Contents of the DB file before the write, or null
+         *                  if there was none
+         * @return Number of journal entries dropped
+         */
+        int apply(UndoJournal journal, String json) throws IOException;
+    }
+
     // Ideally this would be a single circular-queue, but there is no such built-in
     // mechanism, and we would really really like to keep this operation O(1).
-    private Deque<LinkedList<Patch>> historyPatch = new ArrayDeque<LinkedList<Patch>>();
-    private Deque<LinkedList<Patch>> futurePatch = new ArrayDeque<LinkedList<Patch>>();
-    private String currJson;
-    private final static int HISTORY_SIZE = 1000;
-    private final DiffMatchPatch dmp = new DiffMatchPatch();
+    private Deque<HistoryEntry> history = new ArrayDeque<HistoryEntry>();
+    private Deque<HistoryEntry> future = new ArrayDeque<HistoryEntry>();
+    private long historyBytes = 0;
+    private long futureBytes = 0;
+    private TodoListSnapshot currSnapshot;
+    private int undoCount = 0;
+
+    // Only accessed from the writer thread, except for its budget and compression settings.
+    private final UndoJournal journal = new UndoJournal();
+    private final AtomicInteger journalPrunedCount = new AtomicInteger();
+    private volatile long journalMemoryUsage = 0;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "JsonStorage writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingWrite;
+    // First failure of a write queued since the last flush, which is rethrown by the next one.
+    private final AtomicReference<IOException> writeFailure = new AtomicReference<IOException>();
+
+    // Digest of the JSON last loaded or written.
+    private volatile byte[] knownDigest;
+    // DB parsed by loadIfChanged, for the next sync or save to merge.
+    private volatile ChangedDB changedDB;
 
     private File getStorageFile() {
         String filePath = ConfigCenter.getInstance().getConfig().getDatabaseFilePath();
         return new File(filePath);
     }
-    
+
+    /**
+     * Returns the directory holding the archive shards of the DB file <code>dbFile</code>.
+     */
+    private static File getArchiveDirectory(File dbFile) {
+        return new File(dbFile.getPath() + ARCHIVE_DIRECTORY_SUFFIX);
+    }
+
+    private static File getArchiveFile(File dbFile, YearMonth month) {
+        return new File(getArchiveDirectory(dbFile), ARCHIVE_FILE_PREFIX + month + ARCHIVE_FILE_SUFFIX);
+    }
+
+    /**
+     * Serializes <code>value</code> as set by the config: compact if the DB
+     * is compact or compressed, and pretty-printed otherwise.
+     */
+    private static String toJson(Object value) throws JsonProcessingException {
+        Config config = ConfigCenter.getInstance().getConfig();
+        if (config.isDatabaseCompact() || config.isDatabaseCompressed()) {
+            return JsonUtil.toCompactJsonString(value);
+        }
+        return JsonUtil.toJsonString(value);
+    }
+
+    /**
+     * Returns <code>json</code>, which may be null, as recorded in the
+     * journal: pretty-printed, whatever the format of the DB file.
+     */
+    private static String toJournalJson(String json) throws IOException {
+        // Pretty-printed JSON has whitespace after the opening brace, which compact JSON never has.
+        if (json == null || json.length() < 2 || Character.isWhitespace(json.charAt(1))) {
+            return json;
+        }
+        return JsonUtil.reformatJsonString(json, false);
+    }
+
+    /**
+     * Returns <code>json</code>, as recorded in the journal, in the format
+     * set by the config, as <code>toJson</code> writes it.
+     */
+    private static String fromJournalJson(String json) throws IOException {
+        Config config = ConfigCenter.getInstance().getConfig();
+        if (config.isDatabaseCompact() || config.isDatabaseCompressed()) {
+            return JsonUtil.reformatJsonString(json, true);
+        }
+        return json;
+    }
+
+    /**
+     * Reads the JSON in <code>file</code>, whether or not it is gzipped.
+     * JSON never starts with the gzip magic number, so the two cannot be
+     * mistaken for each other.
+     */
+    private static String readJson(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 2 || ((bytes[0] & 0xFF) | ((bytes[1] & 0xFF) << 8)) != GZIPInputStream.GZIP_MAGIC) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                out.write(buffer, 0, length);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
     /**
-     * Internal function to prune the history patches stored to ensure it does
-     * not exit HISTORY_SIZE.
+     * Writes <code>json</code> to <code>file</code>, gzipped if the DB is
+     * compressed.
+     */
+    private static void writeJson(File file, String json) throws IOException {
+        if (!ConfigCenter.getInstance().getConfig().isDatabaseCompressed()) {
+            FileUtil.writeToFile(file, json);
+            return;
+        }
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file)) {
+            {
+                // The DB is mostly repeated keys, which the fastest level already shrinks well.
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        }) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the SHA-256 digest of <code>json</code>, which tells JSON
+     * written by another process apart from that known here.
+     */
+    private static byte[] digest(String json) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(json.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns true if <code>json</code> is the JSON last loaded or written
+     * here.
+     */
+    private boolean isKnown(String json) {
+        return MessageDigest.isEqual(digest(json), knownDigest);
+    }
+
+    /**
+     * Internal function to record <code>snapshot</code> as the newest undo
+     * entry, where <code>next</code> is the snapshot replacing it.
+     */
+    private void pushHistory(TodoListSnapshot snapshot, TodoListSnapshot next) {
+        HistoryEntry entry = new HistoryEntry(snapshot, next);
+        history.addLast(entry);
+        historyBytes += entry.bytes;
+        undoCount++;
+        pruneHistory();
+    }
+
+    private TodoListSnapshot popHistory() {
+        HistoryEntry entry = history.removeLast();
+        historyBytes -= entry.bytes;
+        return entry.snapshot;
+    }
+
+    /**
+     * Internal function to record <code>snapshot</code> as the newest redo
+     * entry, where <code>next</code> is the snapshot replacing it.
+     */
+    private void pushFuture(TodoListSnapshot snapshot, TodoListSnapshot next) {
+        HistoryEntry entry = new HistoryEntry(snapshot, next);
+        future.addLast(entry);
+        futureBytes += entry.bytes;
+    }
+
+    private TodoListSnapshot popFuture() {
+        HistoryEntry entry = future.removeLast();
+        futureBytes -= entry.bytes;
+        return entry.snapshot;
+    }
+
+    /**
+     * Internal function to drop the oldest in-memory undo snapshots until the
+     * undo memory budget is met. They can still be undone from the journal.
+     * Redo snapshots are never dropped, as they are not journalled.
      */
     private void pruneHistory() {
-        // Don't need to worry about future because it cannot exceed limit.
-        while (historyPatch.size() > HISTORY_SIZE) {
-            historyPatch.removeFirst();
+        long budget = ConfigCenter.getInstance().getConfig().getUndoMemoryBudget();
+        while (!history.isEmpty() && undoMemoryUsage() > budget) {
+            historyBytes -= history.removeFirst().bytes;
+        }
+    }
+
+    /**
+     * Internal function to account for journal entries dropped by the writer
+     * thread to keep the journal within its budget.
+     */
+    private void syncUndoCount() {
+        undoCount = Math.max(undoCount - journalPrunedCount.getAndSet(0), history.size());
+    }
+
+    /**
+     * Returns the journal, opening it for <code>file</code>, whose contents
+     * are <code>json</code>, if necessary. Must only be called from the
+     * writer thread, while holding the lock on <code>file</code>.
+     */
+    private UndoJournal getJournal(File file, String json) {
+        if (!journal.isOpen(file)) {
+            journal.open(file, json);
+        }
+        return journal;
+    }
+
+    /**
+     * Applies the current config to the journal. Its budget and compression
+     * settings are safe to update from any thread.
+     */
+    private void configureJournal() {
+        Config config = ConfigCenter.getInstance().getConfig();
+        journal.setBudget(config.getUndoHistoryBudget());
+        journal.setCompressed(config.isUndoHistoryCompressed());
+    }
+
+    /**
+     * Queues <code>write</code> to be run on the writer thread. Failures are
+     * logged, and the first of them is rethrown on the next
+     * <code>flush</code>, however many writes are queued after it.
+     */
+    private void writeAsync(File file, Callable<Void> write) {
+        pendingWrite = writer.submit(() -> {
+            try {
+                return write.call();
+            } catch (IOException | RuntimeException e) {
+                logger.warning(String.format("Could not write to \"%s\": %s", file.getPath(), e.getMessage()));
+                writeFailure.compareAndSet(null, e instanceof IOException ? (IOException) e : new IOException(e));
+                throw e;
+            } finally {
+                journalMemoryUsage = journal.estimateMemoryUsage();
+            }
+        });
+    }
+
+    /**
+     * Waits for <code>task</code> to complete and returns its result,
+     * rethrowing any IOException it threw.
+     */
+    private <T> T await(Future<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // The writer runs writes in order, so every earlier write is done once the last one is.
+        Future<?> write = pendingWrite;
+        pendingWrite = null;
+        if (write != null) {
+            try {
+                await(write);
+            } catch (IOException e) {
+                // Already recorded, unless the wait itself failed
+                writeFailure.compareAndSet(null, e);
+            }
+        }
+
+        IOException failure = writeFailure.getAndSet(null);
+        if (failure != null) {
+            throw failure;
         }
     }
-    
+
     @Override
     public void move(String newPath) throws IOException {
         boolean hasMoved = false;
-        
+
+        flush();
+
         try {
             FileUtil.createParentDirsOfFile(new File(newPath));
         } catch (IOException e) {
             throw e;
         }
-        
+
+        // Archived items are moved first, so that they are never left behind by a moved DB.
+        File archiveDirectory = getArchiveDirectory(getStorageFile());
+        File newArchiveDirectory = getArchiveDirectory(new File(newPath));
+        boolean hasArchive = archiveDirectory.exists();
+        if (hasArchive && !archiveDirectory.renameTo(newArchiveDirectory)) {
+            throw new IOException(String.format("Could not move archive to \"%s\".", newArchiveDirectory.getPath()));
+        }
+
         try {
             hasMoved = getStorageFile().renameTo(new File(newPath));
         } catch (SecurityException e) {
             throw new IOException(e.getMessage(), e.getCause());
+        } finally {
+            if (!hasMoved && hasArchive) {
+                newArchiveDirectory.renameTo(archiveDirectory);
+            }
         }
-        
+
         if (!hasMoved) {
             throw new IOException(String.format("Could not move file to \"%s\".", newPath));
         }
+
+        await(writer.submit(() -> {
+            journal.move(new File(newPath));
+            return null;
+        }));
     }
 
     @Override
     public void save(TodoListDB db) throws JsonProcessingException, IOException {
-        String newJson = JsonUtil.toJsonString(db);
-        
-        // Store the undo patch.
-        if (this.currJson != null) {
-            historyPatch.addLast(dmp.patchMake(newJson, this.currJson));
-            pruneHistory();
-            futurePatch.clear(); // A forward move nullifies all future patches.
+        save(db, false);
+    }
+
+    @Override
+    public void amend(TodoListDB db) throws JsonProcessingException, IOException {
+        save(db, true);
+    }
+
+    /**
+     * Writes <code>db</code> to the DB file, merging in the changes made to it
+     * by other processes until it can be written over them, and records it as
+     * a new commit, or as part of the newest one if <code>isAmend</code>.
+     */
+    private void save(TodoListDB db, boolean isAmend) throws JsonProcessingException, IOException {
+        File file = getStorageFile();
+        String newJson = toJson(db);
+        String diskJson;
+        for (int attempt = 1; (diskJson = writeIfUnchanged(file, newJson, isAmend)) != null; attempt++) {
+            if (attempt == MAX_SAVE_ATTEMPTS) {
+                throw new IOException(String.format("\"%s\" is being changed by another process.", file.getPath()));
+            }
+            rebase(db, file, diskJson);
+            newJson = toJson(db);
+        }
+        if (isAmend) {
+            amendCommit(db);
+        } else {
+            commit(db);
         }
-        
-        // Update currJson and persist to disk.
-        this.currJson = newJson;
-        FileUtil.writeToFile(getStorageFile(), this.currJson);
+    }
+
+    /**
+     * Writes <code>json</code> to <code>file</code>, and records it as a
+     * commit in the journal, unless another process has written to it since
+     * it was last loaded or written here, once any pending writes are done.
+     *
+     * @return null if written, or the JSON in the file if not
+     * @throws IOException  If this or a pending write failed.
+     */
+    private String writeIfUnchanged(File file, String json) throws IOException {
+        return writeIfUnchanged(file, json, false);
+    }
+
+    /**
+     * Writes <code>json</code> to <code>file</code> as
+     * <code>writeIfUnchanged</code> does, recording it in the journal as part
+     * of the newest commit if <code>isAmend</code>.
+     */
+    private String writeIfUnchanged(File file, String json, boolean isAmend) throws IOException {
+        String journalJson = toJournalJson(json);
+        if (isAmend) {
+            return writeIfUnchanged(file, json, (journal, diskJson) -> journal.amend(diskJson, journalJson));
+        }
+        return writeIfUnchanged(file, json, (journal, diskJson) -> journal.push(diskJson, journalJson));
+    }
+
+    /**
+     * Writes <code>json</code> to <code>file</code>, and applies
+     * <code>journalUpdate</code> to the journal under the same lock, unless
+     * another process has written to it since it was last loaded or written
+     * here, once any pending writes are done. Returns once the file is
+     * written, without waiting for the journal. The journal is given the
+     * previous contents of the file as recorded in it.
+     *
+     * @return null if written, or the JSON in the file if not
+     * @throws IOException  If this or a pending write failed.
+     */
+    private String writeIfUnchanged(File file, String json, JournalUpdate journalUpdate) throws IOException {
+        // Surfaces the failure of any earlier write, which would otherwise be lost.
+        flush();
+        configureJournal();
+        CompletableFuture<String> result = new CompletableFuture<String>();
+        writeAsync(file, () -> {
+            try {
+                DatabaseFileLock lock = DatabaseFileLock.acquire(file);
+                try {
+                    String diskJson = file.exists() ? readJson(file) : null;
+                    if (diskJson != null && !isKnown(diskJson)) {
+                        result.complete(diskJson);
+                        return null;
+                    }
+                    writeJson(file, json);
+                    knownDigest = digest(json);
+                    result.complete(null);
+                    String journalJson = toJournalJson(diskJson);
+                    journalPrunedCount.addAndGet(journalUpdate.apply(getJournal(file, journalJson), journalJson));
+                    return null;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Only reaches the caller if the file was not written yet.
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        return await(result);
+    }
+
+    /**
+     * Returns the exception refusing a write over <code>file</code>, which
+     * another process wrote to.
+     */
+    private static ConcurrentModificationException changedByOtherProcess(File file) {
+        return new ConcurrentModificationException(
+                String.format("\"%s\" was changed by another process.", file.getPath()));
+    }
+
+    /**
+     * Reads <code>file</code>, once no other process is writing to it.
+     */
+    private static String read(File file) throws IOException {
+        DatabaseFileLock lock = DatabaseFileLock.acquire(file);
+        try {
+            return readJson(file);
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Records <code>db</code>, just written to the DB file, or merged from
+     * it, as the newest commit.
+     */
+    private void commit(TodoListDB db) {
+        TodoListSnapshot newSnapshot = TodoListSnapshot.of(db, currSnapshot);
+
+        // Store the undo snapshot.
+        if (currSnapshot != null) {
+            future.clear(); // A forward move nullifies all future snapshots.
+            futureBytes = 0;
+            pushHistory(currSnapshot, newSnapshot);
+        }
+        currSnapshot = newSnapshot;
+    }
+
+    /**
+     * Records <code>db</code>, just written to the DB file, as part of the
+     * newest commit, so that undo rolls back to the snapshot before it.
+     */
+    private void amendCommit(TodoListDB db) {
+        currSnapshot = TodoListSnapshot.of(db, currSnapshot);
+    }
+
+    /**
+     * Merges <code>diskJson</code>, written to <code>file</code> by another
+     * process, into <code>db</code>. The other process's DB is recorded as a
+     * commit of its own, so that undo rolls it back separately. JSON which
+     * cannot be parsed is overwritten by the next write instead.
+     */
+    private void rebase(TodoListDB db, File file, String diskJson) throws IOException {
+        byte[] diskDigest = digest(diskJson);
+        ChangedDB parsed = changedDB;
+        changedDB = null;
+        TodoListDB changes = parsed != null && MessageDigest.isEqual(parsed.digest, diskDigest) ? parsed.db : null;
+        if (changes == null) {
+            try {
+                changes = JsonUtil.fromJsonString(diskJson, TodoListDB.class);
+            } catch (JsonProcessingException e) {
+                logger.warning(String.format("Overwriting \"%s\", which cannot be parsed: %s",
+                        file.getPath(), e.getMessage()));
+                knownDigest = diskDigest;
+                return;
+            }
+        }
+
+        logger.info(String.format("Merging changes made to \"%s\" by another process", file.getPath()));
+        TodoListSnapshot base = currSnapshot;
+        knownDigest = diskDigest;
+        commit(changes);
+        db.rebase(changes, base == null ? null : base.toDB());
     }
 
     @Override
     public TodoListDB load() throws IOException {
-        this.currJson = FileUtil.readFromFile(getStorageFile());
-        historyPatch.clear(); // It does not make sense to preserve history on load.
-        return JsonUtil.fromJsonString(this.currJson, TodoListDB.class);
+        flush();
+
+        File file = getStorageFile();
+        // Undo history is restored from the journal, but only lazily.
+        String json = await(writer.submit(() -> {
+            DatabaseFileLock lock = DatabaseFileLock.acquire(file);
+            try {
+                String diskJson = readJson(file);
+                journal.open(file, toJournalJson(diskJson));
+                journalMemoryUsage = journal.estimateMemoryUsage();
+                return diskJson;
+            } finally {
+                lock.release();
+            }
+        }));
+        TodoListDB db = JsonUtil.fromJsonString(json, TodoListDB.class);
+        currSnapshot = TodoListSnapshot.of(db, null);
+        knownDigest = digest(json);
+        changedDB = null;
+
+        history.clear();
+        future.clear();
+        historyBytes = 0;
+        futureBytes = 0;
+        journalPrunedCount.set(0);
+        undoCount = journal.size();
+        return db;
     }
 
     @Override
-    public TodoListDB undo() throws CannotUndoException, IOException {
-        // Get undo
-        LinkedList<Patch> undoPatch;
+    public boolean loadIfChanged() throws IOException {
+        String json = read(getStorageFile());
+        byte[] jsonDigest = digest(json);
+        if (MessageDigest.isEqual(jsonDigest, knownDigest)) {
+            return false;
+        }
+        ChangedDB parsed = changedDB;
+        if (parsed == null || !MessageDigest.isEqual(parsed.digest, jsonDigest)) {
+            changedDB = new ChangedDB(JsonUtil.fromJsonString(json, TodoListDB.class), jsonDigest);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sync(TodoListDB db) throws IOException {
+        flush();
+        File file = getStorageFile();
+        String diskJson = read(file);
+        if (isKnown(diskJson)) {
+            return false;
+        }
+        String json = toJson(db);
+        rebase(db, file, diskJson);
+        String newJson = toJson(db);
+        if (!newJson.equals(diskJson)) {
+            save(db);
+        }
+        return !newJson.equals(json);
+    }
+
+    @Override
+    public ArchiveShard loadArchive(YearMonth month) throws IOException {
+        File dbFile = getStorageFile();
+        File file = getArchiveFile(dbFile, month);
+        DatabaseFileLock lock = DatabaseFileLock.acquire(dbFile);
         try {
-            undoPatch = historyPatch.removeLast();
-        } catch (NoSuchElementException e) {
-            throw new CannotUndoException(e);
+            if (!file.exists()) {
+                return new ArchiveShard();
+            }
+            return JsonUtil.fromJsonString(readJson(file), ArchiveShard.class);
+        } finally {
+            lock.release();
+        }
+    }
+
+    @Override
+    public void saveArchive(YearMonth month, ArchiveShard shard) throws IOException {
+        File dbFile = getStorageFile();
+        File file = getArchiveFile(dbFile, month);
+        String json = shard.isEmpty() ? null : toJson(shard);
+        DatabaseFileLock lock = DatabaseFileLock.acquire(dbFile);
+        try {
+            if (json == null) {
+                FileUtil.removeFile(file);
+            } else {
+                FileUtil.createParentDirsOfFile(file);
+                writeJson(file, json);
+            }
+        } finally {
+            lock.release();
+        }
+    }
+
+    @Override
+    public TodoListDB undo() throws CannotUndoException, IOException {
+        syncUndoCount();
+        if (undoCount == 0) {
+            throw new CannotUndoException(new NoSuchElementException());
         }
-        
-        String newJson = (String)dmp.patchApply(undoPatch, this.currJson)[0];
-        
+
+        File file = getStorageFile();
+        if (history.isEmpty()) {
+            return undoFromJournal(file);
+        }
+
+        // Apply undo, unless another process wrote to the file since
+        TodoListSnapshot undoSnapshot = history.getLast().snapshot;
+        TodoListDB db = undoSnapshot.toDB();
+        String newJson = toJson(db);
+        if (writeIfUnchanged(file, newJson, (journal, json) -> journal.pop(json, toJournalJson(newJson))) != null) {
+            throw new CannotUndoException(changedByOtherProcess(file));
+        }
+        popHistory();
+        undoCount--;
+
         // Create redo
-        LinkedList<Patch> redoPatch = dmp.patchMake(newJson, this.currJson);
-        futurePatch.addLast(redoPatch);
-        
-        // Apply undo
-        this.currJson = newJson;
-        FileUtil.writeToFile(getStorageFile(), this.currJson);
-        return JsonUtil.fromJsonString(this.currJson, TodoListDB.class);
-    }
-    
+        pushFuture(currSnapshot, undoSnapshot);
+        currSnapshot = undoSnapshot;
+        return db;
+    }
+
+    /**
+     * Rolls back the DB by one commit which is no longer held in memory, by
+     * applying the newest journal entry to the DB file, unless another
+     * process wrote to it since.
+     */
+    private TodoListDB undoFromJournal(File file) throws CannotUndoException, IOException {
+        flush();
+        String newJson = await(writer.submit(() -> {
+            DatabaseFileLock lock = DatabaseFileLock.acquire(file);
+            try {
+                String json = readJson(file);
+                if (!isKnown(json)) {
+                    return null;
+                }
+                String journalJson = toJournalJson(json);
+                String previousJson = fromJournalJson(getJournal(file, journalJson).pop(journalJson));
+                writeJson(file, previousJson);
+                knownDigest = digest(previousJson);
+                return previousJson;
+            } finally {
+                lock.release();
+                journalMemoryUsage = journal.estimateMemoryUsage();
+            }
+        }));
+        if (newJson == null) {
+            throw new CannotUndoException(changedByOtherProcess(file));
+        }
+        TodoListDB db = JsonUtil.fromJsonString(newJson, TodoListDB.class);
+        undoCount--;
+
+        TodoListSnapshot undoSnapshot = TodoListSnapshot.of(db, currSnapshot);
+        pushFuture(currSnapshot, undoSnapshot);
+        currSnapshot = undoSnapshot;
+        return db;
+    }
+
     @Override
     public int undoSize() {
-        return historyPatch.size();
+        syncUndoCount();
+        return undoCount;
+    }
+
+    @Override
+    public long undoMemoryUsage() {
+        return historyBytes + futureBytes + journalMemoryUsage;
     }
 
     @Override
     public TodoListDB redo() throws CannotRedoException, IOException {
-        // Get redo
-        LinkedList<Patch> redoPatch;
-        try {
-            redoPatch = futurePatch.removeLast();
-        } catch (NoSuchElementException e) {
-            throw new CannotRedoException(e);
+        if (future.isEmpty()) {
+            throw new CannotRedoException(new NoSuchElementException());
+        }
+
+        // Apply redo, unless another process wrote to the file since
+        TodoListSnapshot redoSnapshot = future.getLast().snapshot;
+        TodoListDB db = redoSnapshot.toDB();
+        File file = getStorageFile();
+        if (writeIfUnchanged(file, toJson(db)) != null) {
+            throw new CannotRedoException(changedByOtherProcess(file));
         }
-        
-        String newJson = (String)dmp.patchApply(redoPatch, this.currJson)[0];
-        
+        popFuture();
+
         // Create undo
-        LinkedList<Patch> undoPatch = dmp.patchMake(newJson, this.currJson);
-        historyPatch.addLast(undoPatch);
-        
-        // Apply redo
-        this.currJson = newJson;
-        FileUtil.writeToFile(getStorageFile(), this.currJson);
-        return JsonUtil.fromJsonString(this.currJson, TodoListDB.class);
-    }
-    
+        syncUndoCount();
+        pushHistory(currSnapshot, redoSnapshot);
+        currSnapshot = redoSnapshot;
+        return db;
+    }
+
     @Override
     public int redoSize() {
-        return futurePatch.size();
+        return future.size();
     }
 
 }
@@ -1,9 +1,11 @@
 package seedu.todo.storage;
 
 import java.io.IOException;
+import java.time.YearMonth;
 
 import seedu.todo.commons.exceptions.CannotRedoException;
 import seedu.todo.commons.exceptions.CannotUndoException;
+import seedu.todo.models.ArchiveShard;
 import seedu.todo.models.TodoListDB;
 
 // @@author A0093907W
@@ -13,12 +15,23 @@ import seedu.todo.models.TodoListDB;
 public interface Storage {
 
     /**
-     * Persists a TodoListDB object to disk.
+     * Persists a TodoListDB object to disk. If the DB on disk was changed by
+     * another process since it was last loaded or persisted, its changes are
+     * merged into <code>db</code> first.
      * @param db    TodoListDB object
      * @throws IOException  If there is an error writing to disk.
      */
     public void save(TodoListDB db) throws IOException;
 
+    /**
+     * Persists a TodoListDB object to disk as part of the newest commit, so
+     * that it is not an undo step of its own, but is rolled back along with
+     * that commit. Otherwise as <code>save</code>.
+     * @param db    TodoListDB object
+     * @throws IOException  If there is an error writing to disk.
+     */
+    public void amend(TodoListDB db) throws IOException;
+
     /**
      * Loads a TodoListDB object from disk
      * @return  TodoListDB object
@@ -26,18 +39,69 @@ public interface Storage {
      */
     public TodoListDB load() throws IOException;
 
+    /**
+     * Loads the TodoListDB from disk if it was changed by anything other than
+     * this Storage since it was last loaded or persisted, and keeps it to be
+     * merged by the next <code>sync</code> or <code>save</code>. May be called
+     * from any thread.
+     * @return  true if the DB on disk was changed, false otherwise
+     * @throws IOException  If there is an error reading from disk.
+     */
+    public boolean loadIfChanged() throws IOException;
+
+    /**
+     * Merges the changes made to the DB on disk by anything other than this
+     * Storage into <code>db</code>, as a commit of their own, and persists
+     * the result.
+     * @param db    TodoListDB object
+     * @return  true if <code>db</code> was changed, false otherwise
+     * @throws IOException  If there is an error reading from or writing to disk.
+     */
+    public boolean sync(TodoListDB db) throws IOException;
+
+    /**
+     * Loads the items archived for <code>month</code> from disk.
+     * @param month
+     * @return  ArchiveShard, which is empty if nothing was archived for the month
+     * @throws IOException  If there is an error reading from disk.
+     */
+    public ArchiveShard loadArchive(YearMonth month) throws IOException;
+
+    /**
+     * Persists the items archived for <code>month</code> to disk, replacing
+     * those persisted for it before. An empty shard is removed from disk.
+     * @param month
+     * @param shard ArchiveShard object
+     * @throws IOException  If there is an error writing to disk.
+     */
+    public void saveArchive(YearMonth month, ArchiveShard shard) throws IOException;
+
+    /**
+     * Moves the DB, and its archived items, to <code>newPath</code>.
+     * @param newPath
+     * @throws IOException  If the DB cannot be moved.
+     */
     public void move(String newPath) throws IOException;
 
+    /**
+     * Blocks until all pending writes to disk have completed.
+     * @throws IOException  If a pending write failed.
+     */
+    public void flush() throws IOException;
+
     /**
      * Rolls back the DB by one commit, persists the DB, and returns a
      * TodoListDB object.
      * 
-     * Undo information is on a per-session basis, and should not be persisted
-     * to disk.
+     * Undo information may be persisted alongside the DB, so that it survives
+     * restarts. The undo is refused if the DB on disk was changed by another
+     * process since it was last loaded or persisted, until
+     * <code>sync</code> has merged those changes.
      * 
      * @return TodoListDB object
      * @throws CannotUndoException
-     *             If there is nothing to undo.
+     *             If there is nothing to undo, or the DB on disk was changed
+     *             by another process.
      * @throws IOException
      *             If there is an error writing to disk.
      */
@@ -45,11 +109,13 @@ public interface Storage {
 
     /**
      * Rolls forward the DB by one undo commit, persists the DB, and returns a
-     * TodoListDB object.
+     * TodoListDB object. Refused, as <code>undo</code> is, if the DB on disk
+     * was changed by another process.
      * 
      * @return TodoListDB object
      * @throws CannotRedoException
-     *             If there is nothing to redo.
+     *             If there is nothing to redo, or the DB on disk was changed
+     *             by another process.
      * @throws IOException
      *             If there is an error writing to disk.
      */
@@ -61,6 +127,13 @@ public interface Storage {
      */
     public int undoSize();
     
+    /**
+     * Returns the estimated number of bytes of memory used to hold undo/redo
+     * information.
+     * @return undoMemoryUsage
+     */
+    public long undoMemoryUsage();
+    
     /**
      * Returns the maximum possible number of redos.
      * @return
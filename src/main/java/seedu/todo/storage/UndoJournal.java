@@ -0,0 +1,570 @@
+package seedu.todo.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch;
+import org.bitbucket.cowwoc.diffmatchpatch.DiffMatchPatch.Patch;
+
+import seedu.todo.commons.util.FileUtil;
+import seedu.todo.commons.util.JsonUtil;
+
+// @@author agent
+/**
+ * Persistent undo journal, stored in a directory next to the DB file.
+ *
+ * <ul>
+ * <li>Each entry is a text patch which rolls the DB file back by one commit.
+ * Entries are numbered in commit order, and are stored in segment files of
+ * <code>SEGMENT_SIZE</code> entries each.</li>
+ * <li>Only the newest segment is kept in memory. Older segments are loaded
+ * from disk as undo reaches them, so memory use does not grow with the
+ * length of the history.</li>
+ * <li>The size of every entry is measured, and the oldest segments are
+ * dropped once the journal exceeds its byte budget. Full segments may be
+ * gzipped, as they are only read again by a long undo.</li>
+ * <li>The meta file records a checksum of the DB file which the newest entry
+ * applies to. If the DB file was changed outside of the journal (e.g. by
+ * hand, or by a crash before the journal was updated), the journal is
+ * discarded on open rather than applied to the wrong text.</li>
+ * <li>Every process sharing the DB file shares its journal. The journal must
+ * only be opened and changed while holding the DatabaseFileLock, along with
+ * the write to the DB file which it records. The meta file is read again
+ * before every change, so that entries added or removed by other processes
+ * are picked up, and each change is checked against the DB file it is given
+ * rather than against what this journal last wrote.</li>
+ * </ul>
+ *
+ * Not thread-safe, except for <code>setBudget</code> and
+ * <code>setCompressed</code>. JsonStorage only uses it from its writer thread.
+ */
+public class UndoJournal {
+
+    static final int SEGMENT_SIZE = 50;
+
+    private static final String DIRECTORY_SUFFIX = ".journal";
+    private static final String META_FILE_NAME = "meta.json";
+    private static final String SEGMENT_FILE_FORMAT = "segment-%06d.json";
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    // Rough cost of holding a String in memory, on top of its characters.
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    /**
+     * Contents of the meta file.
+     */
+    private static class Meta {
+        private long first;
+        private int count;
+        private long checksum;
+        
+        // Bytes of patches held by each segment, starting from the one holding entry first.
+        private List<Long> segmentBytes = new ArrayList<Long>();
+
+        private boolean isSameAs(Meta other) {
+            return other != null && first == other.first && count == other.count && checksum == other.checksum
+                    && segmentBytes.equals(other.segmentBytes);
+        }
+    }
+
+    private final DiffMatchPatch dmp = new DiffMatchPatch();
+
+    private File directory;
+    private String currJson;
+    private Meta meta = new Meta();
+    private volatile long budget = Long.MAX_VALUE;
+    private volatile boolean isCompressed = false;
+
+    // The newest segment, which is the only one kept in memory.
+    private long tailSegment = -1;
+    private List<String> tail = new ArrayList<String>();
+
+    /**
+     * Returns the journal directory used for the DB file <code>dbFile</code>.
+     */
+    public static File getDirectory(File dbFile) {
+        return new File(dbFile.getPath() + DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * Opens the journal of <code>dbFile</code>, whose contents are
+     * <code>json</code>. Discards the journal if it does not apply to
+     * <code>json</code>.
+     *
+     * @param dbFile    DB file
+     * @param json      Current contents of the DB file
+     * @return Number of entries in the journal
+     */
+    public int open(File dbFile, String json) {
+        directory = getDirectory(dbFile);
+        currJson = json;
+        tailSegment = -1;
+        tail = new ArrayList<String>();
+
+        meta = readMeta();
+        if (meta == null || meta.checksum != checksum(json)) {
+            clear();
+        }
+        return meta.count;
+    }
+
+    /**
+     * Sets the maximum number of bytes of patches to keep. Once exceeded, the
+     * oldest segments are dropped on the next <code>push</code>, but the
+     * newest segment is always kept.
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Sets whether full segments should be gzipped when written.
+     */
+    public void setCompressed(boolean isCompressed) {
+        this.isCompressed = isCompressed;
+    }
+
+    /**
+     * Returns true if the journal has been opened for <code>dbFile</code>.
+     */
+    public boolean isOpen(File dbFile) {
+        return directory != null && directory.equals(getDirectory(dbFile));
+    }
+
+    /**
+     * Returns the number of entries in the journal.
+     */
+    public int size() {
+        return meta.count;
+    }
+
+    /**
+     * Returns the total size of all patches in the journal, in bytes.
+     */
+    public long getSizeInBytes() {
+        long bytes = 0;
+        for (long segmentBytes : meta.segmentBytes) {
+            bytes += segmentBytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the estimated number of bytes of memory held by the journal,
+     * i.e. by its in-memory segment.
+     */
+    public long estimateMemoryUsage() {
+        long bytes = 0;
+        for (String entry : tail) {
+            bytes += STRING_OVERHEAD_BYTES + 2L * entry.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Records that the DB file has changed from <code>json</code> to
+     * <code>newJson</code>, adding an entry to roll it back. Drops the oldest
+     * segments if the journal is over budget.<br>
+     *
+     * If the journal does not lead up to <code>json</code>, as the DB file
+     * was changed without it, that change is recorded as an entry of its
+     * own, if the contents it was changed from are still known here.
+     * Otherwise, the journal is discarded, as it can no longer be applied.
+     *
+     * @param json      Contents of the DB file before the change, or null if
+     *                  there was no DB file
+     * @param newJson   New contents of the DB file
+     * @return Number of entries dropped
+     * @throws IOException  If the journal could not be written.
+     */
+    public int push(String json, String newJson) throws IOException {
+        int prunedCount = reloadMeta();
+        if (json != null) {
+            if (meta.checksum != checksum(json)) {
+                if (currJson != null && meta.checksum == checksum(currJson)) {
+                    addEntry(json, currJson);
+                } else {
+                    prunedCount += meta.count;
+                    clear();
+                }
+            }
+            addEntry(newJson, json);
+            prunedCount += prune();
+        }
+        currJson = newJson;
+        writeMeta();
+        return prunedCount;
+    }
+
+    /**
+     * Removes the newest entry, and returns the contents of the DB file
+     * rolled back by it.
+     *
+     * @param json  Current contents of the DB file
+     * @return Previous contents of the DB file
+     * @throws IOException  If the journal could not be read or written, or the
+     *                      entry could not be applied cleanly.
+     */
+    public String pop(String json) throws IOException {
+        reloadMeta();
+        if (meta.count == 0) {
+            throw new IOException("Undo journal is empty.");
+        }
+        if (meta.checksum != checksum(json)) {
+            throw new IOException("Undo journal does not apply to the database.");
+        }
+
+        currJson = rollBack(json);
+        removeLastEntry();
+        writeMeta();
+        return currJson;
+    }
+
+    /**
+     * Removes the newest entry, where the caller already knows the DB file to
+     * be rolled back from <code>json</code> to <code>newJson</code>. If the
+     * journal does not lead up to <code>json</code>, it is discarded instead.
+     *
+     * @param json      Current contents of the DB file
+     * @param newJson   Previous contents of the DB file
+     * @return Number of entries dropped, other than the one removed
+     * @throws IOException  If the journal could not be read or written.
+     */
+    public int pop(String json, String newJson) throws IOException {
+        int prunedCount = reloadMeta();
+        if (meta.checksum != checksum(json)) {
+            prunedCount += meta.count;
+            clear();
+        } else if (meta.count > 0) {
+            loadTail(meta.first + meta.count - 1);
+            removeLastEntry();
+        }
+        currJson = newJson;
+        writeMeta();
+        return prunedCount;
+    }
+
+    /**
+     * Records that the DB file has changed from <code>json</code> to
+     * <code>newJson</code> as part of the newest commit, so that its entry
+     * rolls back both at once, and the change never appears as an undo step
+     * of its own. If the journal is empty, nothing is added.<br>
+     *
+     * As with <code>push</code>, a change made to the DB file without the
+     * journal is recorded first if possible, and the journal is discarded
+     * otherwise, as it is if its newest entry no longer applies.
+     *
+     * @param json      Contents of the DB file before the change, or null if
+     *                  there was no DB file
+     * @param newJson   New contents of the DB file
+     * @return Number of entries dropped
+     * @throws IOException  If the journal could not be written.
+     */
+    public int amend(String json, String newJson) throws IOException {
+        int prunedCount = reloadMeta();
+        if (json != null && meta.checksum != checksum(json)) {
+            if (currJson != null && meta.checksum == checksum(currJson)) {
+                addEntry(json, currJson);
+            } else {
+                prunedCount += meta.count;
+                clear();
+            }
+        }
+        if (json != null && meta.count > 0) {
+            String previousJson;
+            try {
+                previousJson = rollBack(json);
+            } catch (IOException e) {
+                previousJson = null;
+            }
+            if (previousJson == null) {
+                prunedCount += meta.count;
+                clear();
+            } else {
+                removeLastEntry();
+                addEntry(newJson, previousJson);
+                prunedCount += prune();
+            }
+        }
+        currJson = newJson;
+        writeMeta();
+        return prunedCount;
+    }
+
+    /**
+     * Moves the journal to follow the DB file to <code>newDbFile</code>.
+     * The journal is discarded if it cannot be moved.
+     */
+    public void move(File newDbFile) {
+        File newDirectory = getDirectory(newDbFile);
+        if (directory != null && directory.exists() && !directory.renameTo(newDirectory)) {
+            clear();
+        }
+        directory = newDirectory;
+    }
+
+    /**
+     * Deletes all entries in the journal.
+     */
+    public void clear() {
+        meta = new Meta();
+        tailSegment = -1;
+        tail = new ArrayList<String>();
+        File[] files = (directory == null) ? null : directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Reads the meta file again, in case another process sharing the DB file
+     * changed the journal since this one last read or wrote it. If so, the
+     * in-memory tail is dropped, to be read again from disk, and a journal
+     * left invalid is discarded.
+     *
+     * @return Number of entries dropped
+     */
+    private int reloadMeta() {
+        Meta diskMeta = readMeta();
+        if (meta.isSameAs(diskMeta)) {
+            return 0;
+        }
+        tailSegment = -1;
+        tail = new ArrayList<String>();
+        if (diskMeta != null) {
+            meta = diskMeta;
+            return 0;
+        }
+        int prunedCount = meta.count;
+        clear();
+        return prunedCount;
+    }
+
+    /**
+     * Reads the meta file.
+     *
+     * @return meta, or null if it is missing or invalid
+     */
+    private Meta readMeta() {
+        Meta diskMeta;
+        try {
+            diskMeta = JsonUtil.fromJsonString(FileUtil.readFromFile(getMetaFile()), Meta.class);
+        } catch (IOException e) {
+            return null;
+        }
+        if (diskMeta == null || diskMeta.count < 0 || diskMeta.segmentBytes == null
+                || diskMeta.segmentBytes.size() != countSegments(diskMeta)) {
+            return null;
+        }
+        return diskMeta;
+    }
+
+    /**
+     * Adds an entry which rolls the DB file back from <code>newJson</code> to
+     * <code>json</code>.
+     */
+    private void addEntry(String newJson, String json) throws IOException {
+        long index = meta.first + meta.count;
+        loadTail(index);
+        String patchText = dmp.patchToText(dmp.patchMake(newJson, json));
+        tail.add(patchText);
+        meta.count++;
+        if (index % SEGMENT_SIZE == 0 || meta.segmentBytes.isEmpty()) {
+            meta.segmentBytes.add(0L);
+        }
+        addTailBytes(measure(patchText));
+        writeTail();
+    }
+
+    /**
+     * Applies the newest entry to <code>json</code>, which it must lead up
+     * to, and returns the contents of the DB file it rolls back to.
+     */
+    private String rollBack(String json) throws IOException {
+        loadTail(meta.first + meta.count - 1);
+        String patchText = tail.get(tail.size() - 1);
+        Object[] result;
+        try {
+            result = dmp.patchApply(new LinkedList<Patch>(dmp.patchFromText(patchText)), json);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Undo journal is corrupted.", e);
+        }
+        for (boolean isApplied : (boolean[]) result[1]) {
+            if (!isApplied) {
+                throw new IOException("Undo journal does not apply to the database.");
+            }
+        }
+        return (String) result[0];
+    }
+
+    /**
+     * Removes the newest entry, which must be in the in-memory tail.
+     */
+    private void removeLastEntry() throws IOException {
+        String patchText = tail.remove(tail.size() - 1);
+        meta.count--;
+        addTailBytes(-measure(patchText));
+        if (tail.isEmpty()) {
+            meta.segmentBytes.remove(meta.segmentBytes.size() - 1);
+        }
+        writeTail();
+    }
+
+    private void addTailBytes(long bytes) {
+        int last = meta.segmentBytes.size() - 1;
+        meta.segmentBytes.set(last, meta.segmentBytes.get(last) + bytes);
+    }
+
+    /**
+     * Drops the oldest segments while the journal is over budget, always
+     * keeping the newest segment.
+     *
+     * @return Number of entries dropped
+     */
+    private int prune() {
+        int prunedCount = 0;
+        while (meta.segmentBytes.size() > 1 && getSizeInBytes() > budget) {
+            long segment = meta.first / SEGMENT_SIZE;
+            int segmentCount = (int) ((segment + 1) * SEGMENT_SIZE - meta.first);
+            meta.segmentBytes.remove(0);
+            meta.first += segmentCount;
+            meta.count -= segmentCount;
+            prunedCount += segmentCount;
+            deleteSegment(segment);
+        }
+        return prunedCount;
+    }
+
+    /**
+     * Returns the number of segments holding the entries of the journal
+     * described by <code>meta</code>.
+     */
+    private static int countSegments(Meta meta) {
+        if (meta.count == 0) {
+            return 0;
+        }
+        long end = meta.first + meta.count;
+        return (int) ((end - 1) / SEGMENT_SIZE - meta.first / SEGMENT_SIZE + 1);
+    }
+
+    private static long measure(String patchText) {
+        return patchText.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Makes the segment holding entry <code>index</code> the in-memory tail,
+     * loading it from disk if necessary. Entries at or beyond the end of the
+     * journal (e.g. left behind by an interrupted write) are dropped.
+     */
+    private void loadTail(long index) throws IOException {
+        long segment = index / SEGMENT_SIZE;
+        if (segment == tailSegment) {
+            return;
+        }
+
+        List<String> entries = new ArrayList<String>();
+        String json = readSegment(segment);
+        if (json != null) {
+            entries.addAll(Arrays.asList(JsonUtil.fromJsonString(json, String[].class)));
+        }
+        long end = meta.first + meta.count;
+        int length = (int) Math.max(0, Math.min(entries.size(), end - segment * SEGMENT_SIZE));
+        tail = new ArrayList<String>(entries.subList(0, length));
+        tailSegment = segment;
+    }
+
+    /**
+     * Writes the in-memory tail to disk. Full segments are gzipped if
+     * compression is enabled.
+     */
+    private void writeTail() throws IOException {
+        if (tail.isEmpty()) {
+            deleteSegment(tailSegment);
+            return;
+        }
+
+        FileUtil.createDirs(directory);
+        File file = getSegmentFile(tailSegment);
+        File compressedFile = getCompressedSegmentFile(tailSegment);
+        String json = JsonUtil.toJsonString(tail);
+        if (isCompressed && tail.size() == SEGMENT_SIZE) {
+            try (OutputStream out = new GZIPOutputStream(new FileOutputStream(compressedFile))) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            file.delete();
+        } else {
+            FileUtil.writeToFile(file, json);
+            compressedFile.delete();
+        }
+    }
+
+    /**
+     * Reads a segment from disk, whether or not it is compressed.
+     *
+     * @return Contents of the segment, or null if it does not exist
+     */
+    private String readSegment(long segment) throws IOException {
+        File compressedFile = getCompressedSegmentFile(segment);
+        if (compressedFile.exists()) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(compressedFile))) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, length);
+                }
+                return new String(out.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+
+        File file = getSegmentFile(segment);
+        return file.exists() ? FileUtil.readFromFile(file) : null;
+    }
+
+    private void deleteSegment(long segment) {
+        getSegmentFile(segment).delete();
+        getCompressedSegmentFile(segment).delete();
+    }
+
+    private void writeMeta() throws IOException {
+        meta.checksum = checksum(currJson);
+        FileUtil.createDirs(directory);
+        FileUtil.writeToFile(getMetaFile(), JsonUtil.toJsonString(meta));
+    }
+
+    private File getMetaFile() {
+        return new File(directory, META_FILE_NAME);
+    }
+
+    private File getSegmentFile(long segment) {
+        return new File(directory, String.format(SEGMENT_FILE_FORMAT, segment));
+    }
+
+    private File getCompressedSegmentFile(long segment) {
+        return new File(directory, String.format(SEGMENT_FILE_FORMAT, segment) + COMPRESSED_SUFFIX);
+    }
+
+    private static long checksum(String json) {
+        CRC32 crc = new CRC32();
+        if (json != null) {
+            crc.update(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return crc.getValue();
+    }
+
+}
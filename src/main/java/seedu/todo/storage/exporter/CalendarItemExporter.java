@@ -0,0 +1,104 @@
+package seedu.todo.storage.exporter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Exports Tasks and Events to CSV, iCalendar or JSON files.
+ *
+ * Items are written to the file as they are pulled from the given streams,
+ * so exporting a large slice of the DB never holds more than one item, and
+ * the writer's buffer, in memory at a time.
+ */
+public class CalendarItemExporter {
+
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String ICS_EXTENSION = ".ics";
+    private static final String JSON_EXTENSION = ".json";
+
+    private final ItemWriter writer;
+    private int taskCount = 0;
+    private int eventCount = 0;
+
+    public CalendarItemExporter(ItemWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Returns true if files of this type can be exported to.
+     */
+    public static boolean isSupported(File file) {
+        String name = file.getName().toLowerCase();
+        return name.endsWith(CSV_EXTENSION) || name.endsWith(ICS_EXTENSION) || name.endsWith(JSON_EXTENSION);
+    }
+
+    /**
+     * Opens an ItemWriter for <code>file</code>, by its extension. The file is
+     * overwritten if it exists.
+     *
+     * @throws IllegalArgumentException if the file type is not supported
+     */
+    public static ItemWriter open(File file) throws IOException {
+        if (!isSupported(file)) {
+            throw new IllegalArgumentException(String.format("Cannot export to %s.", file.getName()));
+        }
+
+        String name = file.getName().toLowerCase();
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        try {
+            if (name.endsWith(CSV_EXTENSION)) {
+                return new CsvItemWriter(out);
+            } else if (name.endsWith(ICS_EXTENSION)) {
+                return new IcsItemWriter(out);
+            } else {
+                return new JsonItemWriter(out);
+            }
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes every Task in <code>tasks</code>. Must be called before
+     * <code>writeEvents</code>.
+     */
+    public void writeTasks(Stream<Task> tasks) throws IOException {
+        Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            writer.writeTask(iterator.next());
+            taskCount++;
+        }
+    }
+
+    /**
+     * Writes every Event in <code>events</code>.
+     */
+    public void writeEvents(Stream<Event> events) throws IOException {
+        Iterator<Event> iterator = events.iterator();
+        while (iterator.hasNext()) {
+            writer.writeEvent(iterator.next());
+            eventCount++;
+        }
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+}
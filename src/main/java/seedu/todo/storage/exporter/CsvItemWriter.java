@@ -0,0 +1,86 @@
+package seedu.todo.storage.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Writes Tasks and Events as rows of a CSV file, with the same columns that
+ * <code>import</code> reads: <code>name,type,from,to,tags,completed</code>.
+ */
+public class CsvItemWriter implements ItemWriter {
+
+    private static final String HEADER = "name,type,from,to,tags,completed\n";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String TYPE_TASK = "task";
+    private static final String TYPE_EVENT = "event";
+    private static final String COMPLETED = "yes";
+    private static final String TAG_SEPARATOR = ";";
+
+    private final Writer writer;
+
+    public CsvItemWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void writeTask(Task task) throws IOException {
+        writeRow(task.getName(), TYPE_TASK, task.getDueDate(), null, task.getTagList(),
+                task.isCompleted() ? COMPLETED : "");
+    }
+
+    @Override
+    public void writeEvent(Event event) throws IOException {
+        writeRow(event.getName(), TYPE_EVENT, event.getStartDate(), event.getEndDate(), event.getTagList(), "");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeRow(String name, String type, LocalDateTime from, LocalDateTime to, List<String> tags,
+            String completed) throws IOException {
+        writeField(name);
+        writer.write(',');
+        writer.write(type);
+        writer.write(',');
+        if (from != null) {
+            writer.write(DATE_FORMAT.format(from));
+        }
+        writer.write(',');
+        if (to != null) {
+            writer.write(DATE_FORMAT.format(to));
+        }
+        writer.write(',');
+        writeField(String.join(TAG_SEPARATOR, tags));
+        writer.write(',');
+        writer.write(completed);
+        writer.write('\n');
+    }
+
+    /**
+     * Writes a field, quoting it if it contains a separator, quote or newline.
+     */
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+                && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
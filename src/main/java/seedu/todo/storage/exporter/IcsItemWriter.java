@@ -0,0 +1,121 @@
+package seedu.todo.storage.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Writes Tasks as <code>VTODO</code>s and Events as <code>VEVENT</code>s of an
+ * iCalendar file. Times are written in local time, without a time zone.
+ */
+public class IcsItemWriter implements ItemWriter {
+
+    private static final String LINE_END = "\r\n";
+    private static final int MAX_LINE_BYTES = 75;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String UID_FORMAT = "%s-%d@getshitdone";
+
+    private final Writer writer;
+    private final String timestamp;
+
+    public IcsItemWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        this.timestamp = DATE_FORMAT.format(LocalDateTime.now(ZoneOffset.UTC)) + "Z";
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//GetShitDone//EN");
+    }
+
+    @Override
+    public void writeTask(Task task) throws IOException {
+        writeLine("BEGIN:VTODO");
+        writeLine("UID:" + String.format(UID_FORMAT, "task", task.getId()));
+        writeLine("DTSTAMP:" + timestamp);
+        writeLine("SUMMARY:" + escape(task.getName()));
+        if (task.getDueDate() != null) {
+            writeLine("DUE:" + DATE_FORMAT.format(task.getDueDate()));
+        }
+        writeCategories(task.getTagList());
+        writeLine("STATUS:" + (task.isCompleted() ? "COMPLETED" : "NEEDS-ACTION"));
+        writeLine("END:VTODO");
+    }
+
+    @Override
+    public void writeEvent(Event event) throws IOException {
+        writeLine("BEGIN:VEVENT");
+        writeLine("UID:" + String.format(UID_FORMAT, "event", event.getId()));
+        writeLine("DTSTAMP:" + timestamp);
+        writeLine("SUMMARY:" + escape(event.getName()));
+        if (event.getStartDate() != null) {
+            writeLine("DTSTART:" + DATE_FORMAT.format(event.getStartDate()));
+        }
+        if (event.getEndDate() != null) {
+            writeLine("DTEND:" + DATE_FORMAT.format(event.getEndDate()));
+        }
+        writeCategories(event.getTagList());
+        writeLine("END:VEVENT");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeLine("END:VCALENDAR");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeCategories(List<String> tags) throws IOException {
+        if (tags.isEmpty()) {
+            return;
+        }
+        StringBuilder categories = new StringBuilder("CATEGORIES:");
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                categories.append(',');
+            }
+            categories.append(escape(tags.get(i)));
+        }
+        writeLine(categories.toString());
+    }
+
+    /**
+     * Writes a content line, folding it onto continuation lines so that no
+     * line is longer than 75 bytes in UTF-8.
+     */
+    private void writeLine(String line) throws IOException {
+        int lineBytes = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int charCount = Character.charCount(codePoint);
+            int codePointBytes = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (lineBytes + codePointBytes > MAX_LINE_BYTES) {
+                writer.write(LINE_END);
+                writer.write(' ');
+                lineBytes = 1;
+            }
+            writer.write(line, i, charCount);
+            lineBytes += codePointBytes;
+            i += charCount;
+        }
+        writer.write(LINE_END);
+    }
+
+    /**
+     * Escapes an iCalendar TEXT value.
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+}
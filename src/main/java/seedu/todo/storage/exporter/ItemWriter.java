@@ -0,0 +1,23 @@
+package seedu.todo.storage.exporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Writes Tasks and Events to a file being exported, one at a time, so that
+ * the exported items never have to be collected in memory.<br>
+ *
+ * All Tasks must be written before any Events. The file is only complete
+ * once the writer has been closed.
+ */
+public interface ItemWriter extends Closeable {
+
+    public void writeTask(Task task) throws IOException;
+
+    public void writeEvent(Event event) throws IOException;
+
+}
@@ -0,0 +1,65 @@
+package seedu.todo.storage.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Writes Tasks and Events as JSON, in the same format as the DB file:
+ * <code>{ "tasks": [...], "events": [...] }</code>. The exported file can
+ * hence be used as a DB file of its own.
+ */
+public class JsonItemWriter implements ItemWriter {
+
+    private static final String TASKS_FIELD = "tasks";
+    private static final String EVENTS_FIELD = "events";
+
+    private final JsonGenerator generator;
+    private boolean isWritingEvents = false;
+
+    public JsonItemWriter(Writer writer) throws IOException {
+        this.generator = JsonUtil.createGenerator(writer);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(TASKS_FIELD);
+    }
+
+    @Override
+    public void writeTask(Task task) throws IOException {
+        if (isWritingEvents) {
+            throw new IllegalStateException("Tasks must be written before Events.");
+        }
+        generator.writeObject(task);
+    }
+
+    @Override
+    public void writeEvent(Event event) throws IOException {
+        startEvents();
+        generator.writeObject(event);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            startEvents();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            generator.close();
+        }
+    }
+
+    private void startEvents() throws IOException {
+        if (!isWritingEvents) {
+            generator.writeEndArray();
+            generator.writeArrayFieldStart(EVENTS_FIELD);
+            isWritingEvents = true;
+        }
+    }
+
+}
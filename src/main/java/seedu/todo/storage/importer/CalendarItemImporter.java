@@ -0,0 +1,130 @@
+package seedu.todo.storage.importer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import seedu.todo.commons.exceptions.ParseException;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * Imports Tasks and Events from CSV and iCalendar files into the DB.
+ *
+ * Items are streamed from the file in chunks, and the dates of each chunk
+ * are parsed in parallel. Nothing is added to the DB unless the whole file
+ * is read successfully, and all items are then added in a single batch, so
+ * that the import is saved once and can be rolled back with a single undo.
+ */
+public class CalendarItemImporter {
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String[] ICS_EXTENSIONS = { ".ics", ".ical", ".ifb" };
+
+    private final List<ImportedItem> items = new ArrayList<ImportedItem>();
+    private int skippedCount = 0;
+
+    /**
+     * Returns true if files of this type can be imported.
+     */
+    public static boolean isSupported(File file) {
+        return isCsv(file) || isIcs(file);
+    }
+
+    /**
+     * Opens an ItemReader for <code>file</code>, by its extension.
+     *
+     * @throws ParseException if the file type is not supported, or its header is malformed
+     */
+    public static ItemReader open(File file) throws IOException, ParseException {
+        if (!isSupported(file)) {
+            throw new ParseException(String.format("Cannot import %s.", file.getName()));
+        }
+
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            return isCsv(file) ? new CsvItemReader(reader) : new IcsItemReader(reader);
+        } catch (IOException | ParseException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads and validates all items from <code>reader</code>. Invalid items
+     * are skipped.
+     *
+     * @throws ParseException if the file is malformed
+     */
+    public void read(ItemReader reader) throws IOException, ParseException {
+        List<ImportedItem> chunk = new ArrayList<ImportedItem>(CHUNK_SIZE);
+        ImportedItem item;
+        while ((item = reader.next()) != null) {
+            chunk.add(item);
+            if (chunk.size() == CHUNK_SIZE) {
+                resolve(chunk);
+                chunk.clear();
+            }
+        }
+        resolve(chunk);
+    }
+
+    /**
+     * Adds all valid items read so far to <code>db</code>, and saves it.
+     *
+     * @return true if the save was successful, false otherwise
+     */
+    public boolean commit(TodoListDB db) {
+        return db.batch(tx -> {
+            for (ImportedItem item : items) {
+                item.addTo(tx);
+            }
+        });
+    }
+
+    /**
+     * Returns the valid items read so far.
+     */
+    public List<ImportedItem> getItems() {
+        return items;
+    }
+
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    private void resolve(List<ImportedItem> chunk) {
+        // Natural dates are slow to parse, so they are parsed on all cores.
+        chunk.parallelStream().forEach(ImportedItem::resolve);
+
+        for (ImportedItem item : chunk) {
+            if (item.isValid()) {
+                items.add(item);
+            } else {
+                skippedCount++;
+            }
+        }
+    }
+
+    private static boolean isCsv(File file) {
+        return file.getName().toLowerCase().endsWith(CSV_EXTENSION);
+    }
+
+    private static boolean isIcs(File file) {
+        String name = file.getName().toLowerCase();
+        for (String extension : ICS_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
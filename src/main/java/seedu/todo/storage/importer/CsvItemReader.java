@@ -0,0 +1,215 @@
+package seedu.todo.storage.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import seedu.todo.commons.exceptions.ParseException;
+import seedu.todo.commons.exceptions.UnmatchedQuotesException;
+
+// @@author agent
+/**
+ * Reads Tasks and Events from a CSV file, one row at a time.
+ *
+ * The first row names the columns, in any order and case. Only the name
+ * column is required:
+ * <ul>
+ * <li><code>name</code> (or <code>title</code>, <code>summary</code>, <code>subject</code>)</li>
+ * <li><code>type</code>: <code>task</code> or <code>event</code>. Rows with an end date are
+ * Events by default, and Tasks otherwise.</li>
+ * <li><code>from</code> (or <code>start</code>, <code>due</code>, <code>by</code>, <code>date</code>):
+ * due date of a Task, or start date of an Event</li>
+ * <li><code>to</code> (or <code>end</code>): end date of an Event</li>
+ * <li><code>tags</code>: separated by spaces, commas or semicolons</li>
+ * <li><code>completed</code> (or <code>done</code>): <code>yes</code>, <code>true</code>,
+ * <code>x</code> or <code>1</code></li>
+ * </ul>
+ * Fields may be quoted, and quoted fields may contain commas, newlines and
+ * <code>""</code> for a quote.
+ */
+public class CsvItemReader implements ItemReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String TAG_SEPARATORS = "[,;\\s]+";
+    private static final String TYPE_TASK = "task";
+    private static final String TYPE_EVENT = "event";
+    private static final List<String> COMPLETED_VALUES = Arrays.asList("yes", "y", "true", "x", "1", "done",
+            "completed");
+
+    private static final String NAME_COLUMN = "name";
+    private static final String TYPE_COLUMN = "type";
+    private static final String FROM_COLUMN = "from";
+    private static final String TO_COLUMN = "to";
+    private static final String TAGS_COLUMN = "tags";
+    private static final String COMPLETED_COLUMN = "completed";
+
+    private static final String MESSAGE_NO_HEADER = "The file is empty.";
+    private static final String MESSAGE_NO_NAME_COLUMN = "The first row must name the columns, including \"name\".";
+    private static final String MESSAGE_UNMATCHED_QUOTES = "Unmatched quotes from line %d.";
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<String, Integer>();
+    private int lineNumber = 0;
+
+    /**
+     * Reads the header row from <code>reader</code>.
+     *
+     * @throws ParseException if there is no header row, or it has no name column
+     */
+    public CsvItemReader(BufferedReader reader) throws IOException, ParseException {
+        this.reader = reader;
+
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ParseException(MESSAGE_NO_HEADER);
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = getColumnName(header.get(i).toLowerCase());
+            if (column != null && !columns.containsKey(column)) {
+                columns.put(column, i);
+            }
+        }
+        if (!columns.containsKey(NAME_COLUMN)) {
+            throw new ParseException(MESSAGE_NO_NAME_COLUMN);
+        }
+    }
+
+    @Override
+    public ImportedItem next() throws IOException, ParseException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty()); // Skip blank lines
+
+        String type = getField(record, TYPE_COLUMN).toLowerCase();
+        ImportedItem item = new ImportedItem(type.equals(TYPE_TASK) ? Boolean.TRUE
+                : type.equals(TYPE_EVENT) ? Boolean.FALSE : null);
+        item.setName(getField(record, NAME_COLUMN));
+        item.setNaturalFrom(emptyToNull(getField(record, FROM_COLUMN)));
+        item.setNaturalTo(emptyToNull(getField(record, TO_COLUMN)));
+        item.setCompleted(COMPLETED_VALUES.contains(getField(record, COMPLETED_COLUMN).toLowerCase()));
+
+        String tags = getField(record, TAGS_COLUMN);
+        if (!tags.isEmpty()) {
+            for (String tag : tags.split(TAG_SEPARATORS)) {
+                if (!tag.isEmpty()) {
+                    item.addTag(tag);
+                }
+            }
+        }
+        return item;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Maps a header to the column it names, or null if it is not a known column.
+     */
+    private static String getColumnName(String header) {
+        switch (header) {
+        case "name" :
+        case "title" :
+        case "summary" :
+        case "subject" :
+            return NAME_COLUMN;
+        case "type" :
+            return TYPE_COLUMN;
+        case "from" :
+        case "start" :
+        case "due" :
+        case "by" :
+        case "date" :
+            return FROM_COLUMN;
+        case "to" :
+        case "end" :
+            return TO_COLUMN;
+        case "tags" :
+        case "tag" :
+            return TAGS_COLUMN;
+        case "completed" :
+        case "done" :
+            return COMPLETED_COLUMN;
+        default :
+            return null;
+        }
+    }
+
+    private String getField(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return "";
+        }
+        return record.get(index);
+    }
+
+    private static String emptyToNull(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    /**
+     * Reads the fields of the next record, which spans more than one line if
+     * a quoted field contains a newline.
+     *
+     * @return fields, or null at the end of the file
+     */
+    private List<String> readRecord() throws IOException, UnmatchedQuotesException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        int firstLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (isQuoted) {
+                    if (c != QUOTE) {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                        field.append(QUOTE);
+                        i++;
+                    } else {
+                        isQuoted = false;
+                    }
+                } else if (c == QUOTE) {
+                    isQuoted = true;
+                } else if (c == SEPARATOR) {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (!isQuoted) {
+                break;
+            }
+
+            // The quoted field continues on the next line.
+            line = reader.readLine();
+            if (line == null) {
+                throw new UnmatchedQuotesException(String.format(MESSAGE_UNMATCHED_QUOTES, firstLineNumber));
+            }
+            lineNumber++;
+            field.append('\n');
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+}
@@ -0,0 +1,198 @@
+package seedu.todo.storage.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import seedu.todo.commons.exceptions.ParseException;
+
+// @@author agent
+/**
+ * Reads Tasks and Events from an iCalendar (.ics) file, one component at a
+ * time. Each <code>VEVENT</code> becomes an Event, and each <code>VTODO</code>
+ * a Task.
+ *
+ * <ul>
+ * <li><code>SUMMARY</code> is the name, and <code>CATEGORIES</code> are the tags.</li>
+ * <li><code>DTSTART</code>/<code>DTEND</code> are the start and end of an Event. An Event
+ * without <code>DTEND</code> ends when it starts.</li>
+ * <li><code>DUE</code> is the due date of a Task, which is completed if it has
+ * <code>STATUS:COMPLETED</code> or <code>COMPLETED</code>.</li>
+ * <li>UTC times are converted to the local time zone. Times with a
+ * <code>TZID</code> are taken to be local already.</li>
+ * </ul>
+ */
+public class IcsItemReader implements ItemReader {
+
+    private static final String BEGIN = "BEGIN";
+    private static final String END = "END";
+    private static final String VEVENT = "VEVENT";
+    private static final String VTODO = "VTODO";
+    private static final String SUMMARY = "SUMMARY";
+    private static final String CATEGORIES = "CATEGORIES";
+    private static final String DTSTART = "DTSTART";
+    private static final String DTEND = "DTEND";
+    private static final String DUE = "DUE";
+    private static final String STATUS = "STATUS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final String UNESCAPED_COMMA = "(?<!\\\\),";
+
+    private static final String MESSAGE_UNTERMINATED = "%s from line %d has no END.";
+
+    private final BufferedReader reader;
+    private String nextLine;
+    private int lineNumber = 0;
+
+    public IcsItemReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        this.nextLine = reader.readLine();
+    }
+
+    @Override
+    public ImportedItem next() throws IOException, ParseException {
+        ImportedItem item = null;
+        String component = null;
+        int componentLineNumber = 0;
+        int nestedDepth = 0; // Depth of components within the item, e.g. VALARM
+        boolean isEventWithoutEnd = true;
+
+        String line;
+        while ((line = readUnfoldedLine()) != null) {
+            int colon = findValueSeparator(line);
+            if (colon < 0) {
+                continue;
+            }
+            String propertyParams = line.substring(0, colon);
+            int semicolon = propertyParams.indexOf(';');
+            String property = (semicolon < 0 ? propertyParams : propertyParams.substring(0, semicolon))
+                    .toUpperCase();
+            String value = line.substring(colon + 1);
+
+            if (item == null) {
+                if (property.equals(BEGIN) && (value.equalsIgnoreCase(VEVENT) || value.equalsIgnoreCase(VTODO))) {
+                    component = value.toUpperCase();
+                    componentLineNumber = lineNumber;
+                    item = new ImportedItem(component.equals(VTODO));
+                }
+                continue;
+            }
+
+            if (property.equals(BEGIN)) {
+                nestedDepth++;
+            } else if (property.equals(END) && nestedDepth > 0) {
+                nestedDepth--;
+            } else if (property.equals(END)) {
+                if (!item.isTask() && isEventWithoutEnd) {
+                    item.setNaturalTo(item.getNaturalFrom());
+                }
+                return item;
+            } else if (nestedDepth == 0) {
+                switch (property) {
+                case SUMMARY :
+                    item.setName(unescape(value).trim());
+                    break;
+                case CATEGORIES :
+                    for (String tag : value.split(UNESCAPED_COMMA)) {
+                        String unescaped = unescape(tag).trim();
+                        if (!unescaped.isEmpty()) {
+                            item.addTag(unescaped);
+                        }
+                    }
+                    break;
+                case DTSTART :
+                    if (!item.isTask()) {
+                        item.setNaturalFrom(value.trim());
+                    }
+                    break;
+                case DTEND :
+                    if (!item.isTask()) {
+                        item.setNaturalTo(value.trim());
+                        isEventWithoutEnd = false;
+                    }
+                    break;
+                case DUE :
+                    item.setNaturalFrom(value.trim());
+                    break;
+                case STATUS :
+                    item.setCompleted(value.trim().equalsIgnoreCase(COMPLETED));
+                    break;
+                case COMPLETED :
+                    item.setCompleted(true);
+                    break;
+                default :
+                    break;
+                }
+            }
+        }
+
+        if (item != null) {
+            throw new ParseException(String.format(MESSAGE_UNTERMINATED, component, componentLineNumber));
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next content line, joining any continuation lines (those
+     * starting with a space or tab) onto it.
+     *
+     * @return line, or null at the end of the file
+     */
+    private String readUnfoldedLine() throws IOException {
+        if (nextLine == null) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder(nextLine);
+        lineNumber++;
+        while ((nextLine = reader.readLine()) != null
+                && !nextLine.isEmpty() && (nextLine.charAt(0) == ' ' || nextLine.charAt(0) == '\t')) {
+            line.append(nextLine, 1, nextLine.length());
+            lineNumber++;
+        }
+        return line.toString();
+    }
+
+    /**
+     * Finds the colon which separates the property and its parameters from
+     * the value, skipping any colons within quoted parameter values.
+     *
+     * @return index of the colon, or -1 if there is none
+     */
+    private static int findValueSeparator(String line) {
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ':' && !isQuoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Unescapes an iCalendar TEXT value.
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+}
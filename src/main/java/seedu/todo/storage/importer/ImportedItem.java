@@ -0,0 +1,203 @@
+package seedu.todo.storage.importer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+
+import seedu.todo.commons.exceptions.InvalidNaturalDateException;
+import seedu.todo.controllers.concerns.DateParser;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+
+// @@author agent
+/**
+ * A Task or Event read from an imported file, before it is added to the DB.
+ *
+ * Dates are read as strings, and only parsed by <code>resolve</code>, so
+ * that the parsing can be spread across threads. Dates in ISO
+ * (<code>2016-10-10 11:35</code>) or iCalendar (<code>20161010T113500Z</code>)
+ * format are parsed directly; anything else is parsed as a natural date.
+ */
+public class ImportedItem {
+
+    private static final DateTimeFormatter ISO_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd[['T'][' ']HH:mm[:ss]]");
+    private static final DateTimeFormatter ICAL_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd['T'HHmmss]");
+    private static final String ICAL_UTC_SUFFIX = "Z";
+
+    private Boolean isTask;
+    private String name;
+    private String naturalFrom;
+    private String naturalTo;
+    private List<String> tags = new ArrayList<String>();
+    private boolean isCompleted = false;
+
+    private LocalDateTime dateFrom;
+    private LocalDateTime dateTo;
+    private boolean isValid = false;
+
+    /**
+     * @param isTask    true for a Task, false for an Event, or null to decide
+     *                  by whether the item has an end date
+     */
+    public ImportedItem(Boolean isTask) {
+        this.isTask = isTask;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param naturalFrom   Due date of a Task or start date of an Event
+     */
+    public void setNaturalFrom(String naturalFrom) {
+        this.naturalFrom = naturalFrom;
+    }
+
+    public String getNaturalFrom() {
+        return naturalFrom;
+    }
+
+    /**
+     * @param naturalTo     End date of an Event
+     */
+    public void setNaturalTo(String naturalTo) {
+        this.naturalTo = naturalTo;
+    }
+
+    public String getNaturalTo() {
+        return naturalTo;
+    }
+
+    public void addTag(String tag) {
+        tags.add(tag);
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setCompleted(boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    public boolean isTask() {
+        return isTask == null ? naturalTo == null : isTask;
+    }
+
+    public LocalDateTime getDateFrom() {
+        return dateFrom;
+    }
+
+    public LocalDateTime getDateTo() {
+        return dateTo;
+    }
+
+    public boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Parses the dates and validates the item, with the same rules as
+     * <code>add</code>. Items are independent, so this may be called on
+     * different items concurrently.
+     *
+     * @return true if the item is valid, false otherwise
+     */
+    public boolean resolve() {
+        try {
+            dateFrom = parseDate(naturalFrom);
+            dateTo = parseDate(naturalTo);
+        } catch (InvalidNaturalDateException e) {
+            isValid = false;
+            return isValid;
+        }
+
+        boolean isTask = isTask();
+        isValid = !(name == null || name.isEmpty()                 // Invalid name
+                || (isTask && dateTo != null)                       // Task with dateTo
+                || (!isTask && (dateFrom == null || dateTo == null)) // Event without both dates
+                || (!isTask && dateTo.isBefore(dateFrom)));         // Event with dateTo before dateFrom
+        return isValid;
+    }
+
+    /**
+     * Creates the item in <code>db</code>. Does not save the DB.
+     */
+    public void addTo(TodoListDB db) {
+        if (isTask()) {
+            Task task = db.createTask();
+            task.setName(name);
+            task.setDueDate(dateFrom);
+            if (isCompleted) {
+                task.setCompleted();
+            }
+            for (String tag : tags) {
+                if (task.addTag(tag)) {
+                    db.updateTagList(tag);
+                }
+            }
+        } else {
+            Event event = db.createEvent();
+            event.setName(name);
+            event.setStartDate(dateFrom);
+            event.setEndDate(dateTo);
+            for (String tag : tags) {
+                if (event.addTag(tag)) {
+                    db.updateTagList(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses an ISO, iCalendar or natural date.
+     *
+     * @return LocalDateTime, or null if <code>date</code> is empty
+     */
+    private static LocalDateTime parseDate(String date) throws InvalidNaturalDateException {
+        if (date == null || date.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return toLocalDateTime(ISO_FORMAT.parseBest(date, LocalDateTime::from, LocalDate::from));
+        } catch (DateTimeParseException e) {
+            // Not an ISO date.
+        }
+
+        try {
+            if (date.endsWith(ICAL_UTC_SUFFIX)) {
+                String localDate = date.substring(0, date.length() - ICAL_UTC_SUFFIX.length());
+                return LocalDateTime.parse(localDate, ICAL_FORMAT).atOffset(ZoneOffset.UTC)
+                        .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return toLocalDateTime(ICAL_FORMAT.parseBest(date, LocalDateTime::from, LocalDate::from));
+        } catch (DateTimeParseException e) {
+            // Not an iCalendar date.
+        }
+
+        return DateParser.parseNatural(date);
+    }
+
+    private static LocalDateTime toLocalDateTime(TemporalAccessor parsed) {
+        if (parsed instanceof LocalDate) {
+            return ((LocalDate) parsed).atStartOfDay();
+        }
+        return (LocalDateTime) parsed;
+    }
+
+}
@@ -0,0 +1,23 @@
+package seedu.todo.storage.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import seedu.todo.commons.exceptions.ParseException;
+
+// @@author agent
+/**
+ * Reads Tasks and Events one at a time from a file being imported, so that
+ * the whole file never has to be held in memory.
+ */
+public interface ItemReader extends Closeable {
+
+    /**
+     * Reads the next item from the file.
+     *
+     * @return ImportedItem, or null if there are no more items
+     * @throws ParseException if the file is malformed
+     */
+    public ImportedItem next() throws IOException, ParseException;
+
+}
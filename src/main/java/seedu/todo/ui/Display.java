@@ -0,0 +1,47 @@
+package seedu.todo.ui;
+
+import java.util.List;
+
+import seedu.todo.commons.IndexCursor;
+import seedu.todo.commons.core.CommandDefinition;
+
+// @@author agent
+/**
+ * Where controllers show their results, through the Renderer.
+ *
+ * Implementations must assign display indices to the Tasks and Events they
+ * show (through the EphemeralDB), so that later commands can refer to them.
+ */
+public interface Display {
+
+    /**
+     * Shows the first page of <code>cursor</code>, along with all tags in the
+     * DB. Display indices start from 1.
+     */
+    void showIndex(IndexCursor cursor, List<String> tags);
+
+    /**
+     * Shows the next page of <code>cursor</code> after the pages already shown.
+     * Display indices carry on from the last page.
+     */
+    void showNextPage(IndexCursor cursor);
+
+    /** Shows the syntax of the given commands. */
+    void showHelp(List<CommandDefinition> commandDefinitions);
+
+    /** Shows all config settings. */
+    void showConfig();
+
+    /** Shows all aliases. */
+    void showAliases();
+
+    /** Shows a message in response to the last command. */
+    void showMessage(String message);
+
+    /** Suggests a corrected command for the user to fix and re-enter. */
+    void showInputValue(String inputValue);
+
+    /** Updates the app title. */
+    void setTitle(String title);
+
+}
@@ -0,0 +1,76 @@
+package seedu.todo.ui;
+
+import java.util.List;
+
+import seedu.todo.commons.IndexCursor;
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.ui.views.AliasView;
+import seedu.todo.ui.views.ConfigView;
+import seedu.todo.ui.views.HelpView;
+import seedu.todo.ui.views.IndexView;
+
+// @@author agent
+/**
+ * Display which renders views in the JavaFX MainWindow, through the UiManager.
+ * Does nothing if the UiManager has not been started.
+ */
+public class GuiDisplay implements Display {
+
+    @Override
+    public void showIndex(IndexCursor cursor, List<String> tags) {
+        IndexView view = UiManager.loadView(IndexView.class);
+        if (view == null) {
+            return;
+        }
+
+        view.cursor = cursor;
+        view.tags = tags;
+        UiManager.renderView(view);
+    }
+
+    @Override
+    public void showNextPage(IndexCursor cursor) {
+        if (UiManager.currentView instanceof IndexView) {
+            ((IndexView) UiManager.currentView).loadNextPage();
+        }
+    }
+
+    @Override
+    public void showHelp(List<CommandDefinition> commandDefinitions) {
+        HelpView view = UiManager.loadView(HelpView.class);
+        if (view == null) {
+            return;
+        }
+
+        view.commandDefinitions = commandDefinitions;
+        UiManager.renderView(view);
+    }
+
+    @Override
+    public void showConfig() {
+        UiManager.renderView(UiManager.loadView(ConfigView.class));
+    }
+
+    @Override
+    public void showAliases() {
+        UiManager.renderView(UiManager.loadView(AliasView.class));
+    }
+
+    @Override
+    public void showMessage(String message) {
+        UiManager.updateConsoleMessage(message);
+    }
+
+    @Override
+    public void showInputValue(String inputValue) {
+        UiManager.updateConsoleInputValue(inputValue);
+    }
+
+    @Override
+    public void setTitle(String title) {
+        if (UiManager.getInstance() != null) {
+            UiManager.getInstance().getMainWindow().setTitle(title);
+        }
+    }
+
+}
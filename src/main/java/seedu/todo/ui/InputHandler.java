@@ -5,9 +5,12 @@ import java.util.ListIterator;
 import java.util.Map;
 
 import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.MetricsCenter;
+import seedu.todo.commons.core.MetricsCenter.Stage;
 import seedu.todo.commons.exceptions.ParseException;
 import seedu.todo.commons.util.StringUtil;
 import seedu.todo.controllers.*;
+import seedu.todo.models.TodoListDB;
 
 // @@author A0139812A
 /**
@@ -38,7 +41,7 @@ public class InputHandler {
     /**
      * Gets the current input handler instance.
      */
-    public static InputHandler getInstance() {
+    public static synchronized InputHandler getInstance() {
         if (instance == null) {
             instance = new InputHandler();
         }
@@ -95,12 +98,26 @@ public class InputHandler {
     /**
      * Processes the command. Returns true if the command was intercepted by a controller, false if otherwise.
      * If the command was not intercepted by a controller, it means that the command was not recognized.
+     * The command has exclusive access to the TodoListDB while it runs.
      */
     public boolean processInput(String input) {
+        long start = MetricsCenter.start();
+        try {
+            return TodoListDB.write(() -> processCommand(input));
+        } finally {
+            MetricsCenter.getInstance().record(Stage.COMMAND, start);
+        }
+    }
+
+    private boolean processCommand(String input) {
+        MetricsCenter metrics = MetricsCenter.getInstance();
         
+        long aliasStart = MetricsCenter.start();
         Map<String, String> aliases = ConfigCenter.getInstance().getConfig().getAliases();
         String aliasedInput = StringUtil.replaceAliases(input, aliases);
+        metrics.record(Stage.ALIAS, aliasStart);
         
+        long dispatchStart = MetricsCenter.start();
         Controller[] controllers = instantiateAllControllers();
         
         // Extract keyword.
@@ -108,6 +125,7 @@ public class InputHandler {
 
         // Get controller which has the maximum confidence.
         Controller matchingController = getMatchingController(keyword, controllers);
+        metrics.record(Stage.DISPATCH, dispatchStart);
 
         // If command keyword did not match any controllers, console will show invalid command.
         if (matchingController == null) {
@@ -132,6 +150,18 @@ public class InputHandler {
         return true;
     }
 
+    /**
+     * Gets the controller which would process the command, or null if the command was not recognized.
+     *
+     * @param input     Raw user input
+     * @return          Matching controller
+     */
+    public Controller getMatchingController(String input) {
+        Map<String, String> aliases = ConfigCenter.getInstance().getConfig().getAliases();
+        String keyword = extractKeyword(StringUtil.replaceAliases(input, aliases));
+        return getMatchingController(keyword, instantiateAllControllers());
+    }
+
     /**
      * Process an input/aliasedInput with a selected controller.
      * 
@@ -210,6 +240,7 @@ public class InputHandler {
                                   new HelpController(),
                                   new AddController(),
                                   new ListController(),
+                                  new NextController(),
                                   new DestroyController(),
                                   new CompleteTaskController(),
                                   new UncompleteTaskController(),
@@ -221,6 +252,9 @@ public class InputHandler {
                                   new FindController(),
                                   new TagController(),
                                   new UntagController(),
+                                  new StatsController(),
+                                  new ImportController(),
+                                  new ExportController(),
                                   new ExitController() };
     }
 
@@ -0,0 +1,139 @@
+package seedu.todo.ui;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import seedu.todo.commons.EphemeralDB;
+import seedu.todo.commons.IndexCursor;
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.core.ConfigDefinition;
+import seedu.todo.commons.util.DateUtil;
+import seedu.todo.commons.util.StringUtil;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+// @@author agent
+/**
+ * Display which writes plain text to a PrintStream, for running without the
+ * GUI. Lists Tasks and Events in the same order, and with the same display
+ * indices, as the TaskList, a page at a time.
+ */
+public class TextDisplay implements Display {
+
+    private static final String NO_DATE_STRING = "No Deadline";
+    private static final String DATE_HEADER_FORMAT = "%s (%s)\n";
+    private static final String EVENT_FORMAT = "  %d. %s, %s%s\n";
+    private static final String TASK_FORMAT = "  %d. [%s] %s%s%s\n";
+    private static final String TAGS_FORMAT = " %s";
+    private static final String TIME_FORMAT = ", %s";
+    private static final String COMPLETED_MARK = "x";
+    private static final String INCOMPLETE_MARK = " ";
+    private static final String EMPTY_INDEX = "Nothing to show.\n";
+    private static final String HELP_FORMAT = "  %-16s %s\n";
+    private static final String CONFIG_FORMAT = "  %s (%s): %s\n";
+    private static final String ALIAS_FORMAT = "  %s -> %s\n";
+    private static final String INPUT_VALUE_FORMAT = "Try: %s";
+
+    private final PrintStream out;
+
+    /**
+     * @param out   Stream to write to. Writes are not flushed.
+     */
+    public TextDisplay(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void showIndex(IndexCursor cursor, List<String> tags) {
+        EphemeralDB.getInstance().clearDisplayedCalendarItems();
+        if (!cursor.hasNext()) {
+            out.print(EMPTY_INDEX);
+            return;
+        }
+        showNextPage(cursor);
+    }
+
+    @Override
+    public void showNextPage(IndexCursor cursor) {
+        EphemeralDB ephemeralDb = EphemeralDB.getInstance();
+        StringBuilder text = new StringBuilder();
+        for (IndexCursor.DateGroup group : cursor.nextPage()) {
+            LocalDateTime date = group.dateTime;
+            if (date == DateUtil.NO_DATETIME_VALUE) {
+                text.append(NO_DATE_STRING).append('\n');
+            } else {
+                text.append(String.format(DATE_HEADER_FORMAT, DateUtil.formatDay(date),
+                        DateUtil.formatShortDate(date)));
+            }
+
+            // Events are listed before Tasks under each date, as in the TaskList.
+            for (Event event : group.events) {
+                int displayIndex = ephemeralDb.addToDisplayedCalendarItems(event);
+                text.append(String.format(EVENT_FORMAT, displayIndex, event.getName(),
+                        DateUtil.formatDateFromTo(event.getStartDate(), event.getEndDate()),
+                        formatTags(event.getTagList())));
+            }
+            for (Task task : group.tasks) {
+                int displayIndex = ephemeralDb.addToDisplayedCalendarItems(task);
+                LocalDateTime dateTime = task.getCalendarDateTime();
+                text.append(String.format(TASK_FORMAT, displayIndex,
+                        task.isCompleted() ? COMPLETED_MARK : INCOMPLETE_MARK, task.getName(),
+                        dateTime == null ? "" : String.format(TIME_FORMAT, DateUtil.formatTime(dateTime)),
+                        formatTags(task.getTagList())));
+            }
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void showHelp(List<CommandDefinition> commandDefinitions) {
+        StringBuilder text = new StringBuilder();
+        for (CommandDefinition command : commandDefinitions) {
+            text.append(String.format(HELP_FORMAT, command.getCommandName(), command.getCommandSyntax()));
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void showConfig() {
+        StringBuilder text = new StringBuilder();
+        for (ConfigDefinition config : ConfigCenter.getInstance().getConfig().getDefinitions()) {
+            text.append(String.format(CONFIG_FORMAT, config.getConfigDescription(), config.getConfigName(),
+                    config.getConfigValue()));
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void showAliases() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> alias : ConfigCenter.getInstance().getConfig().getAliases().entrySet()) {
+            text.append(String.format(ALIAS_FORMAT, alias.getKey(), alias.getValue()));
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void showMessage(String message) {
+        out.println(message);
+    }
+
+    @Override
+    public void showInputValue(String inputValue) {
+        out.println(String.format(INPUT_VALUE_FORMAT, inputValue));
+    }
+
+    @Override
+    public void setTitle(String title) {
+        // There is no window to title.
+    }
+
+    private static String formatTags(ArrayList<String> tags) {
+        return tags.isEmpty() ? "" : String.format(TAGS_FORMAT, StringUtil.checkEmptyList(tags));
+    }
+
+}
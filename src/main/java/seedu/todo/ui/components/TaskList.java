@@ -1,20 +1,11 @@
 package seedu.todo.ui.components;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.HashMap;
-import java.util.HashSet;
 
 import javafx.fxml.FXML;
 import javafx.scene.layout.VBox;
 import seedu.todo.commons.EphemeralDB;
-import seedu.todo.commons.util.DateUtil;
-import seedu.todo.models.CalendarItem;
-import seedu.todo.models.Event;
-import seedu.todo.models.Task;
+import seedu.todo.commons.IndexCursor;
 
 //@@author A0139812A
 public class TaskList extends Component {
@@ -25,8 +16,7 @@ public class TaskList extends Component {
     private static EphemeralDB ephemeralDb = EphemeralDB.getInstance();
 
     // Props
-    public List<Task> tasks = new ArrayList<>();
-    public List<Event> events = new ArrayList<>();
+    public IndexCursor cursor = new IndexCursor(null, null);
 
     // FXML
     @FXML
@@ -48,61 +38,22 @@ public class TaskList extends Component {
         // Clears displayedCalendarItems in EphemeralDB.
         ephemeralDb.clearDisplayedCalendarItems();
 
-        // Get a list of tasks mapped to each date
-        Map<LocalDateTime, ArrayList<Task>> tasksByDate = getItemsByDate(tasks);
-        Map<LocalDateTime, ArrayList<Event>> eventsByDate = getItemsByDate(events);
-
-        // Get unique task/event dates
-        Set<LocalDateTime> uniqueDateSet = new HashSet<>();
-        uniqueDateSet.addAll(tasksByDate.keySet());
-        uniqueDateSet.addAll(eventsByDate.keySet());
-        
-        // Sort the dates
-        List<LocalDateTime> sortedUniqueDates = new ArrayList<>();
-        sortedUniqueDates.addAll(uniqueDateSet);
-        java.util.Collections.sort(sortedUniqueDates);
+        loadNextPage();
+    }
 
-        // For each dateTime, individually render a single TaskListDateItem.
-        for (LocalDateTime dateTime : sortedUniqueDates) {
-            List<Task> tasksForDate = tasksByDate.get(dateTime);
-            List<Event> eventsForDate = eventsByDate.get(dateTime);
-            
+    /**
+     * Renders the next page of the cursor after the items already rendered.
+     * Only the items on the page are loaded into the TaskList.
+     */
+    public void loadNextPage() {
+        // For each date on the page, individually render a single TaskListDateItem.
+        for (IndexCursor.DateGroup group : cursor.nextPage()) {
             TaskListDateItem item = load(primaryStage, taskListDateItemsPlaceholder, TaskListDateItem.class);
-            item.dateTime = dateTime;
-            
-            if (tasksForDate != null) {
-                item.tasks = tasksForDate;
-            }
-            
-            if (eventsForDate != null) {
-                item.events = eventsForDate;
-            }
-            
+            item.dateTime = group.dateTime;
+            item.tasks = group.tasks;
+            item.events = group.events;
             item.render();
         }
     }
 
-    private <T extends CalendarItem> Map<LocalDateTime, ArrayList<T>> getItemsByDate(List<T> calendarItems) {
-        Map<LocalDateTime, ArrayList<T>> itemsByDate = new HashMap<>();
-
-        for (T item : calendarItems) {
-            LocalDateTime itemDate = DateUtil.floorDate(item.getCalendarDateTime());
-            
-            // Handle tasks without a date
-            if (itemDate == null) {
-                itemDate = NO_DATE_VALUE;
-            }
-
-            // Creates ArrayList if not already exists.
-            if (!itemsByDate.containsKey(itemDate)) {
-                itemsByDate.put(itemDate, new ArrayList<T>());
-            }
-            
-            // Adds to the ArrayList.
-            itemsByDate.get(itemDate).add(item);
-        }
-
-        return itemsByDate;
-    }
-
 }
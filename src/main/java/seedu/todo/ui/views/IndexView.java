@@ -4,10 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javafx.fxml.FXML;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.Pane;
+import seedu.todo.commons.IndexCursor;
 import seedu.todo.commons.util.FxViewUtil;
-import seedu.todo.models.Event;
-import seedu.todo.models.Task;
 import seedu.todo.ui.components.Sidebar;
 import seedu.todo.ui.components.TaskList;
 
@@ -24,12 +24,15 @@ public class IndexView extends View {
     private Pane tagsPane;
     @FXML
     private Pane tasksPane;
+    @FXML
+    private ScrollPane tasksScrollPane;
 
     // Props
-    public List<Event> events = new ArrayList<>();
-    public List<Task> tasks = new ArrayList<>();
+    public IndexCursor cursor = new IndexCursor(null, null);
     public List<String> tags = new ArrayList<>();
 
+    private TaskList taskList;
+
     @Override
     public String getFxmlPath() {
         return FXML_PATH;
@@ -51,10 +54,25 @@ public class IndexView extends View {
         tagList.render();
 
         // Render TaskList
-        TaskList taskList = load(primaryStage, tasksPane, TaskList.class);
-        taskList.tasks = tasks;
-        taskList.events = events;
+        taskList = load(primaryStage, tasksPane, TaskList.class);
+        taskList.cursor = cursor;
         taskList.render();
+
+        // Load the next page when scrolled to the bottom.
+        tasksScrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= tasksScrollPane.getVmax()) {
+                loadNextPage();
+            }
+        });
+    }
+
+    /**
+     * Shows the next page of the cursor below the TaskList, if there is one.
+     */
+    public void loadNextPage() {
+        if (taskList != null && cursor.hasNext()) {
+            taskList.loadNextPage();
+        }
     }
 
 }
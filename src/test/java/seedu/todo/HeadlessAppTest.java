@@ -0,0 +1,111 @@
+package seedu.todo;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import seedu.todo.commons.EphemeralDB;
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.controllers.concerns.Renderer;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.ui.TextDisplay;
+
+//@@author agent
+public class HeadlessAppTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Config config;
+    private String oldDatabaseFilePath;
+    private ByteArrayOutputStream output;
+    private HeadlessApp app;
+
+    @Before
+    public void setUp() throws Exception {
+        String configFilePath = new File(folder.getRoot(), "config.json").getPath();
+        // Only read if no other test has loaded the config yet
+        ConfigCenter.getInstance().setConfigFilePath(configFilePath);
+        config = ConfigCenter.getInstance().getConfig();
+        oldDatabaseFilePath = config.getDatabaseFilePath();
+        config.setDatabaseFilePath(new File(folder.getRoot(), "database.json").getPath());
+
+        output = new ByteArrayOutputStream();
+        app = new HeadlessApp(new PrintStream(output, false, StandardCharsets.UTF_8.name()));
+        app.init(configFilePath);
+    }
+
+    @After
+    public void tearDown() {
+        app.stop();
+        config.setDatabaseFilePath(oldDatabaseFilePath);
+        Renderer.setDisplay(new TextDisplay(System.out));
+        EphemeralDB.getInstance().clearDisplayedCalendarItems();
+    }
+
+    private List<String> run(String... commands) throws Exception {
+        app.run(new BufferedReader(new StringReader(String.join("\n", commands))), false);
+        app.stop();
+        return Arrays.asList(output.toString(StandardCharsets.UTF_8.name()).split("\\r?\\n"));
+    }
+
+    private static List<String> echoes(List<String> lines) {
+        List<String> echoes = new ArrayList<String>();
+        for (String line : lines) {
+            if (line.startsWith("> ")) {
+                echoes.add(line);
+            }
+        }
+        return echoes;
+    }
+
+    @Test
+    public void run_commands_echoedAndRendered() throws Exception {
+        List<String> lines = run("add Buy milk", "list");
+        assertEquals(Arrays.asList("> add Buy milk", "> list"), echoes(lines));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("[ ] Buy milk")));
+        assertFalse(app.isExiting());
+        assertEquals(1, TodoListDB.getInstance().getAllTasks().stream()
+                .filter(task -> "Buy milk".equals(task.getName())).count());
+    }
+
+    @Test
+    public void run_invalidCommand_reported() throws Exception {
+        List<String> lines = run("qwertyuiop");
+        int echo = lines.indexOf("> qwertyuiop");
+        assertTrue(echo >= 0);
+        assertEquals("Invalid command!", lines.get(echo + 1));
+    }
+
+    @Test
+    public void run_blankLinesAndComments_skipped() throws Exception {
+        List<String> lines = run("", "   ", "# add Commented out", "  # list", "list");
+        assertEquals(Arrays.asList("> list"), echoes(lines));
+        assertFalse(lines.stream().anyMatch(line -> line.contains("Commented out")));
+    }
+
+    @Test
+    public void run_exit_laterCommandsIgnored() throws Exception {
+        List<String> lines = run("list", "exit", "add After exit", "list");
+        assertEquals(Arrays.asList("> list", "> exit"), echoes(lines));
+        assertTrue(app.isExiting());
+        assertFalse(TodoListDB.getInstance().getAllTasks().stream()
+                .anyMatch(task -> "After exit".equals(task.getName())));
+
+        // Further input is ignored once exiting
+        assertEquals(Arrays.asList("> list", "> exit"), echoes(run("list")));
+    }
+
+}
@@ -0,0 +1,93 @@
+package seedu.todo.benchmarks;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.JsonStorage;
+
+//@@author agent
+public class DatabaseGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Config config;
+    private String oldDatabaseFilePath;
+    private Map<String, String> oldAliases;
+
+    @Before
+    public void setUp() {
+        // Only read if no other test has loaded the config yet
+        ConfigCenter.getInstance().setConfigFilePath(new File(folder.getRoot(), "config.json").getPath());
+        config = ConfigCenter.getInstance().getConfig();
+        oldDatabaseFilePath = config.getDatabaseFilePath();
+        oldAliases = new LinkedHashMap<String, String>(config.getAliases());
+    }
+
+    @After
+    public void tearDown() {
+        config.setDatabaseFilePath(oldDatabaseFilePath);
+        config.getAliases().clear();
+        config.getAliases().putAll(oldAliases);
+    }
+
+    private static List<String> names(TodoListDB db) {
+        List<String> names = new ArrayList<String>();
+        for (Task task : db.getAllTasks()) {
+            names.add(task.getName());
+        }
+        for (Event event : db.getAllEvents()) {
+            names.add(event.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void generate_counts_itemsOfEachKind() throws Exception {
+        TodoListDB db = new DatabaseGenerator().setTaskCount(120).setEventCount(30)
+                .setTags(new String[] { "a", "b", "c" }, 2).generate();
+        assertEquals(120, db.getAllTasks().size());
+        assertEquals(30, db.getAllEvents().size());
+        for (Task task : db.getAllTasks()) {
+            assertTrue(task.getTagList().size() <= 2);
+        }
+    }
+
+    @Test
+    public void generate_sameSeed_sameDB() throws Exception {
+        DatabaseGenerator generator = new DatabaseGenerator().setSeed(42).setTaskCount(50).setEventCount(50);
+        assertEquals(names(generator.generate()), names(generator.generate()));
+        assertNotEquals(names(generator.generate()), names(generator.setSeed(43).generate()));
+    }
+
+    @Test
+    public void install_items_writtenAndLoadedBack() throws Exception {
+        Map<String, String> aliases = new LinkedHashMap<String, String>();
+        aliases.put("ls", "list");
+        DatabaseGenerator generator = new DatabaseGenerator().setTaskCount(700).setEventCount(300)
+                .setAliases(aliases);
+        File databaseFile = generator.install(folder.getRoot());
+
+        assertTrue(databaseFile.exists());
+        assertEquals(databaseFile.getPath(), config.getDatabaseFilePath());
+        assertEquals(aliases, config.getAliases());
+        TodoListDB db = new JsonStorage().load();
+        assertEquals(700, db.getAllTasks().size());
+        assertEquals(300, db.getAllEvents().size());
+        assertEquals(names(generator.generate()), names(db));
+    }
+
+}
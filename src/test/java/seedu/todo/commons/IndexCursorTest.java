@@ -0,0 +1,165 @@
+package seedu.todo.commons;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import seedu.todo.commons.util.DateUtil;
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.ui.TextDisplay;
+
+//@@author agent
+public class IndexCursorTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2016, 10, 10, 9, 0);
+
+    private static Task task(String name, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setName(name);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    private static Event event(String name, LocalDateTime startDate) {
+        Event event = new Event();
+        event.setName(name);
+        event.setStartDate(startDate);
+        event.setEndDate(startDate.plusHours(1));
+        return event;
+    }
+
+    @Test
+    public void nextPage_mixedItems_displayOrder() {
+        Task later = task("later", DAY.plusDays(1));
+        Task undated = task("undated", null);
+        Task sameDay = task("same day", DAY.plusHours(5));
+        Event event = event("event", DAY.plusHours(8));
+        IndexCursor cursor = new IndexCursor(Arrays.asList(later, undated, sameDay), Arrays.asList(event));
+
+        List<IndexCursor.DateGroup> page = cursor.nextPage();
+        assertEquals(3, page.size());
+        assertSame(DateUtil.NO_DATETIME_VALUE, page.get(0).dateTime);
+        assertEquals(Arrays.asList(undated), page.get(0).tasks);
+        assertEquals(Arrays.asList(event), page.get(1).events);
+        assertEquals(Arrays.asList(sameDay), page.get(1).tasks);
+        assertEquals(Arrays.asList(later), page.get(2).tasks);
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void nextPage_manyItems_pagedInOrder() {
+        List<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < IndexCursor.PAGE_SIZE * 2 + 1; i++) {
+            tasks.add(task("Task " + i, DAY.plusHours(i)));
+        }
+        IndexCursor cursor = new IndexCursor(tasks, null);
+
+        List<Task> seen = new ArrayList<Task>();
+        int pages = 0;
+        while (cursor.hasNext()) {
+            for (IndexCursor.DateGroup group : cursor.nextPage()) {
+                seen.addAll(group.tasks);
+            }
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(tasks, seen);
+        assertTrue(cursor.nextPage().isEmpty());
+    }
+
+    @Test
+    public void dbCursor_dateBuckets_sameOrderAsGrouping() throws Exception {
+        TodoListDB db = JsonUtil.fromJsonString("{}", TodoListDB.class);
+        for (int i = 0; i < 120; i++) {
+            Task task = db.createTask();
+            task.setName("Task " + i);
+            task.setDueDate(i % 7 == 0 ? null : DAY.plusDays(i % 5).plusHours(i % 3));
+        }
+        for (int i = 0; i < 30; i++) {
+            Event event = db.createEvent();
+            event.setName("Event " + i);
+            event.setStartDate(DAY.plusDays(i % 6));
+            event.setEndDate(DAY.plusDays(i % 6).plusHours(1));
+        }
+        List<Task> tasks = new ArrayList<Task>(db.getAllTasks());
+        tasks.removeIf(task -> task.getName().endsWith("1"));
+
+        assertSameGroups(new IndexCursor(tasks, db.getAllEvents()), new IndexCursor(db, tasks, db.getAllEvents()));
+        assertSameGroups(new IndexCursor(db.getAllTasks(), null), new IndexCursor(db, db.getAllTasks(), null));
+        assertSameGroups(new IndexCursor(tasks.subList(0, 3), null), new IndexCursor(db, tasks.subList(0, 3), null));
+    }
+
+    @Test
+    public void dbCursor_itemsOutOfIdOrder_sameNumberingOnBothPaths() throws Exception {
+        TodoListDB db = JsonUtil.fromJsonString("{}", TodoListDB.class);
+        for (int i = 0; i < 10; i++) {
+            db.createTask().setDueDate(DAY.plusHours(i % 2));
+        }
+        db.createEvent().setStartDate(DAY);
+        db.createEvent().setStartDate(DAY.plusHours(1));
+        List<Task> tasks = new ArrayList<Task>(db.getAllTasks());
+        Collections.reverse(tasks);
+        List<Event> events = new ArrayList<Event>(db.getAllEvents());
+        Collections.reverse(events);
+
+        // Short of the rest of the DB, so the date buckets are walked
+        IndexCursor walked = new IndexCursor(db, tasks, events);
+        for (int i = 0; i < 100; i++) {
+            db.createTask();
+        }
+        // Short next to the rest of the DB, so the items are grouped by themselves
+        IndexCursor grouped = new IndexCursor(db, tasks, events);
+
+        assertSameGroups(walked, grouped);
+        List<Task> numbered = new IndexCursor(db, tasks, events).nextPage().get(0).tasks;
+        for (int i = 1; i < numbered.size(); i++) {
+            assertTrue(numbered.get(i - 1).getId() < numbered.get(i).getId());
+        }
+    }
+
+    private static void assertSameGroups(IndexCursor expected, IndexCursor actual) {
+        assertEquals(expected.size(), actual.size());
+        while (expected.hasNext()) {
+            List<IndexCursor.DateGroup> expectedPage = expected.nextPage();
+            List<IndexCursor.DateGroup> actualPage = actual.nextPage();
+            assertEquals(expectedPage.size(), actualPage.size());
+            for (int i = 0; i < expectedPage.size(); i++) {
+                assertEquals(expectedPage.get(i).dateTime, actualPage.get(i).dateTime);
+                assertEquals(expectedPage.get(i).events, actualPage.get(i).events);
+                assertEquals(expectedPage.get(i).tasks, actualPage.get(i).tasks);
+            }
+        }
+        assertFalse(actual.hasNext());
+    }
+
+    @Test
+    public void textDisplay_nextPage_indicesCarryOn() {
+        List<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < IndexCursor.PAGE_SIZE + 5; i++) {
+            tasks.add(task("Task " + i, DAY.plusDays(i)));
+        }
+        IndexCursor cursor = new IndexCursor(tasks, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextDisplay display = new TextDisplay(new PrintStream(out));
+        EphemeralDB ephemeralDb = EphemeralDB.getInstance();
+
+        display.showIndex(cursor, new ArrayList<String>());
+        assertEquals(IndexCursor.PAGE_SIZE, ephemeralDb.displayedCalendarItems.size());
+
+        display.showNextPage(cursor);
+        assertEquals(tasks.size(), ephemeralDb.displayedCalendarItems.size());
+        assertSame(tasks.get(IndexCursor.PAGE_SIZE), ephemeralDb.getCalendarItemsByDisplayedId(IndexCursor.PAGE_SIZE + 1));
+        assertTrue(out.toString().contains(String.format("  %d. [ ] Task %d", tasks.size(), tasks.size() - 1)));
+    }
+
+}
@@ -87,7 +87,9 @@ public class ConfigUtilTest {
     }
 
     private List<String> getTypicalConfigNames() {
-        return Arrays.asList("appTitle", "databaseFilePath");
+        return Arrays.asList("appTitle", "databaseFilePath", "undoMemoryBudget",
+                "undoHistoryBudget", "undoHistoryCompressed", "metricsLogInterval", "queryParallelThreshold",
+                "archiveAfterDays", "databaseCompact", "databaseCompressed");
     }
 
     private Optional<Config> read(String configFileInTestDataFolder) throws DataConversionException {
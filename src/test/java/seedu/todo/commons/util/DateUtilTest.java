@@ -7,12 +7,17 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.SortedMap;
 
 import org.junit.Test;
 
 import seedu.todo.commons.util.DateUtil;
+import seedu.todo.models.Task;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -125,6 +130,26 @@ public class DateUtilTest {
 	    assertEquals(DateUtil.formatTime(LocalDateTime.of(2016, 1, 1, 23, 59)), "23:59");
 	}
 	
+	//@@author agent
+	@Test
+	public void groupByDate_undatedFirstInOrder() {
+	    Task undated = new Task();
+	    Task later = new Task();
+	    later.setCalendarDateTime(LocalDateTime.of(2016, 1, 2, 9, 0));
+	    Task earlier = new Task();
+	    earlier.setCalendarDateTime(LocalDateTime.of(2016, 1, 1, 18, 0));
+	    Task sameDay = new Task();
+	    sameDay.setCalendarDateTime(LocalDateTime.of(2016, 1, 1, 8, 0));
+	    
+	    SortedMap<LocalDateTime, List<Task>> tasksByDate =
+	            DateUtil.groupByDate(Arrays.asList(later, earlier, undated, sameDay));
+	    
+	    assertEquals(Arrays.asList(DateUtil.NO_DATETIME_VALUE, LocalDateTime.of(2016, 1, 1, 0, 0),
+	            LocalDateTime.of(2016, 1, 2, 0, 0)), new ArrayList<LocalDateTime>(tasksByDate.keySet()));
+	    assertEquals(Arrays.asList(earlier, sameDay), tasksByDate.get(LocalDateTime.of(2016, 1, 1, 0, 0)));
+	}
+	
+	//@@author A0139812A
 	private static LocalDateTime fromEpoch(long epoch) {
 		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epoch), ZoneId.systemDefault());
 	}
@@ -1,5 +1,6 @@
 package seedu.todo.controllers;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -7,6 +8,7 @@ import org.junit.*;
 import static org.junit.Assert.*;
 
 import seedu.todo.commons.exceptions.UnmatchedQuotesException;
+import seedu.todo.controllers.concerns.IndexParser;
 import seedu.todo.controllers.concerns.Tokenizer;
 
 // @@author A0093907W
@@ -65,4 +67,54 @@ public class ControllerConcernsTests {
         Tokenizer.tokenize(getTokenDefinitions(), input);
     }
     
+    @Test
+    public void indexParser_singleIndex_found() {
+        assertEquals(Arrays.asList(3), IndexParser.parseIndices("3", 20));
+    }
+    
+    @Test
+    public void indexParser_range_found() {
+        assertEquals(Arrays.asList(1, 2, 3, 4), IndexParser.parseIndices("1-4", 20));
+    }
+    
+    @Test
+    public void indexParser_mixedRanges_foundInOrderWithoutDuplicates() {
+        assertEquals(Arrays.asList(3, 7, 9, 10, 11), IndexParser.parseIndices("3, 7,9-11,10", 20));
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void indexParser_reversedRange_error() {
+        IndexParser.parseIndices("5-1", 20);
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void indexParser_notNumber_error() {
+        IndexParser.parseIndices("tmd", 20);
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void indexParser_hexadecimal_error() {
+        IndexParser.parseIndices("0x10", 20);
+    }
+    
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void indexParser_zero_error() {
+        IndexParser.parseIndices("0-3", 20);
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void indexParser_negative_error() {
+        IndexParser.parseIndices("-3", 20);
+    }
+    
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void indexParser_indexPastDisplayed_error() {
+        IndexParser.parseIndices("21", 20);
+    }
+    
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void indexParser_hugeRange_errorWithoutExpanding() {
+        IndexParser.parseIndices("1-2147483647", 20);
+    }
+    
 }
@@ -0,0 +1,192 @@
+package seedu.todo.models;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.CalendarItemQuery.Scan;
+
+//@@author agent
+public class CalendarItemQueryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2016, 10, 1, 12, 0);
+
+    private TodoListDB db;
+
+    @Before
+    public void setUp() {
+        db = new TodoListDB();
+        // Task i is due on day i, has tag "mod<i % 10>", and is completed if i is even.
+        for (int i = 0; i < 100; i++) {
+            Task task = db.createTask();
+            task.setName("Task " + i);
+            task.setDueDate(START.plusDays(i));
+            task.addTag("mod" + (i % 10));
+            if (i % 2 == 0) {
+                task.setCompleted();
+            }
+        }
+        db.createTask().setName("Undated");
+    }
+
+    private List<Task> scanAll(CalendarItemQuery<Task> query) {
+        return db.getAllTasks().stream().filter(query.toPredicate()).collect(Collectors.toList());
+    }
+
+    private List<Task> find(CalendarItemQuery<Task> query) {
+        return db.streamTasks(query).collect(Collectors.toList());
+    }
+
+    private Scan plan(CalendarItemQuery<Task> query) {
+        return query.plan(db.getAllTasks().size(), db.getTaskIndex());
+    }
+
+    @Test
+    public void plan_rareTag_scansTag() {
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>()
+                .whereCompleted(false, Task.predCompleted(false))
+                .whereTag("MOD3", Task.predTag("MOD3"));
+        assertEquals(Scan.TAG, plan(query));
+        List<Task> results = find(query);
+        assertEquals(10, results.size());
+        assertEquals(scanAll(query), results);
+    }
+
+    @Test
+    public void plan_narrowDateRange_scansDate() {
+        LocalDateTime from = START.plusDays(20);
+        LocalDateTime to = START.plusDays(25);
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>()
+                .whereTag("mod1", Task.predTag("mod1"))
+                .whereDateFrom(from, Task.predAfterDueDate(from))
+                .whereDateTo(to, Task.predBeforeDueDate(to));
+        assertEquals(Scan.DATE, plan(query));
+        assertEquals(scanAll(query), find(query));
+        assertEquals("Task 21", find(query).get(0).getName());
+    }
+
+    @Test
+    public void plan_noHint_scansAll() {
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>().where(Task.predByName("task 4"));
+        assertEquals(Scan.ALL, plan(query));
+        assertEquals(scanAll(query), find(query));
+    }
+
+    @Test
+    public void plan_emptyDateRange_noResults() {
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>()
+                .whereDateFrom(START.plusDays(5), Task.predAfterDueDate(START.plusDays(5)))
+                .whereDateTo(START, Task.predBeforeDueDate(START));
+        assertEquals(Scan.DATE, plan(query));
+        assertTrue(find(query).isEmpty());
+    }
+
+    @Test
+    public void stream_parallel_sameOrder() {
+        LocalDateTime from = START.plusDays(10);
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>()
+                .whereDateFrom(from, Task.predAfterDueDate(from))
+                .where(Task.predCompleted(false));
+        List<Task> sequential = find(query);
+        assertEquals(45, sequential.size());
+        assertEquals(sequential, find(query.parallel()));
+    }
+
+    @Test
+    public void collect_aboveParallelThreshold_sameOrder() {
+        for (int i = 0; i < 5000; i++) {
+            db.createTask().setName((i % 3 == 0 ? "Fizz " : "Buzz ") + i);
+        }
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>().where(Task.predByName("fizz"));
+        List<Task> sequential = query.collect(db.getAllTasks(), db.getTaskIndex(), 0);
+        assertEquals(1667, sequential.size());
+        assertEquals(sequential, query.collect(db.getAllTasks(), db.getTaskIndex(), 1));
+        assertEquals(sequential, find(query));
+    }
+
+    @Test
+    public void stream_lazy_checksOnlyConsumed() {
+        int[] checked = new int[1];
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>().where(task -> ++checked[0] > 0);
+        assertEquals(3, db.streamTasks(query).limit(3).count());
+        assertEquals(3, checked[0]);
+    }
+
+    @Test
+    public void index_itemChanges_updated() {
+        CalendarItemIndex<Task> index = db.getTaskIndex();
+        Task task = find(new CalendarItemQuery<Task>().where(Task.predByName("task 3$"))).get(0);
+
+        task.setDueDate(START.minusDays(1));
+        assertTrue(index.getDated(START.toLocalDate(), null).values().stream().noneMatch(s -> s.contains(task)));
+        assertTrue(index.getDated(null, START.toLocalDate().minusDays(1)).firstEntry().getValue().contains(task));
+
+        task.addTag("Urgent");
+        task.addTag("urgent");
+        assertTrue(index.getTagged("URGENT").contains(task));
+        task.removeTag("Urgent");
+        assertTrue(index.getTagged("urgent").contains(task));
+        task.removeTag("urgent");
+        assertTrue(index.getTagged("urgent").isEmpty());
+
+        task.setCompleted();
+        assertTrue(index.getByCompletion(true).contains(task));
+        assertFalse(index.getByCompletion(false).contains(task));
+
+        task.setDueDate(null);
+        assertTrue(index.getUndated().contains(task));
+
+        db.destroyTasks(Arrays.asList(task));
+        assertFalse(index.getByCompletion(true).contains(task));
+        assertFalse(index.getTagged("mod3").contains(task));
+        task.addTag("orphan");
+        assertTrue(index.getTagged("orphan").isEmpty());
+    }
+
+    @Test
+    public void index_reloaded_rebuilt() {
+        TodoListDB restored = TodoListSnapshot.of(db, null).toDB();
+        CalendarItemIndex<Task> index = restored.getTaskIndex();
+        assertEquals(10, index.getTagged("mod0").size());
+        assertEquals(50, index.getByCompletion(true).size());
+        assertEquals(1, index.getUndated().size());
+        assertEquals(1, index.countDated(LocalDate.of(2016, 10, 1), LocalDate.of(2016, 10, 1)));
+    }
+
+    @Test
+    public void tags_reloaded_internedAndMatchedIgnoringCase() throws Exception {
+        TodoListDB deserialized = JsonUtil.fromJsonString(JsonUtil.toJsonString(db), TodoListDB.class);
+        List<Task> tasks = TodoListSnapshot.of(deserialized, null).toDB().getAllTasks();
+        assertSame(tasks.get(3).getTagList().get(0), tasks.get(13).getTagList().get(0));
+
+        Predicate<Task> predTag = Task.predTag("MoD3");
+        assertTrue(predTag.test(tasks.get(3)));
+        assertFalse(predTag.test(tasks.get(4)));
+        tasks.get(4).addTag("mod3");
+        assertTrue(predTag.test(tasks.get(4)));
+        tasks.get(3).removeTag("mod3");
+        assertFalse(predTag.test(tasks.get(3)));
+    }
+
+    @Test
+    public void tags_unknownTagQueried_notAddedToDictionary() {
+        String tag = "never-used-" + System.nanoTime();
+        CalendarItemQuery<Task> query = new CalendarItemQuery<Task>().whereTag(tag, Task.predTag(tag));
+        assertTrue(find(query).isEmpty());
+        assertTrue(db.getTaskIndex().getTagged(tag).isEmpty());
+        assertEquals(TagDictionary.NO_ID, TagDictionary.getInstance().findId(tag));
+
+        // Items outside a DB may carry tags the dictionary has not seen yet
+        Task task = new Task();
+        task.getTagList().add(tag.toUpperCase());
+        assertTrue(Task.predTag(tag).test(task));
+    }
+
+}
@@ -2,6 +2,8 @@ package seedu.todo.models;
 
 import java.time.LocalDateTime;
 
+import seedu.todo.commons.util.JsonUtil;
+
 import org.junit.*;
 import static org.junit.Assert.*;
 
@@ -197,4 +199,44 @@ public class CalendarItemTests {
         Task task = new Task();
         assertFalse(task.removeTag("A"));
     }
+    
+    @Test
+    public void test_task_duedate_packed_lossless() {
+        Task task = new Task();
+        assertNull(task.getDueDate());
+        for (LocalDateTime time : new LocalDateTime[] { LocalDateTime.MIN, LocalDateTime.MAX,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999999999), LocalDateTime.of(2016, 10, 10, 9, 0, 0, 1) }) {
+            task.setDueDate(time);
+            assertEquals(time, task.getDueDate());
+        }
+        task.setDueDate(null);
+        assertNull(task.getDueDate());
+    }
+    
+    @Test
+    public void test_task_pred_duedate_nanos() {
+        LocalDateTime time = LocalDateTime.of(2016, 10, 10, 9, 0);
+        Task task = new Task();
+        task.setDueDate(time.plusNanos(1));
+        assertTrue(Task.predAfterDueDate(time).test(task));
+        assertFalse(Task.predBeforeDueDate(time).test(task));
+        assertFalse(Task.predAfterDueDate(time.plusNanos(1)).test(task));
+        task.setDueDate(null);
+        assertFalse(Task.predAfterDueDate(LocalDateTime.MIN).test(task));
+        assertFalse(Task.predBeforeDueDate(LocalDateTime.MAX).test(task));
+    }
+    
+    @Test
+    public void test_event_dates_json_roundtrip() throws Exception {
+        Event event = new Event();
+        event.setName("Event");
+        event.setStartDate(LocalDateTime.of(2016, 10, 10, 9, 0, 30, 500));
+        String json = JsonUtil.toJsonString(event);
+        assertTrue(json.indexOf("\"startDate\"") < json.indexOf("\"endDate\""));
+        
+        Event restored = JsonUtil.fromJsonString(json, Event.class);
+        assertEquals(event.getStartDate(), restored.getStartDate());
+        assertNull(restored.getEndDate());
+        assertTrue(event.hasSameState(restored));
+    }
 }
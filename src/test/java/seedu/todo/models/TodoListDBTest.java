@@ -0,0 +1,534 @@
+package seedu.todo.models;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import seedu.todo.commons.exceptions.CannotRedoException;
+import seedu.todo.commons.exceptions.CannotUndoException;
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.storage.JsonStorage;
+import seedu.todo.storage.Storage;
+
+//@@author agent
+public class TodoListDBTest {
+
+    /**
+     * Storage stub which counts the number of saves, and keeps the last save in memory.
+     */
+    private static class CountingStorage implements Storage {
+        public int saveCount = 0;
+        public int amendCount = 0;
+        public boolean isFailing = false;
+        public String json;
+        public Map<YearMonth, String> archives = new TreeMap<YearMonth, String>();
+
+        @Override
+        public void save(TodoListDB db) throws IOException {
+            if (isFailing) {
+                throw new IOException();
+            }
+            saveCount++;
+            json = JsonUtil.toJsonString(db);
+        }
+
+        @Override
+        public void amend(TodoListDB db) throws IOException {
+            amendCount++;
+            save(db);
+        }
+
+        @Override
+        public TodoListDB load() throws IOException {
+            return JsonUtil.fromJsonString(json, TodoListDB.class);
+        }
+
+        @Override
+        public boolean loadIfChanged() throws IOException {
+            return false;
+        }
+
+        @Override
+        public boolean sync(TodoListDB db) throws IOException {
+            return false;
+        }
+
+        @Override
+        public ArchiveShard loadArchive(YearMonth month) throws IOException {
+            String archiveJson = archives.get(month);
+            return archiveJson == null ? new ArchiveShard() : JsonUtil.fromJsonString(archiveJson, ArchiveShard.class);
+        }
+
+        @Override
+        public void saveArchive(YearMonth month, ArchiveShard shard) throws IOException {
+            if (shard.isEmpty()) {
+                archives.remove(month);
+            } else {
+                archives.put(month, JsonUtil.toJsonString(shard));
+            }
+        }
+
+        @Override
+        public void move(String newPath) throws IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Saves are synchronous.
+        }
+
+        @Override
+        public TodoListDB undo() throws CannotUndoException, IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public TodoListDB redo() throws CannotRedoException, IOException {
+            throw new IOException();
+        }
+
+        @Override
+        public int undoSize() {
+            return 0;
+        }
+
+        @Override
+        public long undoMemoryUsage() {
+            return 0;
+        }
+
+        @Override
+        public int redoSize() {
+            return 0;
+        }
+    }
+
+    private TodoListDB db;
+    private CountingStorage storage;
+
+    @Before
+    public void setUp() {
+        db = TodoListDB.getInstance();
+        storage = new CountingStorage();
+        db.setStorage(storage);
+    }
+
+    @After
+    public void tearDown() {
+        db.setStorage(new JsonStorage());
+    }
+
+    @Test
+    public void batch_multipleChanges_savedOnce() {
+        assertTrue(db.batch(tx -> {
+            tx.createTask().setName("A");
+            tx.createTask().setName("B");
+            tx.createEvent().setName("C");
+            tx.save();
+        }));
+        assertEquals(1, storage.saveCount);
+    }
+
+    @Test
+    public void batch_destroy_savedOnce() {
+        Task task = db.createTask();
+        Event event = db.createEvent();
+        db.batch(tx -> {
+            tx.destroyTask(task);
+            tx.destroyEvent(event);
+        });
+        assertEquals(1, storage.saveCount);
+        assertFalse(db.getAllTasks().contains(task));
+        assertFalse(db.getAllEvents().contains(event));
+    }
+
+    @Test
+    public void batch_nested_savedOnce() {
+        db.batch(outer -> {
+            outer.createTask();
+            outer.batch(inner -> inner.createTask());
+            assertEquals(0, storage.saveCount);
+        });
+        assertEquals(1, storage.saveCount);
+    }
+
+    @Test
+    public void batch_saveFailed_rolledBack() {
+        Task task = db.createTask();
+        task.setName("Before");
+        db.save();
+        int taskCount = db.getAllTasks().size();
+
+        storage.isFailing = true;
+        assertFalse(db.batch(tx -> {
+            tx.getCalendarItemById(task.getId()).setName("After");
+            tx.createTask().setName("Created");
+            tx.updateTagList("rolledBack");
+        }));
+        storage.isFailing = false;
+        assertEquals("Before", db.getCalendarItemById(task.getId()).getName());
+        assertEquals(taskCount, db.getAllTasks().size());
+        assertFalse(db.getTagList().contains("rolledBack"));
+    }
+
+    @Test
+    public void batch_transactionThrew_rolledBack() {
+        Task task = db.createTask();
+        task.setName("Before");
+        db.save();
+        int saveCount = storage.saveCount;
+
+        try {
+            db.batch(outer -> {
+                outer.getCalendarItemById(task.getId()).setName("After");
+                outer.batch(inner -> {
+                    throw new IllegalStateException();
+                });
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // Thrown on to the caller
+        }
+        assertEquals(saveCount, storage.saveCount);
+        assertEquals("Before", db.getCalendarItemById(task.getId()).getName());
+
+        // Batches work again afterwards
+        assertTrue(db.batch(tx -> tx.getCalendarItemById(task.getId()).setName("After")));
+        assertEquals("After", db.getCalendarItemById(task.getId()).getName());
+    }
+
+    @Test
+    public void save_outsideBatch_notDeferred() {
+        db.save();
+        db.save();
+        assertEquals(2, storage.saveCount);
+    }
+
+    @Test
+    public void create_assignsUniqueIds_found() {
+        Task task = db.createTask();
+        Event event = db.createEvent();
+        assertTrue(task.getId() > 0);
+        assertTrue(event.getId() > task.getId());
+        assertSame(task, db.getCalendarItemById(task.getId()));
+        assertSame(event, db.getCalendarItemById(event.getId()));
+    }
+
+    @Test
+    public void destroy_removedFromIndex_notFound() {
+        Task task = db.createTask();
+        db.destroyTask(task);
+        assertNull(db.getCalendarItemById(task.getId()));
+    }
+
+    @Test
+    public void load_idsSurviveReload_found() {
+        Task task = db.createTask();
+        task.setName("Survivor");
+        db.save();
+        assertTrue(db.load());
+
+        TodoListDB reloaded = TodoListDB.getInstance();
+        CalendarItem reloadedTask = reloaded.getCalendarItemById(task.getId());
+        assertNotSame(task, reloadedTask);
+        assertEquals("Survivor", reloadedTask.getName());
+        assertTrue(reloaded.createTask().getId() > task.getId());
+        db = reloaded;
+    }
+
+    @Test
+    public void load_legacyItemsWithoutIds_assignedIds() {
+        storage.json = "{\"tasks\": [{\"name\": \"A\"}, {\"name\": \"B\"}], \"events\": [{\"name\": \"C\"}]}";
+        assertTrue(db.load());
+
+        db = TodoListDB.getInstance();
+        List<Task> tasks = db.getAllTasks();
+        assertEquals(1, tasks.get(0).getId());
+        assertEquals(2, tasks.get(1).getId());
+        assertEquals("C", db.getCalendarItemById(3).getName());
+    }
+
+    @Test
+    public void load_manyItems_orderPreserved() {
+        for (int i = 0; i < 100; i++) {
+            db.createTask().setName("Task " + i);
+        }
+        db.save();
+        assertTrue(db.load());
+
+        db = TodoListDB.getInstance();
+        List<Task> tasks = db.getAllTasks();
+        List<Task> created = tasks.subList(tasks.size() - 100, tasks.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Task " + i, created.get(i).getName());
+        }
+    }
+
+    @Test
+    public void getAllTasks_unchanged_sharedUntilCreate() {
+        Task task = db.createTask();
+        List<Task> tasks = db.getAllTasks();
+        assertSame(tasks, db.getAllTasks());
+        try {
+            tasks.add(task);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Callers must copy the list to modify it.
+        }
+
+        task.setName("Renamed");
+        assertSame(tasks, db.getAllTasks());
+        db.createTask();
+        assertNotSame(tasks, db.getAllTasks());
+        assertEquals(tasks.size() + 1, db.getAllTasks().size());
+    }
+
+    @Test
+    public void getIncompleteTasksAndTaskFromTodayDate_taskChanged_rebuilt() {
+        Task overdue = db.createTask();
+        overdue.setDueDate(LocalDateTime.now().minusDays(2));
+        Task dueTomorrow = db.createTask();
+        dueTomorrow.setDueDate(LocalDateTime.now().plusDays(1));
+        List<Task> tasks = db.getIncompleteTasksAndTaskFromTodayDate();
+        assertSame(tasks, db.getIncompleteTasksAndTaskFromTodayDate());
+        assertTrue(tasks.contains(overdue));
+
+        overdue.setCompleted();
+        dueTomorrow.setCompleted();
+        tasks = db.getIncompleteTasksAndTaskFromTodayDate();
+        assertFalse(tasks.contains(overdue));
+        assertTrue(tasks.contains(dueTomorrow));
+    }
+
+    @Test
+    public void getAllCurrentEvents_endDateChanged_rebuilt() {
+        Event event = db.createEvent();
+        event.setStartDate(LocalDateTime.now().minusHours(2));
+        event.setEndDate(LocalDateTime.now().plusHours(1));
+        List<Event> events = db.getAllCurrentEvents();
+        assertSame(events, db.getAllCurrentEvents());
+        assertTrue(events.contains(event));
+
+        event.setEndDate(LocalDateTime.now().minusHours(1));
+        assertFalse(db.getAllCurrentEvents().contains(event));
+    }
+
+    @Test
+    public void write_concurrentCommands_neverInterleaved() throws Exception {
+        int startCount = TodoListDB.write(() -> db.getAllTasks().size());
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Runnable commands = () -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    TodoListDB.write(() -> {
+                        int count = db.getAllTasks().size();
+                        db.createTask();
+                        db.createTask();
+                        assertEquals(count + 2, db.getAllTasks().size());
+                        return null;
+                    });
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        };
+        Thread other = new Thread(commands);
+        other.start();
+        commands.run();
+        other.join();
+        assertNull(failure.get());
+        assertEquals(startCount + 800, TodoListDB.write(() -> db.getAllTasks().size()).intValue());
+    }
+
+    @Test
+    public void rebase_noBase_changesTakenInPlace() throws Exception {
+        Task renamed = db.createTask();
+        renamed.setName("Renamed");
+        Task removed = db.createTask();
+        removed.setName("Removed");
+        Event unchanged = db.createEvent();
+        unchanged.setName("Unchanged");
+        TodoListDB changes = copyOf(db);
+        List<Task> removedOutside = new ArrayList<Task>();
+        for (Task task : changes.getAllTasks()) {
+            if (task.getId() == renamed.getId()) {
+                task.setName("Renamed outside");
+                task.setDueDate(LocalDateTime.of(2016, 10, 10, 9, 0));
+            } else if (task.getId() == removed.getId()) {
+                removedOutside.add(task);
+            }
+        }
+        changes.destroyTasks(removedOutside);
+        Task added = changes.createTask();
+        added.setName("Added");
+        storage.saveCount = 0;
+
+        assertTrue(db.rebase(changes, null));
+        assertEquals(0, storage.saveCount);
+        assertSame(renamed, db.getCalendarItemById(renamed.getId()));
+        assertEquals("Renamed outside", renamed.getName());
+        assertTrue(db.getTaskIndex().getDated(null, null).containsKey(renamed.getDueDate().toLocalDate()));
+        assertNull(db.getCalendarItemById(removed.getId()));
+        assertSame(unchanged, db.getCalendarItemById(unchanged.getId()));
+        assertEquals("Added", db.getCalendarItemById(added.getId()).getName());
+        assertTrue(db.createTask().getId() > added.getId());
+        assertFalse(db.rebase(copyOf(db), null));
+    }
+
+    @Test
+    public void rebase_bothChanged_ownChangesKept() throws Exception {
+        Task ours = db.createTask();
+        ours.setName("Ours");
+        Task theirs = db.createTask();
+        theirs.setName("Theirs");
+        Task deleted = db.createTask();
+        deleted.setName("Deleted");
+        TodoListDB base = copyOf(db);
+        TodoListDB changes = copyOf(db);
+        for (Task task : changes.getAllTasks()) {
+            task.setName(task.getName() + " changed outside");
+        }
+        Task addedOutside = changes.createTask();
+        addedOutside.setName("Added outside");
+
+        // Both sides create an item with the same ID
+        ours.setName("Ours changed");
+        db.destroyTasks(Arrays.asList(deleted));
+        Task added = db.createTask();
+        added.setName("Added");
+
+        assertTrue(db.rebase(changes, base));
+        assertEquals("Ours changed", ours.getName());
+        assertEquals("Theirs changed outside", theirs.getName());
+        assertNull(db.getCalendarItemById(deleted.getId()));
+        assertSame(added, db.getCalendarItemById(added.getId()));
+        assertNotEquals(added.getId(), addedOutside.getId());
+        assertSame(addedOutside, db.getCalendarItemById(addedOutside.getId()));
+        assertEquals(base.getAllTasks().size() + 1, db.getAllTasks().size());
+    }
+
+    private static TodoListDB copyOf(TodoListDB db) throws IOException {
+        return JsonUtil.fromJsonString(JsonUtil.toJsonString(db), TodoListDB.class);
+    }
+
+    @Test
+    public void count_readFromIndex_matchesScan() {
+        LocalDateTime now = LocalDateTime.now();
+        db.createTask().setDueDate(now.minusDays(1));
+        db.createTask().setDueDate(now.plusDays(1));
+        Task completed = db.createTask();
+        completed.setDueDate(now.minusDays(1));
+        completed.setCompleted();
+        db.createEvent().setStartDate(now.minusHours(1));
+        db.createEvent().setStartDate(now.plusMinutes(1));
+        db.createEvent().setStartDate(now.plusDays(1));
+
+        LocalDateTime countedAt = LocalDateTime.now();
+        long incomplete = db.getAllTasks().stream().filter(task -> !task.isCompleted()).count();
+        long overdue = db.getAllTasks().stream().filter(task -> !task.isCompleted() && task.isOver()).count();
+        long future = db.getAllEvents().stream()
+                .filter(event -> event.getStartDate() != null && !event.getStartDate().isBefore(countedAt)).count();
+        assertEquals(incomplete, db.countIncompleteTasks());
+        assertEquals(overdue, db.countOverdueTasks());
+        assertEquals(future, db.countFutureEvents());
+    }
+
+    @Test
+    public void archive_oldItems_movedOutAndLoadedBackByQuery() {
+        Task january = db.createTask();
+        january.setDueDate(LocalDateTime.of(2001, 1, 10, 12, 0));
+        january.setCompleted();
+        Task february = db.createTask();
+        february.setDueDate(LocalDateTime.of(2001, 2, 5, 12, 0));
+        february.setCompleted();
+        Task incomplete = db.createTask();
+        incomplete.setDueDate(LocalDateTime.of(2001, 1, 11, 12, 0));
+        Event event = db.createEvent();
+        event.setStartDate(LocalDateTime.of(2001, 1, 3, 9, 0));
+        event.setEndDate(LocalDateTime.of(2001, 1, 3, 10, 0));
+
+        assertEquals(3, db.archive(LocalDateTime.of(2001, 3, 1, 0, 0)));
+        assertEquals(1, storage.saveCount);
+        assertEquals(1, storage.amendCount);
+        assertEquals(Arrays.asList(YearMonth.of(2001, 1), YearMonth.of(2001, 2)),
+                new ArrayList<YearMonth>(storage.archives.keySet()));
+        assertNull(db.getCalendarItemById(january.getId()));
+        assertNull(db.getCalendarItemById(event.getId()));
+        assertSame(incomplete, db.getCalendarItemById(incomplete.getId()));
+
+        // Archived Tasks are all completed, so are not loaded for incomplete ones, nor without any hint
+        db.findTasks(new CalendarItemQuery<Task>().whereCompleted(false, task -> !task.isCompleted()));
+        db.findTasks(new CalendarItemQuery<Task>().where(task -> true));
+        db.findEvents(new CalendarItemQuery<Event>());
+        assertNull(db.getCalendarItemById(february.getId()));
+        assertNull(db.getCalendarItemById(event.getId()));
+        List<Task> found = db.findTasks(new CalendarItemQuery<Task>()
+                .whereDateFrom(LocalDateTime.of(2001, 2, 1, 0, 0), task -> true)
+                .whereDateTo(LocalDateTime.of(2001, 2, 28, 0, 0), task -> true));
+        assertEquals(1, found.size());
+        assertEquals(february.getId(), found.get(0).getId());
+        assertNull(db.getCalendarItemById(january.getId()));
+
+        // February's shard is rewritten from the DB, and January's is kept
+        db.destroyTask(found.get(0));
+        db.archive(LocalDateTime.of(2001, 3, 1, 0, 0));
+        assertEquals(Arrays.asList(YearMonth.of(2001, 1)), new ArrayList<YearMonth>(storage.archives.keySet()));
+    }
+
+    @Test
+    public void archive_loadedItems_onlySavedOnceChanged() throws Exception {
+        Task kept = db.createTask();
+        kept.setDueDate(LocalDateTime.of(2002, 1, 10, 12, 0));
+        kept.setCompleted();
+        Task changed = db.createTask();
+        changed.setDueDate(LocalDateTime.of(2002, 1, 11, 12, 0));
+        changed.setCompleted();
+        assertEquals(2, db.archive(LocalDateTime.of(2002, 3, 1, 0, 0)));
+
+        List<Task> found = db.findTasks(new CalendarItemQuery<Task>()
+                .whereCompleted(true, Task::isCompleted)
+                .whereDateTo(LocalDateTime.of(2002, 1, 31, 0, 0), task -> true));
+        assertEquals(2, found.size());
+
+        // Loaded items are left in their shard
+        db.save();
+        assertFalse(hasTask(storage.load(), kept.getId()));
+        assertFalse(hasTask(storage.load(), changed.getId()));
+
+        // Until they are changed, when the DB persists them, and the shard drops its copy
+        Task loaded = (Task) db.getCalendarItemById(changed.getId());
+        loaded.setIncomplete();
+        db.save();
+        assertTrue(hasTask(storage.load(), changed.getId()));
+        assertFalse(hasTask(storage.load(), kept.getId()));
+        assertEquals(0, db.archive(LocalDateTime.of(2002, 3, 1, 0, 0)));
+        ArchiveShard shard = storage.loadArchive(YearMonth.of(2002, 1));
+        assertEquals(1, shard.getTasks().size());
+        assertEquals(kept.getId(), shard.getTasks().get(0).getId());
+        assertSame(loaded, db.getCalendarItemById(changed.getId()));
+
+        // Reloads the DB without the loaded items, which the other tests do not expect
+        assertTrue(db.load());
+        assertFalse(hasTask(TodoListDB.getInstance(), kept.getId()));
+    }
+
+    private static boolean hasTask(TodoListDB other, long id) {
+        for (Task task : other.getAllTasks()) {
+            if (task.getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
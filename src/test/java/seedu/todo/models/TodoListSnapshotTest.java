@@ -0,0 +1,98 @@
+package seedu.todo.models;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+//@@author agent
+public class TodoListSnapshotTest {
+
+    private TodoListDB db;
+
+    @Before
+    public void setUp() {
+        db = new TodoListDB();
+    }
+
+    private void createTasks(int count) {
+        for (int i = 0; i < count; i++) {
+            db.createTask().setName("Task " + i);
+        }
+    }
+
+    @Test
+    public void toDB_restoresState_equal() {
+        createTasks(3);
+        db.createEvent().setName("Event");
+        db.updateTagList("tag");
+        TodoListSnapshot snapshot = TodoListSnapshot.of(db, null);
+
+        TodoListDB restored = snapshot.toDB();
+        List<Task> tasks = restored.getAllTasks();
+        assertEquals(3, tasks.size());
+        assertEquals("Task 2", tasks.get(2).getName());
+        assertEquals("Event", restored.getAllEvents().get(0).getName());
+        assertEquals("tag", restored.getTagList().get(0));
+        assertSame(tasks.get(1), restored.getCalendarItemById(tasks.get(1).getId()));
+        assertTrue(restored.createTask().getId() > tasks.get(2).getId());
+    }
+
+    @Test
+    public void toDB_isolatedFromLiveDB_unchanged() {
+        createTasks(1);
+        TodoListSnapshot snapshot = TodoListSnapshot.of(db, null);
+        db.getAllTasks().get(0).setName("Changed");
+
+        TodoListDB restored = snapshot.toDB();
+        assertEquals("Task 0", restored.getAllTasks().get(0).getName());
+
+        // Modifying a thawed DB must not affect the snapshot either.
+        restored.getAllTasks().get(0).setName("Changed again");
+        assertEquals("Task 0", snapshot.toDB().getAllTasks().get(0).getName());
+    }
+
+    @Test
+    public void of_unchangedItems_shared() {
+        createTasks(200);
+        TodoListSnapshot previous = TodoListSnapshot.of(db, null);
+        db.getAllTasks().get(100).setCompleted();
+        TodoListSnapshot next = TodoListSnapshot.of(db, previous);
+
+        assertTrue(next.shares(previous, true, 0, 0));
+        assertTrue(next.sharesChunk(previous, true, 0));
+        assertFalse(next.shares(previous, true, 100, 100));
+        assertFalse(next.sharesChunk(previous, true, 100));
+        assertTrue(next.shares(previous, true, 101, 101));
+        assertTrue(next.sharesChunk(previous, true, 199));
+    }
+
+    @Test
+    public void of_itemsShifted_sharedById() {
+        createTasks(10);
+        TodoListSnapshot previous = TodoListSnapshot.of(db, null);
+        db.destroyTasks(db.getAllTasks().subList(0, 1));
+        TodoListSnapshot next = TodoListSnapshot.of(db, previous);
+
+        assertEquals(9, next.size());
+        for (int i = 0; i < 9; i++) {
+            assertTrue(next.shares(previous, true, i, i + 1));
+        }
+        assertEquals("Task 1", next.toDB().getAllTasks().get(0).getName());
+    }
+
+    @Test
+    public void estimateBytesNotIn_onlyChangesCounted_smaller() {
+        createTasks(200);
+        TodoListSnapshot previous = TodoListSnapshot.of(db, null);
+        db.getAllTasks().get(100).setName("Renamed");
+        TodoListSnapshot next = TodoListSnapshot.of(db, previous);
+
+        long fullBytes = previous.estimateBytesNotIn(null);
+        long changedBytes = previous.estimateBytesNotIn(next);
+        assertTrue(changedBytes > 0);
+        assertTrue(changedBytes * 10 < fullBytes);
+        assertTrue(previous.estimateBytesNotIn(previous) < changedBytes);
+    }
+
+}
@@ -0,0 +1,320 @@
+package seedu.todo.storage;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Set;
+
+import seedu.todo.commons.core.Config;
+import seedu.todo.commons.core.ConfigCenter;
+import seedu.todo.commons.exceptions.CannotRedoException;
+import seedu.todo.commons.exceptions.CannotUndoException;
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.ArchiveShard;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+
+//@@author agent
+public class JsonStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Config config;
+    private String oldDatabaseFilePath;
+
+    @Before
+    public void setUp() {
+        // Only read if no other test has loaded the config yet
+        ConfigCenter.getInstance().setConfigFilePath(new File(folder.getRoot(), "config.json").getPath());
+        config = ConfigCenter.getInstance().getConfig();
+        oldDatabaseFilePath = config.getDatabaseFilePath();
+        config.setDatabaseFilePath(new File(folder.getRoot(), "database.json").getPath());
+    }
+
+    @After
+    public void tearDown() {
+        config.setDatabaseFilePath(oldDatabaseFilePath);
+    }
+
+    private static TodoListDB emptyDB() throws Exception {
+        return JsonUtil.fromJsonString("{}", TodoListDB.class);
+    }
+
+    private static Set<String> names(TodoListDB db) {
+        Set<String> names = new HashSet<String>();
+        for (Task task : db.getAllTasks()) {
+            names.add(task.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void save_changedByOtherProcess_mergedBeforeWriting() throws Exception {
+        JsonStorage first = new JsonStorage();
+        JsonStorage second = new JsonStorage();
+        first.save(emptyDB());
+        second.load();
+
+        TodoListDB firstDB = emptyDB();
+        firstDB.createTask().setName("First");
+        first.save(firstDB);
+
+        // Created with the same ID as the first process's Task
+        TodoListDB secondDB = emptyDB();
+        secondDB.createTask().setName("Second");
+        second.save(secondDB);
+        second.flush();
+
+        assertEquals(2, secondDB.getAllTasks().size());
+        assertNotEquals(secondDB.getAllTasks().get(0).getId(), secondDB.getAllTasks().get(1).getId());
+        assertEquals(names(secondDB), names(new JsonStorage().load()));
+
+        // The other process's commit is undone separately
+        assertEquals(names(firstDB), names(second.undo()));
+    }
+
+    @Test
+    public void undo_changedByOtherProcess_refusedUntilMerged() throws Exception {
+        JsonStorage first = new JsonStorage();
+        TodoListDB firstDB = emptyDB();
+        first.save(firstDB);
+        firstDB.createTask().setName("First");
+        first.save(firstDB);
+
+        JsonStorage second = new JsonStorage();
+        TodoListDB secondDB = second.load();
+        secondDB.createTask().setName("Second");
+        second.save(secondDB);
+        second.flush();
+
+        try {
+            first.undo();
+            fail();
+        } catch (CannotUndoException e) {
+            assertTrue(e.getCause() instanceof ConcurrentModificationException);
+        }
+        assertEquals(names(secondDB), names(new JsonStorage().load()));
+
+        // Once merged, the other process's commit is undone first
+        assertTrue(first.sync(firstDB));
+        assertEquals(names(secondDB), names(firstDB));
+        assertEquals(new HashSet<String>(Arrays.asList("First")), names(first.undo()));
+        first.flush();
+        assertEquals(new HashSet<String>(Arrays.asList("First")), names(new JsonStorage().load()));
+    }
+
+    @Test
+    public void redo_changedByOtherProcess_refused() throws Exception {
+        JsonStorage first = new JsonStorage();
+        TodoListDB firstDB = emptyDB();
+        first.save(firstDB);
+        firstDB.createTask().setName("First");
+        first.save(firstDB);
+        first.undo();
+
+        JsonStorage second = new JsonStorage();
+        TodoListDB secondDB = second.load();
+        secondDB.createTask().setName("Second");
+        second.save(secondDB);
+        second.flush();
+
+        try {
+            first.redo();
+            fail();
+        } catch (CannotRedoException e) {
+            assertTrue(e.getCause() instanceof ConcurrentModificationException);
+        }
+        assertEquals(names(secondDB), names(new JsonStorage().load()));
+    }
+
+    @Test
+    public void undo_journalSharedWithOtherProcess_bothCommitsUndone() throws Exception {
+        JsonStorage first = new JsonStorage();
+        TodoListDB firstDB = emptyDB();
+        first.save(firstDB);
+        firstDB.createTask().setName("First");
+        first.save(firstDB);
+        first.flush();
+
+        JsonStorage second = new JsonStorage();
+        TodoListDB secondDB = second.load();
+        secondDB.createTask().setName("Second");
+        second.save(secondDB);
+        second.flush();
+
+        // Restarted, so that undo reads the journal
+        JsonStorage restarted = new JsonStorage();
+        restarted.load();
+        assertEquals(2, restarted.undoSize());
+        assertEquals(names(firstDB), names(restarted.undo()));
+        assertEquals(new HashSet<String>(), names(restarted.undo()));
+    }
+
+    @Test
+    public void amend_noUndoStepOfItsOwn_undoneWithNewestCommit() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        storage.save(db);
+        db.createTask().setName("First");
+        storage.save(db);
+        db.createTask().setName("Amended");
+        storage.amend(db);
+        assertEquals(1, storage.undoSize());
+        assertEquals(new HashSet<String>(), names(storage.undo()));
+        assertEquals(new HashSet<String>(Arrays.asList("First", "Amended")), names(storage.redo()));
+    }
+
+    @Test
+    public void amend_afterRestart_undoneWithNewestCommit() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        storage.save(db);
+        db.createTask().setName("First");
+        storage.save(db);
+        db.createTask().setName("Amended");
+        storage.amend(db);
+        storage.flush();
+
+        // Restarted, so that undo reads the journal
+        JsonStorage restarted = new JsonStorage();
+        assertEquals(new HashSet<String>(Arrays.asList("First", "Amended")), names(restarted.load()));
+        assertEquals(1, restarted.undoSize());
+        assertEquals(new HashSet<String>(), names(restarted.undo()));
+    }
+
+    @Test
+    public void save_journalWriteFailed_reportedOnceByNextSave() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        storage.save(db);
+        storage.flush();
+
+        // The journal cannot be written once its directory is a file
+        File dbFile = new File(config.getDatabaseFilePath());
+        File journalDirectory = UndoJournal.getDirectory(dbFile);
+        for (File file : journalDirectory.listFiles()) {
+            assertTrue(file.delete());
+        }
+        assertTrue(journalDirectory.delete());
+        assertTrue(journalDirectory.createNewFile());
+
+        db.createTask().setName("Task");
+        storage.save(db);
+        try {
+            storage.save(db);
+            fail();
+        } catch (IOException e) {
+            // Surfaced by the next save
+        }
+        assertTrue(journalDirectory.delete());
+        storage.save(db);
+        storage.flush();
+    }
+
+    @Test
+    public void undo_formatChangedSinceCommits_journalStillApplies() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        storage.save(db);
+        db.createTask().setName("First");
+        storage.save(db);
+        db.createTask().setName("Second");
+        storage.save(db);
+
+        config.setDatabaseCompact(true);
+        try {
+            // Rewrites the DB file compact
+            storage.undo();
+            storage.flush();
+
+            // Restarted, so that undo reads the journal
+            JsonStorage restarted = new JsonStorage();
+            restarted.load();
+            assertEquals(1, restarted.undoSize());
+            assertEquals(new HashSet<String>(), names(restarted.undo()));
+            assertEquals(new HashSet<String>(), names(new JsonStorage().load()));
+        } finally {
+            config.setDatabaseCompact(false);
+        }
+    }
+
+    @Test
+    public void loadIfChanged_ownSave_unchanged() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        db.createTask().setName("Task");
+        storage.save(db);
+        assertFalse(storage.loadIfChanged());
+
+        JsonStorage other = new JsonStorage();
+        other.load();
+        other.save(emptyDB());
+        assertTrue(storage.loadIfChanged());
+    }
+
+    @Test
+    public void loadIfChanged_sameLengthAndHashCode_changed() throws Exception {
+        // "Aa" and "BB" have the same String.hashCode
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        db.createTask().setName("Aa");
+        storage.save(db);
+
+        JsonStorage other = new JsonStorage();
+        TodoListDB otherDB = other.load();
+        otherDB.getAllTasks().get(0).setName("BB");
+        other.save(otherDB);
+        assertTrue(storage.loadIfChanged());
+    }
+
+    @Test
+    public void saveArchive_shardPerMonth_loadedBackAndRemovedWhenEmpty() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        YearMonth month = YearMonth.of(2001, 1);
+        ArchiveShard shard = new ArchiveShard();
+        shard.getTasks().add(emptyDB().createTask());
+        shard.getTasks().get(0).setName("Archived");
+        storage.saveArchive(month, shard);
+
+        File file = new File(folder.getRoot(), "database.json.archive/archive-2001-01.json");
+        assertTrue(file.exists());
+        assertEquals("Archived", storage.loadArchive(month).getTasks().get(0).getName());
+        assertTrue(storage.loadArchive(YearMonth.of(2001, 2)).isEmpty());
+
+        storage.saveArchive(month, new ArchiveShard());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void save_compressed_smallerAndLoadedBack() throws Exception {
+        JsonStorage storage = new JsonStorage();
+        TodoListDB db = emptyDB();
+        for (int i = 0; i < 100; i++) {
+            db.createTask().setName("Task " + i);
+        }
+        File file = new File(config.getDatabaseFilePath());
+        storage.save(db);
+        long prettyLength = file.length();
+
+        config.setDatabaseCompressed(true);
+        try {
+            storage.save(db);
+            assertTrue(file.length() < prettyLength / 4);
+            assertEquals(names(db), names(new JsonStorage().load()));
+            assertFalse(storage.loadIfChanged());
+        } finally {
+            config.setDatabaseCompressed(false);
+        }
+    }
+
+}
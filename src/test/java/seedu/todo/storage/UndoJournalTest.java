@@ -0,0 +1,197 @@
+package seedu.todo.storage;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import seedu.todo.commons.util.FileUtil;
+
+//@@author agent
+public class UndoJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dbFile;
+    private UndoJournal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        dbFile = new File(folder.getRoot(), "database.json");
+        journal = new UndoJournal();
+        journal.open(dbFile, null);
+    }
+
+    private String version(int i) {
+        return "{\"tasks\": [\"Task " + i + "\"]}";
+    }
+
+    /**
+     * Pushes versions 0 to <code>count - 1</code>, i.e. <code>count - 1</code> entries.
+     */
+    private void pushVersions(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            journal.push(i == 0 ? null : version(i - 1), version(i));
+        }
+    }
+
+    @Test
+    public void pop_multipleEntries_reverseOrder() throws IOException {
+        pushVersions(4);
+        assertEquals(3, journal.size());
+        assertEquals(version(2), journal.pop(version(3)));
+        assertEquals(version(1), journal.pop(version(2)));
+        assertEquals(version(0), journal.pop(version(1)));
+        assertEquals(0, journal.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void pop_empty_exception() throws IOException {
+        journal.pop(version(0));
+    }
+
+    @Test
+    public void open_afterRestart_historyRestored() throws IOException {
+        int count = UndoJournal.SEGMENT_SIZE * 3 + 7;
+        pushVersions(count);
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(count - 1, restarted.open(dbFile, version(count - 1)));
+        for (int i = count - 2; i >= 0; i--) {
+            assertEquals(version(i), restarted.pop(version(i + 1)));
+        }
+    }
+
+    @Test
+    public void open_databaseChanged_discarded() throws IOException {
+        pushVersions(3);
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(0, restarted.open(dbFile, "{\"tasks\": [\"Edited by hand\"]}"));
+        assertEquals(0, UndoJournal.getDirectory(dbFile).listFiles().length);
+    }
+
+    @Test
+    public void pop_knownContents_staysConsistent() throws IOException {
+        pushVersions(3);
+        journal.pop(version(2), version(1));
+        journal.push(version(1), version(5));
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(2, restarted.open(dbFile, version(5)));
+        assertEquals(version(1), restarted.pop(version(5)));
+        assertEquals(version(0), restarted.pop(version(1)));
+    }
+
+    @Test
+    public void push_overBudget_oldestSegmentsDropped() throws IOException {
+        pushVersions(UndoJournal.SEGMENT_SIZE * 3);
+        long bytes = journal.getSizeInBytes();
+        assertTrue(bytes > 0);
+
+        // Only the newest segment is kept, however small the budget.
+        journal.setBudget(0);
+        assertEquals(UndoJournal.SEGMENT_SIZE * 2,
+                journal.push(version(UndoJournal.SEGMENT_SIZE * 3 - 1), version(UndoJournal.SEGMENT_SIZE * 3)));
+        assertEquals(UndoJournal.SEGMENT_SIZE, journal.size());
+        assertTrue(journal.getSizeInBytes() < bytes);
+
+        File[] segments = UndoJournal.getDirectory(dbFile).listFiles((dir, name) -> name.startsWith("segment"));
+        assertEquals(1, segments.length);
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(UndoJournal.SEGMENT_SIZE, restarted.open(dbFile, version(UndoJournal.SEGMENT_SIZE * 3)));
+        assertEquals(version(UndoJournal.SEGMENT_SIZE * 3 - 1), restarted.pop(version(UndoJournal.SEGMENT_SIZE * 3)));
+    }
+
+    @Test
+    public void pop_measuredBytes_released() throws IOException {
+        pushVersions(3);
+        long bytes = journal.getSizeInBytes();
+        assertTrue(journal.estimateMemoryUsage() > bytes);
+        journal.pop(version(2));
+        journal.pop(version(1));
+        assertEquals(0, journal.getSizeInBytes());
+        assertEquals(0, journal.estimateMemoryUsage());
+    }
+
+    @Test
+    public void push_compressed_fullSegmentsGzipped() throws IOException {
+        journal.setCompressed(true);
+        pushVersions(UndoJournal.SEGMENT_SIZE + 2);
+
+        File directory = UndoJournal.getDirectory(dbFile);
+        assertTrue(new File(directory, "segment-000000.json.gz").exists());
+        assertFalse(new File(directory, "segment-000000.json").exists());
+        assertTrue(new File(directory, "segment-000001.json").exists());
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(UndoJournal.SEGMENT_SIZE + 1, restarted.open(dbFile, version(UndoJournal.SEGMENT_SIZE + 1)));
+        for (int i = UndoJournal.SEGMENT_SIZE; i >= 0; i--) {
+            assertEquals(version(i), restarted.pop(version(i + 1)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void pop_otherContents_exception() throws IOException {
+        pushVersions(3);
+        journal.pop("{\"tasks\": [\"Edited by hand\"]}");
+    }
+
+    @Test
+    public void push_changedWithoutJournal_recordedAsEntry() throws IOException {
+        pushVersions(2);
+        String edited = "{\"tasks\": [\"Edited by hand\"]}";
+        journal.push(edited, version(2));
+        assertEquals(3, journal.size());
+        assertEquals(edited, journal.pop(version(2)));
+        assertEquals(version(1), journal.pop(edited));
+        assertEquals(version(0), journal.pop(version(1)));
+    }
+
+    @Test
+    public void push_sharedByOtherProcess_entriesOfBothKept() throws IOException {
+        pushVersions(2);
+        UndoJournal other = new UndoJournal();
+        assertEquals(1, other.open(dbFile, version(1)));
+        other.push(version(1), version(2));
+
+        // Picks up the other process's entry before adding its own
+        journal.push(version(2), version(3));
+        assertEquals(3, journal.size());
+        assertEquals(version(2), other.pop(version(3)));
+        assertEquals(version(1), journal.pop(version(2)));
+        assertEquals(version(0), other.pop(version(1)));
+        assertEquals(0, other.size());
+    }
+
+    @Test
+    public void amend_newestEntry_rollsBackBoth() throws IOException {
+        pushVersions(3);
+        assertEquals(0, journal.amend(version(2), version(9)));
+        assertEquals(2, journal.size());
+        assertEquals(version(1), journal.pop(version(9)));
+        assertEquals(version(0), journal.pop(version(1)));
+
+        // Nothing to amend, so nothing is added
+        journal.amend(version(0), version(8));
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    public void move_followsDatabase_historyRestored() throws IOException {
+        pushVersions(3);
+        File newDbFile = new File(folder.getRoot(), "moved/database.json");
+        FileUtil.createParentDirsOfFile(newDbFile);
+        journal.move(newDbFile);
+
+        UndoJournal restarted = new UndoJournal();
+        assertEquals(2, restarted.open(newDbFile, version(2)));
+        assertFalse(UndoJournal.getDirectory(dbFile).exists());
+    }
+
+}
@@ -0,0 +1,105 @@
+package seedu.todo.storage.exporter;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import seedu.todo.commons.util.JsonUtil;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+import seedu.todo.models.TodoListDB;
+import seedu.todo.storage.importer.CalendarItemImporter;
+import seedu.todo.storage.importer.CsvItemReader;
+import seedu.todo.storage.importer.IcsItemReader;
+import seedu.todo.storage.importer.ImportedItem;
+import seedu.todo.storage.importer.ItemReader;
+
+//@@author agent
+public class CalendarItemExporterTest {
+
+    private Task task;
+    private Event event;
+
+    @Before
+    public void setUp() {
+        task = new Task();
+        task.setName("Write \"report\", then submit; a name long enough to be folded onto another line in ICS");
+        task.setDueDate(LocalDateTime.of(2016, 10, 10, 11, 35));
+        task.setCompleted();
+        task.addTag("work");
+        task.addTag("cs2103");
+
+        event = new Event();
+        event.setName("Two\nlines");
+        event.setStartDate(LocalDateTime.of(2016, 10, 11, 9, 0));
+        event.setEndDate(LocalDateTime.of(2016, 10, 11, 10, 0));
+    }
+
+    private String export(ItemWriter writer, StringWriter out) throws Exception {
+        CalendarItemExporter exporter = new CalendarItemExporter(writer);
+        exporter.writeTasks(Stream.of(task));
+        exporter.writeEvents(Stream.of(event));
+        writer.close();
+        assertEquals(1, exporter.getTaskCount());
+        assertEquals(1, exporter.getEventCount());
+        return out.toString();
+    }
+
+    private void assertRoundTrip(ItemReader reader) throws Exception {
+        CalendarItemImporter importer = new CalendarItemImporter();
+        importer.read(reader);
+        List<ImportedItem> items = importer.getItems();
+
+        assertEquals(2, items.size());
+        assertTrue(items.get(0).isTask());
+        assertEquals(task.getName(), items.get(0).getName());
+        assertEquals(task.getDueDate(), items.get(0).getDateFrom());
+        assertEquals(Arrays.asList("work", "cs2103"), items.get(0).getTags());
+        assertFalse(items.get(1).isTask());
+        assertEquals(event.getName(), items.get(1).getName());
+        assertEquals(event.getStartDate(), items.get(1).getDateFrom());
+        assertEquals(event.getEndDate(), items.get(1).getDateTo());
+    }
+
+    @Test
+    public void csv_roundTrip() throws Exception {
+        StringWriter out = new StringWriter();
+        String csv = export(new CsvItemWriter(out), out);
+
+        assertTrue(csv.startsWith("name,type,from,to,tags,completed\n"));
+        assertRoundTrip(new CsvItemReader(new BufferedReader(new StringReader(csv))));
+    }
+
+    @Test
+    public void ics_roundTrip() throws Exception {
+        StringWriter out = new StringWriter();
+        String ics = export(new IcsItemWriter(out), out);
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.length() <= 75);
+        }
+        assertTrue(ics.contains("STATUS:COMPLETED"));
+        assertRoundTrip(new IcsItemReader(new BufferedReader(new StringReader(ics))));
+    }
+
+    @Test
+    public void json_readableAsDB() throws Exception {
+        StringWriter out = new StringWriter();
+        String json = export(new JsonItemWriter(out), out);
+
+        TodoListDB db = JsonUtil.fromJsonString(json, TodoListDB.class);
+        assertEquals(1, db.getAllTasks().size());
+        assertEquals(task.getName(), db.getAllTasks().get(0).getName());
+        assertTrue(db.getAllTasks().get(0).isCompleted());
+        assertEquals(1, db.getAllEvents().size());
+        assertEquals(event.getEndDate(), db.getAllEvents().get(0).getEndDate());
+    }
+
+}
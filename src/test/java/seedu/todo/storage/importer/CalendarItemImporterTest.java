@@ -0,0 +1,135 @@
+package seedu.todo.storage.importer;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import seedu.todo.commons.exceptions.ParseException;
+import seedu.todo.commons.exceptions.UnmatchedQuotesException;
+
+//@@author agent
+public class CalendarItemImporterTest {
+
+    private static List<ImportedItem> importCsv(String csv) throws IOException, ParseException {
+        CalendarItemImporter importer = new CalendarItemImporter();
+        importer.read(new CsvItemReader(new BufferedReader(new StringReader(csv))));
+        return importer.getItems();
+    }
+
+    private static List<ImportedItem> importIcs(String ics) throws IOException, ParseException {
+        CalendarItemImporter importer = new CalendarItemImporter();
+        importer.read(new IcsItemReader(new BufferedReader(new StringReader(ics))));
+        return importer.getItems();
+    }
+
+    @Test
+    public void csv_columnsInAnyOrder() throws Exception {
+        List<ImportedItem> items = importCsv("Tags,Start,Name,End\n"
+                + "work;urgent,2016-10-10 11:35,Meeting,2016-10-10 12:35\n"
+                + ",2016-10-11,Buy milk,\n");
+
+        assertEquals(2, items.size());
+        assertFalse(items.get(0).isTask());
+        assertEquals("Meeting", items.get(0).getName());
+        assertEquals(LocalDateTime.of(2016, 10, 10, 11, 35), items.get(0).getDateFrom());
+        assertEquals(LocalDateTime.of(2016, 10, 10, 12, 35), items.get(0).getDateTo());
+        assertEquals(Arrays.asList("work", "urgent"), items.get(0).getTags());
+        assertTrue(items.get(1).isTask());
+        assertEquals(LocalDateTime.of(2016, 10, 11, 0, 0), items.get(1).getDateFrom());
+    }
+
+    @Test
+    public void csv_quotedFields() throws Exception {
+        List<ImportedItem> items = importCsv("name,due\n"
+                + "\"Say \"\"hi\"\", then bye\",\n"
+                + "\"Two\nlines\",2016-10-10T09:00\n");
+
+        assertEquals(2, items.size());
+        assertEquals("Say \"hi\", then bye", items.get(0).getName());
+        assertNull(items.get(0).getDateFrom());
+        assertEquals("Two\nlines", items.get(1).getName());
+        assertEquals(LocalDateTime.of(2016, 10, 10, 9, 0), items.get(1).getDateFrom());
+    }
+
+    @Test
+    public void csv_skipsInvalidRows() throws Exception {
+        CalendarItemImporter importer = new CalendarItemImporter();
+        importer.read(new CsvItemReader(new BufferedReader(new StringReader("name,type,from,to\n"
+                + ",task,,\n"                                           // No name
+                + "Backwards,event,2016-10-10 12:00,2016-10-10 11:00\n" // Ends before it starts
+                + "No end,event,2016-10-10 12:00,\n"                    // Event without end
+                + "\n"
+                + "Valid,task,,\n"))));
+
+        assertEquals(1, importer.getItems().size());
+        assertEquals("Valid", importer.getItems().get(0).getName());
+        assertEquals(3, importer.getSkippedCount());
+    }
+
+    @Test(expected = ParseException.class)
+    public void csv_requiresNameColumn() throws Exception {
+        importCsv("from,to\n2016-10-10,2016-10-11\n");
+    }
+
+    @Test(expected = UnmatchedQuotesException.class)
+    public void csv_unmatchedQuotes() throws Exception {
+        importCsv("name\n\"Never closed\n");
+    }
+
+    @Test
+    public void ics_eventsAndTodos() throws Exception {
+        List<ImportedItem> items = importIcs("BEGIN:VCALENDAR\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Project\r\n"
+                + "  meeting\\, weekly\r\n"
+                + "DTSTART;TZID=\"Asia/Singapore\":20161010T113500\r\n"
+                + "DTEND:20161011T123500Z\r\n"
+                + "CATEGORIES:work,cs2103\r\n"
+                + "BEGIN:VALARM\r\n"
+                + "SUMMARY:Reminder\r\n"
+                + "END:VALARM\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VTODO\r\n"
+                + "SUMMARY:Submit report\r\n"
+                + "DUE;VALUE=DATE:20161012\r\n"
+                + "STATUS:COMPLETED\r\n"
+                + "END:VTODO\r\n"
+                + "END:VCALENDAR\r\n");
+
+        assertEquals(2, items.size());
+        ImportedItem event = items.get(0);
+        assertFalse(event.isTask());
+        assertEquals("Project meeting, weekly", event.getName());
+        assertEquals(LocalDateTime.of(2016, 10, 10, 11, 35), event.getDateFrom());
+        assertEquals(LocalDateTime.of(2016, 10, 11, 12, 35).atOffset(ZoneOffset.UTC)
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), event.getDateTo());
+        assertEquals(Arrays.asList("work", "cs2103"), event.getTags());
+
+        ImportedItem task = items.get(1);
+        assertTrue(task.isTask());
+        assertEquals("Submit report", task.getName());
+        assertEquals(LocalDateTime.of(2016, 10, 12, 0, 0), task.getDateFrom());
+    }
+
+    @Test
+    public void ics_eventWithoutEnd() throws Exception {
+        List<ImportedItem> items = importIcs("BEGIN:VEVENT\nSUMMARY:Launch\nDTSTART:20161010T090000\nEND:VEVENT\n");
+
+        assertEquals(1, items.size());
+        assertEquals(items.get(0).getDateFrom(), items.get(0).getDateTo());
+    }
+
+    @Test(expected = ParseException.class)
+    public void ics_unterminatedComponent() throws Exception {
+        importIcs("BEGIN:VEVENT\nSUMMARY:Launch\n");
+    }
+
+}
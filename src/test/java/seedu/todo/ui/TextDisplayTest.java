@@ -0,0 +1,103 @@
+package seedu.todo.ui;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import seedu.todo.commons.EphemeralDB;
+import seedu.todo.commons.IndexCursor;
+import seedu.todo.commons.core.CommandDefinition;
+import seedu.todo.commons.util.DateUtil;
+import seedu.todo.models.Event;
+import seedu.todo.models.Task;
+
+//@@author agent
+public class TextDisplayTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2016, 10, 10, 9, 0);
+
+    private ByteArrayOutputStream output;
+    private TextDisplay display;
+
+    @Before
+    public void setUp() throws Exception {
+        output = new ByteArrayOutputStream();
+        display = new TextDisplay(new PrintStream(output, false, StandardCharsets.UTF_8.name()));
+    }
+
+    @After
+    public void tearDown() {
+        EphemeralDB.getInstance().clearDisplayedCalendarItems();
+    }
+
+    private List<String> lines() throws Exception {
+        return Arrays.asList(output.toString(StandardCharsets.UTF_8.name()).split("\\r?\\n"));
+    }
+
+    private static String header(LocalDateTime date) {
+        return String.format("%s (%s)", DateUtil.formatDay(date), DateUtil.formatShortDate(date));
+    }
+
+    @Test
+    public void showIndex_noItems_nothingToShow() throws Exception {
+        display.showIndex(new IndexCursor(null, null), new ArrayList<String>());
+        assertEquals(Arrays.asList("Nothing to show."), lines());
+        assertTrue(EphemeralDB.getInstance().displayedCalendarItems.isEmpty());
+    }
+
+    @Test
+    public void showIndex_items_groupedByDateAndNumbered() throws Exception {
+        Task undated = new Task();
+        undated.setName("Undated");
+        Task task = new Task();
+        task.setName("Report");
+        task.setDueDate(DAY.plusHours(5));
+        task.setCompleted();
+        task.addTag("work");
+        Event event = new Event();
+        event.setName("Meeting");
+        event.setStartDate(DAY);
+        event.setEndDate(DAY.plusHours(1));
+
+        display.showIndex(new IndexCursor(Arrays.asList(task, undated), Arrays.asList(event)),
+                new ArrayList<String>());
+        assertEquals(Arrays.asList(
+                "No Deadline",
+                "  1. [ ] Undated",
+                header(DAY),
+                String.format("  2. Meeting, %s", DateUtil.formatDateFromTo(DAY, DAY.plusHours(1))),
+                String.format("  3. [x] Report, %s [work]", DateUtil.formatTime(DAY.plusHours(5)))), lines());
+
+        // Display indices refer to the items as listed
+        EphemeralDB ephemeralDb = EphemeralDB.getInstance();
+        assertSame(undated, ephemeralDb.getCalendarItemsByDisplayedId(1));
+        assertSame(event, ephemeralDb.getCalendarItemsByDisplayedId(2));
+        assertSame(task, ephemeralDb.getCalendarItemsByDisplayedId(3));
+    }
+
+    @Test
+    public void showHelp_commands_oneLineEach() throws Exception {
+        display.showHelp(Arrays.asList(
+                new CommandDefinition("Add", "Adds a task.", "add <task>", "add"),
+                new CommandDefinition("List", "Lists tasks.", "list", "list")));
+        assertEquals(Arrays.asList(
+                String.format("  %-16s %s", "Add", "add <task>"),
+                String.format("  %-16s %s", "List", "list")), lines());
+    }
+
+    @Test
+    public void showMessage_messageAndInputValue_written() throws Exception {
+        display.showMessage("Task added!");
+        display.showInputValue("add <task>");
+        assertEquals(Arrays.asList("Task added!", "Try: add <task>"), lines());
+    }
+
+}